@@ -0,0 +1,22 @@
+package com.acme.mas.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/** Benchmark state holding a synthetic SMP of {@link #files} files (select sizes with {@code -p files=...}). */
+@State(Scope.Benchmark)
+public class SmpTree {
+    @Param({"10000", "100000", "1000000"})
+    public int files;
+
+    public Path smp;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        smp = SyntheticSmp.get(files);
+    }
+
+    public Path resolve(String rel) { return smp.resolve(rel); }
+}
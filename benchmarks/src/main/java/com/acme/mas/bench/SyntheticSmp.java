@@ -0,0 +1,104 @@
+package com.acme.mas.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates a synthetic SMP tree with roughly the shape of a customised Maximo 7.6 install:
+ * mostly IBM classes under psdi/ and com/ibm/, a customer package and a custom/ folder, product
+ * XML, integration artifacts, a flat etc/ and tools/ residue. File contents are empty except for
+ * the properties and version files. Trees are generated once per size under
+ * {@code -Dmas9.bench.dir} (default: java.io.tmpdir/mas9-bench) and reused by later runs.
+ */
+public final class SyntheticSmp {
+    private static final int FILES_PER_DIR = 200;
+    private static final int MAX_ETC_FILES = 2_000;
+
+    private SyntheticSmp() {}
+
+    public static synchronized Path get(int files) throws IOException {
+        Path base = Path.of(System.getProperty("mas9.bench.dir", Path.of(System.getProperty("java.io.tmpdir"), "mas9-bench").toString()));
+        Path smp = base.resolve("smp-" + files);
+        Path marker = smp.resolve(".complete");
+        if (Files.isRegularFile(marker)) return smp;
+
+        if (Files.exists(smp)) deleteTree(smp);
+        generate(smp, files);
+        Files.writeString(marker, Integer.toString(files));
+        return smp;
+    }
+
+    static void generate(Path smp, int files) throws IOException {
+        Random rnd = new Random(files);
+        Path maximo = smp.resolve("maximo");
+        Path app = maximo.resolve("applications/maximo");
+        Path props = app.resolve("properties");
+
+        Files.createDirectories(props);
+        Files.writeString(props.resolve("version.properties"), versionText(), StandardCharsets.UTF_8);
+        Files.writeString(props.resolve("maximo.properties"), propertiesText(Math.max(200, files / 100)), StandardCharsets.UTF_8);
+
+        int etc = Math.min(MAX_ETC_FILES, files / 50);
+        int presentation = files / 10;
+        int integration = files * 8 / 100;
+        int backup = files * 4 / 100;
+        int patch = files * 4 / 100;
+        int classes = Math.max(0, files - etc - presentation - integration - backup - patch);
+
+        Path classRoot = app.resolve("businessobjects/classes");
+        int psdi = classes * 55 / 100, ibm = classes / 10, customer = classes / 4;
+        fill(classRoot.resolve("psdi/app"), psdi, i -> "Mbo" + i + (i % 10 == 0 ? ".java" : ".class"));
+        fill(classRoot.resolve("com/ibm/tivoli/maximo"), ibm, i -> "Ibm" + i + ".class");
+        fill(classRoot.resolve("com/acme/maximo"), customer, i -> "Acme" + i + (rnd.nextInt(4) == 0 ? ".java" : ".class"));
+        fill(classRoot.resolve("custom"), classes - psdi - ibm - customer, i -> "Custom" + i + (rnd.nextInt(3) == 0 ? ".java" : ".class"));
+
+        fill(props.resolve("product"), presentation, i -> "product" + i + ".xml");
+        fill(app.resolve("integration"), integration, i -> "mxinteg" + i + (i % 5 == 0 ? ".jar" : ".xml"));
+        fill(maximo.resolve("tools/backup"), backup, i -> "backup" + i + (i % 2 == 0 ? ".zip" : ".bak"));
+        fill(maximo.resolve("tools/patch"), patch, i -> "patch" + i + (i % 3 == 0 ? ".log" : ".txt"));
+
+        Path etcDir = maximo.resolve("etc");
+        Files.createDirectories(etcDir);
+        for (int i = 0; i < etc; i++) Files.createFile(etcDir.resolve((i % 4 == 0 ? "mxinteg" : "etc") + i + ".xml"));
+    }
+
+    private interface Namer { String name(int i); }
+
+    /** Spreads {@code n} files over sub-directories of {@link #FILES_PER_DIR} entries. */
+    private static void fill(Path root, int n, Namer namer) throws IOException {
+        Files.createDirectories(root);
+        Path dir = root;
+        for (int i = 0; i < n; i++) {
+            if (i % FILES_PER_DIR == 0) {
+                int d = i / FILES_PER_DIR;
+                dir = root.resolve("p" + (d / FILES_PER_DIR)).resolve("d" + (d % FILES_PER_DIR));
+                Files.createDirectories(dir);
+            }
+            Files.createFile(dir.resolve(namer.name(i)));
+        }
+    }
+
+    public static String versionText() {
+        return "# Maximo product version\nmaximo.product=Maximo Asset Management\nmaximo.version=7.6.1.2\nbuild=20200514-0100\n";
+    }
+
+    /** maximo.properties-style text: comments, blank lines and {@code key=value} pairs. */
+    public static String propertiesText(int lines) {
+        StringBuilder sb = new StringBuilder(lines * 48);
+        for (int i = 0; i < lines; i++) {
+            if (i % 10 == 0) sb.append("# section ").append(i / 10).append('\n');
+            else if (i % 10 == 5) sb.append('\n');
+            else sb.append("mxe.synthetic.property").append(i).append(" = value-").append(i).append("\r\n");
+        }
+        return sb.toString();
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        try (var s = Files.walk(root)) {
+            for (Path p : (Iterable<Path>) s.sorted(java.util.Comparator.reverseOrder())::iterator) Files.delete(p);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.acme.mas.checks;
+
+import com.acme.mas.bench.SmpTree;
+import com.acme.mas.util.FsUtil;
+import com.acme.mas.util.SmpIndex;
+import com.acme.mas.util.SmpIndex.Bucket;
+import com.acme.mas.util.SmpIndex.Entry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-file classification done by the SMP checks once the tree has been indexed: the custom Java
+ * footprint heuristic over every entry of the classes bucket, and version extraction from the
+ * SMP version file (hit) and from maximo.properties (miss, scans the whole text).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SmpClassificationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+        List<Entry> classes;
+        String versionText;
+        String propertiesText;
+
+        @Setup(Level.Trial)
+        public void setUp(SmpTree tree) {
+            classes = SmpIndex.build(tree.smp).entries(Bucket.CLASSES);
+            versionText = FsUtil.safeRead(tree.resolve("maximo/applications/maximo/properties/version.properties"), 200_000);
+            propertiesText = FsUtil.safeRead(tree.resolve("maximo/applications/maximo/properties/maximo.properties"), Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public long javaFootprint(Inputs in) {
+        SmpCustomisationCheck.JavaFootprint fp = new SmpCustomisationCheck.JavaFootprint();
+        for (Entry e : in.classes) fp.add(e.path(), e.ext());
+        return Math.max(fp.nonIbmJava + fp.nonIbmClass, fp.customJava + fp.customClass);
+    }
+
+    @Benchmark
+    public String extractVersion(Inputs in) {
+        return SmpVersionAlignmentCheck.extractVersion(in.versionText);
+    }
+
+    @Benchmark
+    public String extractVersionMiss(Inputs in) {
+        return SmpVersionAlignmentCheck.extractVersion(in.propertiesText);
+    }
+}
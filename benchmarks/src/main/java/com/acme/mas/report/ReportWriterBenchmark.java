@@ -0,0 +1,79 @@
+package com.acme.mas.report;
+
+import com.acme.mas.bench.SmpTree;
+import com.acme.mas.checks.AssessmentResultBuilder;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.Enums.ReportFormat;
+import com.acme.mas.model.Finding;
+import com.acme.mas.model.RiskBlock;
+import com.acme.mas.util.SmpIndex;
+import com.acme.mas.util.SmpIndex.Bucket;
+import com.acme.mas.util.SmpIndex.Entry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes one section per SMP bucket, each carrying a sample of up to 1,000 paths as evidence
+ * and one finding per 100 files in the bucket, configured like the application's mapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReportWriterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+        @Param({"JSON", "NDJSON"})
+        public ReportFormat format;
+
+        final ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        final Map<String, AssessmentResultBuilder> sections = new LinkedHashMap<>();
+        Path out;
+
+        @Setup(Level.Trial)
+        public void setUp(SmpTree tree) throws IOException {
+            SmpIndex index = SmpIndex.build(tree.smp);
+            for (Bucket b : Bucket.values()) {
+                List<Entry> entries = index.entries(b);
+                AssessmentResultBuilder o = new AssessmentResultBuilder();
+                List<String> sample = new ArrayList<>();
+                for (int i = 0; i < entries.size() && i < 1_000; i++) sample.add(entries.get(i).path());
+                o.putEvidence(b.name().toLowerCase(Locale.ROOT) + "_sample", sample);
+                o.putCheck(b.name().toLowerCase(Locale.ROOT) + "_count", entries.size());
+                o.addBlock(new RiskBlock(b.name(), Rag.AMBER, entries.size() + " files", Map.of("root", b.root, "sample", sample)));
+                for (int i = 0; i < entries.size(); i += 100) {
+                    o.addFinding(Finding.warn(b.name(), "Synthetic finding for " + entries.get(i).path(), Map.of("size", entries.get(i).size())));
+                }
+                sections.put(b.name().toLowerCase(Locale.ROOT), o);
+            }
+            out = Files.createTempFile("mas9-bench-report-", ".out");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(out);
+        }
+    }
+
+    @Benchmark
+    public Rag write(Inputs in) throws IOException {
+        try (ReportWriter w = ReportWriter.open(in.out, in.format, in.mapper)) {
+            w.header(Map.of("timestamp_utc", "2026-01-01T00:00:00Z"));
+            for (var e : in.sections.entrySet()) w.section(e.getKey(), e.getValue());
+            w.finish(Map.of("complexity_heatmap", Map.of("java", "AMBER")));
+            return w.overallRag();
+        }
+    }
+}
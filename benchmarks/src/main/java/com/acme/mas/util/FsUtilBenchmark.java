@@ -0,0 +1,47 @@
+package com.acme.mas.util;
+
+import com.acme.mas.bench.SmpTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FsUtilBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+        Path classes;
+        String properties;
+
+        @Setup(Level.Trial)
+        public void setUp(SmpTree tree) {
+            classes = tree.resolve("maximo/applications/maximo/businessobjects/classes");
+            properties = FsUtil.safeRead(tree.resolve("maximo/applications/maximo/properties/maximo.properties"), Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public long countFilesByExt(Inputs in) throws IOException {
+        return FsUtil.countFilesByExt(in.classes, Set.of(".class", ".java"), 25, new ArrayList<>());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<String, String> parseProperties(Inputs in) {
+        return FsUtil.parseProperties(in.properties);
+    }
+
+    @Benchmark
+    public SmpIndex buildIndex(SmpTree tree) {
+        return SmpIndex.build(tree.smp);
+    }
+}
@@ -0,0 +1,63 @@
+package com.acme.mas.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * Automation-script rules over a synthetic ~20 KB Jython script: one anchor pass plus candidate
+ * regexes ({@link RuleSet}) against one full regex pass per rule (the Jython exporter's approach).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RuleSetBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+        RuleSet rules;
+        String script;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            rules = RuleSet.fromResource("/rules/automation-scripts.json");
+            String[] lines = {
+                    "from psdi.mbo import MboConstants",
+                    "wo = mbo.getOwner()",
+                    "if wo is not None and wo.getString(\"STATUS\") == \"APPR\":",
+                    "    mbo.setValue(\"DESCRIPTION\", wo.getString(\"DESCRIPTION\"), MboConstants.NOACCESSCHECK)",
+                    "lines = mbo.getMboSet(\"WPLABOR\")",
+                    "total = 0",
+                    "for i in range(lines.count()):",
+                    "    total += lines.getMbo(i).getDouble(\"LABORHRS\")",
+                    "service.log(\"total hours \" + str(total))",
+            };
+            Random rnd = new Random(9);
+            StringBuilder sb = new StringBuilder();
+            while (sb.length() < 20_000) sb.append(lines[rnd.nextInt(lines.length)]).append('\n');
+            sb.append("mx = MXServer.getMXServer()\nThread.sleep(100)\n");
+            script = sb.toString();
+        }
+    }
+
+    @Benchmark
+    public int ruleSet(Inputs in) {
+        return in.rules.matches(in.script, 12).size();
+    }
+
+    @Benchmark
+    public int regexPerRule(Inputs in) {
+        int n = 0;
+        List<MultiPatternMatcher.Rule> rules = in.rules.matcher().rules();
+        for (MultiPatternMatcher.Rule r : rules) {
+            Matcher m = r.pattern().matcher(in.script);
+            for (int k = 0; k < 12 && m.find(); k++) n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,41 @@
+package com.acme.mas.util;
+
+import com.acme.mas.bench.SmpTree;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.Finding;
+import com.acme.mas.model.RiskBlock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** RAG aggregation over one risk block and one finding per 100 SMP files; nothing is RED, so no early exit. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScoreUtilBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+        List<RiskBlock> blocks = new ArrayList<>();
+        List<Finding> findings = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void setUp(SmpTree tree) {
+            int n = Math.max(1, tree.files / 100);
+            for (int i = 0; i < n; i++) {
+                blocks.add(new RiskBlock("Block " + i, i % 7 == 0 ? Rag.AMBER : Rag.GREEN, "summary " + i, Map.of("i", i)));
+                findings.add(i % 5 == 0 ? Finding.warn("CAT", "warning " + i) : Finding.ok("CAT", "ok " + i));
+            }
+        }
+    }
+
+    @Benchmark
+    public Rag overall(Inputs in) {
+        return ScoreUtil.worst(ScoreUtil.worst(in.blocks), ScoreUtil.ragFromFindings(in.findings));
+    }
+}
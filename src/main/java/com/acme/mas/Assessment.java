@@ -0,0 +1,275 @@
+/*
+ * Copyright © 2026 Aniruddh Panvelkar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * Original Author: Aniruddh Panvelkar
+ * Project: MAS Readiness Assessment Tool
+ */
+
+package com.acme.mas;
+
+import com.acme.mas.checks.*;
+import com.acme.mas.model.Enums.CountMode;
+import com.acme.mas.model.Enums.DbType;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.Enums.ReportFormat;
+import com.acme.mas.model.Finding;
+import com.acme.mas.model.RiskBlock;
+import com.acme.mas.report.Baseline;
+import com.acme.mas.report.ReportWriter;
+import com.acme.mas.util.ConnectionPool;
+import com.acme.mas.util.FsUtil;
+import com.acme.mas.util.RuleSet;
+import com.acme.mas.util.ScoreUtil;
+import com.acme.mas.util.Threads;
+import com.acme.mas.util.TimeBudget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * One assessment of one Maximo environment: connects, runs the checks and streams the report.
+ * Settings default to the CLI defaults. Instances are independent, so several environments can
+ * be assessed concurrently in one JVM (see the fleet command).
+ */
+public final class Assessment {
+    public static final String TOOL_VERSION = "java-1.2.0";
+
+    public String jdbcUrl;
+    public String user;
+    public String password;
+    public DbType dbType = DbType.AUTO;
+    public DbType expectedDbType;
+    public String schema;
+    public String smpDir;
+    public String propertiesFile;
+    public boolean includeDataVolume;
+    public CountMode countMode = CountMode.AUTO;
+    public long exactCountLimit = DataVolumeCheck.RED_ROWS;
+    public double dqSamplePercent;
+    public int dbPoolSize = 4;
+    public int queryTimeoutSeconds = 600;
+    public long checkBudgetSeconds; // 0 = none
+    public long timeBudgetSeconds; // 0 = none
+    public int parallelism = 4;
+    public Path scanCacheDir; // null = no persistent SMP scan cache
+    public boolean invalidateScanCache;
+    public Path presentationBaseline; // presentation digest file overriding the bundled one; null = bundled
+    public Path reportStockList; // stock BIRT design names overriding the bundled list; null = bundled
+    public Path baseline; // previous report to reuse unchanged checks from and diff against; null = full run
+    public ReportFormat format = ReportFormat.JSON;
+    public ConnectionPool pool; // owned by the caller (e.g. serve) and left open; null = open one for this run
+    public Progress progress; // null = no progress callbacks
+
+    /** Called as each check's output is written, with the number of checks written so far and in total. */
+    public interface Progress { void checkDone(String checkId, int done, int total); }
+
+    /** {@code delta} is the baseline diff file, null without a baseline. */
+    public record Result(Path report, Rag overall, Map<String, Rag> heatmap, Map<String, Object> effort,
+                         Map<String, Map<String, Object>> telemetry, Path delta) {}
+
+    public Result run(Path out, ObjectMapper mapper) throws Exception {
+        long deadline = TimeBudget.deadlineAfter(timeBudgetSeconds);
+        AssessmentContext ctx = new AssessmentContext(
+                redactSecrets(jdbcUrl),
+                user,
+                dbType,
+                expectedDbType,
+                schema,
+                smpDir,
+                propertiesFile,
+                includeDataVolume
+        );
+        ctx.countMode = countMode;
+        ctx.exactCountLimit = exactCountLimit;
+        ctx.dqSamplePercent = dqSamplePercent;
+        ctx.checkBudgetSeconds = checkBudgetSeconds;
+        ctx.runDeadlineNanos = deadline;
+        ctx.scanCacheDir = scanCacheDir;
+        ctx.invalidateScanCache = invalidateScanCache;
+        ctx.presentationBaseline = presentationBaseline;
+        ctx.reportStockList = reportStockList;
+        ctx.baseline = baseline == null ? null : Baseline.load(baseline, mapper, TOOL_VERSION);
+        Baseline.Delta delta = ctx.baseline == null ? null : ctx.baseline.delta();
+
+        Map<String, Map<String, Object>> telemetry = new LinkedHashMap<>();
+        try (ReportWriter report = ReportWriter.open(out, format, mapper)) {
+            report.header(reportHeader(ctx));
+
+            AssessmentResultBuilder setup = new AssessmentResultBuilder();
+            setup.putEvidence("smp_dir", FsUtil.fileStat(smpDir));
+            setup.putEvidence("properties_file", FsUtil.fileStat(propertiesFile));
+
+            List<Check> checks;
+            try {
+                ctx.pool = pool != null ? pool : openPool();
+                checks = List.of(
+                        new DbBaselineCheck(),
+                        new UpgradePathValidationCheck(),
+                        new SmpVersionAlignmentCheck(),
+                        new SmpCustomisationCheck(),
+                        new PresentationXmlDiffCheck(),
+                        new CustomCodeSignalsCheck(),
+                        new AutomationComplexityCheck(),
+                        new AutomationScriptAnalysisCheck(),
+                        new WorkflowEscalationCheck(),
+                        new IntegrationCompatibilitySignalsCheck(),
+                        new DataQualitySignalsCheck(),
+                        new DataModelFootprintCheck(),
+                        new ReportInventoryCheck(),
+                        new DataVolumeCheck(),
+                        new LicensingHintsCheck(),
+                        new SecurityPostureSignalsCheck()
+                );
+            } catch (Exception e) {
+                Map<String, Object> conn = new LinkedHashMap<>();
+                conn.put("ok", false);
+                conn.put("error", e.getMessage());
+                setup.putCheck("db_connection", conn);
+                setup.addFinding(Finding.err("DATABASE", "Cannot connect to Maximo DB via JDBC: " + e.getMessage()));
+                // FS-only checks
+                checks = List.of(
+                        new SmpVersionAlignmentCheck(),
+                        new SmpCustomisationCheck(),
+                        new PresentationXmlDiffCheck(),
+                        new CustomCodeSignalsCheck(),
+                        new ReportInventoryCheck(),
+                        new SecurityPostureSignalsCheck()
+                );
+            }
+            report.section("assessment", setup);
+            if (delta != null) delta.section("assessment", setup);
+
+            int total = checks.size();
+            int[] done = {0};
+            try {
+                new CheckRunner(parallelism).runAll(checks, ctx, (c, o) -> {
+                    report.section(c.id(), o);
+                    if (progress != null) progress.checkDone(c.id(), ++done[0], total);
+                    if (delta != null) delta.section(c.id(), o);
+                    for (var e : o.telemetry().entrySet()) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> m = (Map<String, Object>) e.getValue();
+                        telemetry.put(e.getKey(), m);
+                    }
+                });
+            } finally {
+                if (ctx.pool != null && ctx.pool != pool) ctx.pool.close();
+            }
+
+            Map<String, Rag> heatmap = deriveHeatmap(report.blocks());
+            Map<String, Object> effort = ComplexityHeatmapAndEstimatorCheck.estimateEffort(heatmap);
+            Map<String, Object> derived = new LinkedHashMap<>();
+            derived.put("complexity_heatmap", stringifyHeatmap(heatmap));
+            derived.put("effort_estimate", effort);
+            Path deltaFile = null;
+            if (delta != null) {
+                Map<String, Object> diff = delta.toMap(report.overallRag());
+                derived.put("baseline_delta", diff);
+                deltaFile = deltaPath(out);
+                mapper.writeValue(deltaFile.toFile(), diff);
+            }
+            report.finish(derived);
+            return new Result(out, report.overallRag(), heatmap, effort, telemetry, deltaFile);
+        }
+    }
+
+    /** Pool of read-only connections with this assessment's credentials, size and query timeout. */
+    public ConnectionPool openPool() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", user);
+        props.setProperty("password", password == null ? "" : password);
+        return new ConnectionPool(jdbcUrl, props, dbPoolSize, queryTimeoutSeconds);
+    }
+
+    static Map<String, Object> reportHeader(AssessmentContext ctx) {
+        Map<String, Object> inputs = new LinkedHashMap<>();
+        inputs.put("jdbc_url_redacted", ctx.jdbcUrlRedacted);
+        inputs.put("user", ctx.user);
+        inputs.put("db_type", String.valueOf(ctx.requestedDbType));
+        inputs.put("expected_db_type", ctx.expectedDbType == null ? null : String.valueOf(ctx.expectedDbType));
+        inputs.put("schema", ctx.schema);
+        inputs.put("smp_dir", ctx.smpDir);
+        inputs.put("properties_file", ctx.propertiesFile);
+        inputs.put("include_data_volume", ctx.includeDataVolume);
+        inputs.put("count_mode", String.valueOf(ctx.countMode));
+        inputs.put("dq_sample_percent", ctx.dqSamplePercent);
+        inputs.put("check_budget_seconds", ctx.checkBudgetSeconds);
+        inputs.put("presentation_baseline", ctx.presentationBaseline == null ? null : ctx.presentationBaseline.toString());
+        inputs.put("report_stock_list", ctx.reportStockList == null ? null : ctx.reportStockList.toString());
+        inputs.put("baseline", ctx.baseline == null ? null : ctx.baseline.file().toString());
+
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("timestamp_utc", Instant.now().toString());
+        header.put("tool", toolInfo("source_only"));
+        Map<String, Object> host = new LinkedHashMap<>();
+        host.put("hostname", safeHostName());
+        host.put("os", System.getProperty("os.name"));
+        host.put("java", System.getProperty("java.version"));
+        host.put("threads", Threads.mode());
+        header.put("host", host);
+        header.put("inputs", inputs);
+        return header;
+    }
+
+    /** Tool identification for report and summary headers, in a fixed key order. */
+    static Map<String, Object> toolInfo(String mode) {
+        Map<String, Object> tool = new LinkedHashMap<>();
+        tool.put("name", "mas9_source_readiness");
+        tool.put("mode", mode);
+        tool.put("version", TOOL_VERSION);
+        return tool;
+    }
+
+    /** {@code report.json} / {@code report.ndjson} -> {@code report.delta.json} next to it. */
+    static Path deltaPath(Path report) {
+        String name = report.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return report.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".delta.json");
+    }
+
+    public static Map<String, Rag> deriveHeatmap(List<RiskBlock> blocks) {
+        Map<String, Rag> map = new LinkedHashMap<>();
+        map.put("java", ScoreUtil.worst(ragFor(blocks, "Custom Java footprint"), ragFor(blocks, "Custom Java code signals")));
+        map.put("ui", ragFor(blocks, "Presentation XML overrides"));
+        map.put("automation", ScoreUtil.worst(ragFor(blocks, "Automation script footprint"), ragFor(blocks, "Automation script source signals")));
+        map.put("workflow", ragFor(blocks, "Workflow and escalation complexity"));
+        map.put("integration", ragFor(blocks, "Integration artifacts"));
+        map.put("reports", ragFor(blocks, "BIRT report inventory"));
+        map.put("data_model", ragFor(blocks, "Custom data model footprint"));
+        map.put("data_volume", ragFor(blocks, "Data volume signals"));
+        map.put("security", ragFor(blocks, "Security posture signals"));
+        map.put("hygiene", ragFor(blocks, "Environment hygiene signals"));
+        return map;
+    }
+
+    static Rag ragFor(List<RiskBlock> blocks, String blockName) {
+        for (RiskBlock b : blocks) {
+            if (b.name().equalsIgnoreCase(blockName)) return b.rag();
+        }
+        return Rag.AMBER;
+    }
+
+    public static Map<String,String> stringifyHeatmap(Map<String,Rag> heatmap) {
+        Map<String,String> out = new LinkedHashMap<>();
+        for (var e : heatmap.entrySet()) out.put(e.getKey(), e.getValue().toString());
+        return out;
+    }
+
+    private static final RuleSet SECRETS = RuleSet.fromResource("/rules/secrets.json");
+
+    public static String redactSecrets(String s) {
+        return SECRETS.mask(s, "***");
+    }
+
+    static String safeHostName() {
+        try { return InetAddress.getLocalHost().getHostName(); }
+        catch (Exception e) { return "unknown"; }
+    }
+}
@@ -11,12 +11,23 @@
 
 package com.acme.mas;
 
+import com.acme.mas.checks.DataVolumeCheck;
+import com.acme.mas.model.Enums.CountMode;
 import com.acme.mas.model.Enums.DbType;
+import com.acme.mas.report.Baseline;
+import com.acme.mas.util.ConnectionPool;
 import com.acme.mas.util.Dialect;
+import com.acme.mas.util.SchemaInventory;
+import com.acme.mas.util.SmpIndex;
+import com.acme.mas.util.SmpScanCache;
+import com.acme.mas.util.TimeBudget;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
+import java.sql.SQLException;
 
 public final class AssessmentContext {
     public final String jdbcUrlRedacted;
@@ -28,11 +39,27 @@ public final class AssessmentContext {
     public final String propertiesFile;
     public final boolean includeDataVolume;
 
-    public Connection connection; // set when DB is connected
+    public CountMode countMode = CountMode.AUTO;
+    public long exactCountLimit = DataVolumeCheck.RED_ROWS;
+    public double dqSamplePercent; // 0 = profile whole tables
+    public long checkBudgetSeconds; // 0 = no per-check budget
+    public long runDeadlineNanos = TimeBudget.NO_DEADLINE; // System.nanoTime() deadline for the whole run
+    public Baseline baseline; // previous report whose unchanged check outputs are reused; null = run everything
+
+    public ConnectionPool pool; // set when DB is connected
     public DbType effectiveDbType = DbType.UNKNOWN;
     public Dialect dialect = new Dialect(DbType.SQLSERVER);
 
     public String dbVersionBest;
+    public SchemaInventory schemaInventory; // loaded by db-baseline; null without a DB
+    public Path presentationBaseline; // presentation digest file overriding the bundled one; null = bundled
+    public Path reportStockList; // stock BIRT design names overriding the bundled list; null = bundled
+
+    public Path scanCacheDir; // null = no persistent SMP scan cache
+    public boolean invalidateScanCache;
+
+    private SmpIndex smpIndex;
+    private SmpScanCache scanCache;
 
     public AssessmentContext(String jdbcUrlRedacted, String user, DbType requestedDbType, DbType expectedDbType,
                              String schema, String smpDir, String propertiesFile, boolean includeDataVolume) {
@@ -46,11 +73,38 @@ public final class AssessmentContext {
         this.includeDataVolume = includeDataVolume;
     }
 
+    public boolean hasDb() { return pool != null; }
+
+    /** Borrows a pooled read-only connection; close it to hand it back. */
+    public Connection borrowConnection() throws SQLException {
+        if (pool == null) throw new SQLException("No DB connection available.");
+        return pool.borrow();
+    }
+
     public Path smpPath() {
         if (smpDir == null || smpDir.isBlank()) return null;
         return Paths.get(smpDir);
     }
 
+    /** SMP index shared by all SMP checks; built once, by whichever check asks first. Null if no SMP dir is available. */
+    public synchronized SmpIndex smpIndex() {
+        Path smp = smpPath();
+        if (smp == null || !Files.isDirectory(smp)) return null;
+        if (smpIndex == null) {
+            if (scanCacheDir != null) {
+                scanCache = SmpScanCache.open(scanCacheDir, smp, invalidateScanCache);
+                smpIndex = SmpIndex.build(smp, scanCache);
+                try { scanCache.save(); } catch (IOException ignored) { }
+            } else {
+                smpIndex = SmpIndex.build(smp);
+            }
+        }
+        return smpIndex;
+    }
+
+    /** Scan cache used for the SMP index, or null when caching is off or the index was not built yet. */
+    public synchronized SmpScanCache scanCache() { return scanCache; }
+
     public Path propertiesPath() {
         if (propertiesFile == null || propertiesFile.isBlank()) return null;
         return Paths.get(propertiesFile);
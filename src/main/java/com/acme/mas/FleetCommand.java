@@ -0,0 +1,189 @@
+/*
+ * Copyright © 2026 Aniruddh Panvelkar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * Original Author: Aniruddh Panvelkar
+ * Project: MAS Readiness Assessment Tool
+ */
+
+package com.acme.mas;
+
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.Enums.ReportFormat;
+import com.acme.mas.util.ScoreUtil;
+import picocli.CommandLine;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@CommandLine.Command(
+        name = "fleet",
+        mixinStandardHelpOptions = true,
+        description = "Assess every environment in an inventory file in one process, writing one report per environment plus a fleet summary.",
+        sortOptions = false
+)
+public class FleetCommand implements Callable<Integer> {
+
+    @CommandLine.Option(names = "--inventory", required = true, description = "Fleet inventory JSON (environments with jdbc_url, user, password_env/password_file, schema, smp_dir, properties_file, ...).")
+    private Path inventory;
+
+    @CommandLine.Option(names = "--out-dir", description = "Directory for per-environment reports and fleet-summary.json. Default: mas9_fleet_<timestamp>")
+    private Path outDir;
+
+    @CommandLine.Option(names = "--parallelism", defaultValue = "4", description = "Maximum number of environments assessed concurrently. Default: ${DEFAULT-VALUE}")
+    private int parallelism;
+
+    @CommandLine.Option(names = "--format", defaultValue = "JSON", description = "Per-environment report format: ${COMPLETION-CANDIDATES}. Default: ${DEFAULT-VALUE}")
+    private ReportFormat format;
+
+    @CommandLine.Option(names = "--baseline-dir", description = "Out-dir of a previous fleet run; each environment with a report there (<name>.json/.ndjson) is assessed against it as --baseline.")
+    private Path baselineDir;
+
+    private record EnvResult(String name, Assessment.Result result, String error) {}
+
+    @Override
+    public Integer call() throws Exception {
+        FleetInventory inv = FleetInventory.load(inventory, Mas9SourceReadinessApp.MAPPER);
+        List<FleetInventory.Environment> envs = inv.resolved();
+        checkFileNames(envs);
+
+        Path dir = outDir != null ? outDir : Path.of("mas9_fleet_" + Instant.now().toString().replace(":", "").replace(".", ""));
+        Files.createDirectories(dir);
+        String ext = format == ReportFormat.NDJSON ? ".ndjson" : ".json";
+
+        AtomicInteger n = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, envs.size())), r -> {
+            Thread t = new Thread(r, "mas9-env-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<EnvResult>> futures = new ArrayList<>();
+        try {
+            for (FleetInventory.Environment env : envs) {
+                futures.add(pool.submit(() -> {
+                    EnvResult r;
+                    try {
+                        Assessment a = env.toAssessment();
+                        a.format = format;
+                        a.baseline = baselineFor(env.name());
+                        r = new EnvResult(env.name(), a.run(dir.resolve(fileName(env.name()) + ext), Mas9SourceReadinessApp.MAPPER), null);
+                        System.out.println("[" + env.name() + "] " + r.result().overall() + " -> " + r.result().report());
+                    } catch (Exception e) {
+                        r = new EnvResult(env.name(), null, String.valueOf(e.getMessage()));
+                        System.out.println("[" + env.name() + "] FAILED: " + r.error());
+                    }
+                    return r;
+                }));
+            }
+            List<EnvResult> results = new ArrayList<>();
+            for (Future<EnvResult> f : futures) results.add(f.get());
+            return summarize(results, dir);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int summarize(List<EnvResult> results, Path dir) throws Exception {
+        Map<String, Rag> fleetHeatmap = new LinkedHashMap<>();
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        Rag worst = Rag.GREEN;
+        boolean failed = false;
+
+        List<Map<String, Object>> envs = new ArrayList<>();
+        for (EnvResult r : results) {
+            Map<String, Object> e = new LinkedHashMap<>();
+            e.put("name", r.name());
+            if (r.result() == null) {
+                failed = true;
+                e.put("error", r.error());
+                envs.add(e);
+                continue;
+            }
+            Assessment.Result a = r.result();
+            worst = ScoreUtil.worst(worst, a.overall());
+            for (var h : a.heatmap().entrySet()) {
+                fleetHeatmap.merge(h.getKey(), h.getValue(), ScoreUtil::worst);
+                counts.computeIfAbsent(h.getKey(), k -> emptyCounts())
+                        .merge(h.getValue().toString(), 1, Integer::sum);
+            }
+            e.put("report", a.report().toString());
+            if (a.delta() != null) e.put("delta", a.delta().toString());
+            e.put("overall_rag", a.overall().toString());
+            e.put("complexity_heatmap", Assessment.stringifyHeatmap(a.heatmap()));
+            e.put("effort_estimate", a.effort());
+            envs.add(e);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("timestamp_utc", Instant.now().toString());
+        summary.put("tool", Assessment.toolInfo("fleet"));
+        summary.put("inventory", inventory.toString());
+        summary.put("environments", envs);
+        summary.put("fleet_heatmap", Assessment.stringifyHeatmap(fleetHeatmap));
+        summary.put("heatmap_counts", counts);
+        summary.put("failed_environments", envs.stream().filter(e -> e.containsKey("error")).map(e -> e.get("name")).toList());
+        Path summaryFile = dir.resolve("fleet-summary.json");
+        Mas9SourceReadinessApp.MAPPER.writeValue(summaryFile.toFile(), summary);
+
+        System.out.println("\n=== MAS9 Source Readiness (Fleet) ===");
+        System.out.print(table(results, fleetHeatmap));
+        System.out.println("\nSummary: " + summaryFile + "\n");
+
+        return failed ? 2 : Mas9SourceReadinessApp.exitCode(worst);
+    }
+
+    private static Map<String, Integer> emptyCounts() {
+        Map<String, Integer> m = new LinkedHashMap<>();
+        for (Rag r : List.of(Rag.GREEN, Rag.AMBER, Rag.RED)) m.put(r.toString(), 0);
+        return m;
+    }
+
+    private static String table(List<EnvResult> results, Map<String, Rag> fleetHeatmap) {
+        List<String> keys = new ArrayList<>(fleetHeatmap.keySet());
+        int w = Math.max(13, results.stream().mapToInt(r -> r.name().length()).max().orElse(0));
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-" + w + "s %-7s", "environment", "overall"));
+        for (String k : keys) sb.append(String.format(Locale.ROOT, " %-11s", k));
+        sb.append('\n');
+        for (EnvResult r : results) {
+            sb.append(String.format(Locale.ROOT, "%-" + w + "s %-7s", r.name(), r.result() == null ? "FAILED" : r.result().overall()));
+            if (r.result() != null) {
+                for (String k : keys) sb.append(String.format(Locale.ROOT, " %-11s", r.result().heatmap().getOrDefault(k, Rag.AMBER)));
+            }
+            sb.append('\n');
+        }
+        sb.append(String.format(Locale.ROOT, "%-" + w + "s %-7s", "fleet (worst)", ""));
+        for (String k : keys) sb.append(String.format(Locale.ROOT, " %-11s", fleetHeatmap.get(k)));
+        return sb.append('\n').toString();
+    }
+
+    private Path baselineFor(String envName) {
+        if (baselineDir == null) return null;
+        for (String ext : List.of(".json", ".ndjson")) {
+            Path p = baselineDir.resolve(fileName(envName) + ext);
+            if (Files.isRegularFile(p)) return p;
+        }
+        return null;
+    }
+
+    /** Fails fast when two environment names map to the same report file (also on case-insensitive filesystems). */
+    static void checkFileNames(List<FleetInventory.Environment> envs) {
+        Map<String, String> byFile = new HashMap<>();
+        for (FleetInventory.Environment e : envs) {
+            String other = byFile.putIfAbsent(fileName(e.name()).toLowerCase(Locale.ROOT), e.name());
+            if (other != null) {
+                throw new IllegalArgumentException("Environments '" + other + "' and '" + e.name() +
+                        "' would both write " + fileName(e.name()) + ".*; rename one of them.");
+            }
+        }
+    }
+
+    static String fileName(String envName) {
+        return envName.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2026 Aniruddh Panvelkar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * Original Author: Aniruddh Panvelkar
+ * Project: MAS Readiness Assessment Tool
+ */
+
+package com.acme.mas;
+
+import com.acme.mas.model.Enums.CountMode;
+import com.acme.mas.model.Enums.DbType;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Fleet inventory file (JSON, snake_case keys). Every environment inherits unset fields from
+ * {@code defaults}. Passwords are never stored in the file: each environment names an
+ * environment variable ({@code password_env}) or a file ({@code password_file}) holding it.
+ *
+ * <pre>
+ * {
+ *   "defaults": { "user": "maxro", "schema": "MAXIMO", "password_env": "MAXIMO_RO_PASSWORD" },
+ *   "environments": [
+ *     { "name": "bu1-prod", "jdbc_url": "jdbc:oracle:thin:@//db1:1521/MAXPRD",
+ *       "smp_dir": "/smp/bu1-prod", "properties_file": "/smp/bu1-prod/maximo/applications/maximo/properties/maximo.properties" }
+ *   ]
+ * }
+ * </pre>
+ */
+public record FleetInventory(Environment defaults, List<Environment> environments) {
+
+    public record Environment(String name, String jdbcUrl, String user, String passwordEnv, String passwordFile,
+                              DbType dbType, DbType expectedDbType, String schema, String smpDir, String propertiesFile,
+                              Boolean includeDataVolume, CountMode countMode, Long exactCountLimit, Double dqSamplePercent,
+                              Integer dbPoolSize, Integer queryTimeout, Long checkBudget, Long timeBudget,
+                              Integer parallelism, String scanCacheDir) {
+
+        Environment withDefaults(Environment d) {
+            if (d == null) return this;
+            return new Environment(name, or(jdbcUrl, d.jdbcUrl), or(user, d.user),
+                    passwordEnv != null || passwordFile != null ? passwordEnv : d.passwordEnv,
+                    passwordEnv != null || passwordFile != null ? passwordFile : d.passwordFile,
+                    or(dbType, d.dbType), or(expectedDbType, d.expectedDbType), or(schema, d.schema),
+                    or(smpDir, d.smpDir), or(propertiesFile, d.propertiesFile),
+                    or(includeDataVolume, d.includeDataVolume), or(countMode, d.countMode), or(exactCountLimit, d.exactCountLimit),
+                    or(dqSamplePercent, d.dqSamplePercent),
+                    or(dbPoolSize, d.dbPoolSize), or(queryTimeout, d.queryTimeout),
+                    or(checkBudget, d.checkBudget), or(timeBudget, d.timeBudget), or(parallelism, d.parallelism),
+                    or(scanCacheDir, d.scanCacheDir));
+        }
+
+        /** Assessment for this environment; resolves the password from its env var or file. */
+        Assessment toAssessment() throws IOException {
+            Assessment a = new Assessment();
+            a.jdbcUrl = jdbcUrl;
+            a.user = user;
+            a.password = password();
+            if (dbType != null) a.dbType = dbType;
+            a.expectedDbType = expectedDbType;
+            a.schema = schema;
+            a.smpDir = smpDir;
+            a.propertiesFile = propertiesFile;
+            if (includeDataVolume != null) a.includeDataVolume = includeDataVolume;
+            if (countMode != null) a.countMode = countMode;
+            if (exactCountLimit != null) a.exactCountLimit = exactCountLimit;
+            if (dqSamplePercent != null) a.dqSamplePercent = dqSamplePercent;
+            if (dbPoolSize != null) a.dbPoolSize = dbPoolSize;
+            if (queryTimeout != null) a.queryTimeoutSeconds = queryTimeout;
+            if (checkBudget != null) a.checkBudgetSeconds = checkBudget;
+            if (timeBudget != null) a.timeBudgetSeconds = timeBudget;
+            if (parallelism != null) a.parallelism = parallelism;
+            if (scanCacheDir != null && !scanCacheDir.isBlank()) a.scanCacheDir = Path.of(scanCacheDir);
+            return a;
+        }
+
+        private String password() throws IOException {
+            if (passwordEnv != null) {
+                String v = System.getenv(passwordEnv);
+                if (v == null) throw new IOException("Environment variable " + passwordEnv + " is not set.");
+                return v;
+            }
+            if (passwordFile != null) return Files.readString(Path.of(passwordFile), StandardCharsets.UTF_8).strip();
+            return "";
+        }
+
+        private static <T> T or(T v, T fallback) { return v != null ? v : fallback; }
+    }
+
+    public static FleetInventory load(Path file, ObjectMapper mapper) throws IOException {
+        ObjectMapper m = mapper.copy()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        FleetInventory inv = m.readValue(file.toFile(), FleetInventory.class);
+        if (inv.environments() == null || inv.environments().isEmpty()) throw new IOException("Inventory lists no environments: " + file);
+
+        Set<String> names = new HashSet<>();
+        for (Environment e : inv.environments()) {
+            if (e.name() == null || e.name().isBlank()) throw new IOException("Every environment needs a name.");
+            if (!names.add(e.name())) throw new IOException("Duplicate environment name: " + e.name());
+        }
+        return inv;
+    }
+
+    /** Environments with defaults applied, in inventory order. */
+    public List<Environment> resolved() {
+        List<Environment> out = new ArrayList<>();
+        for (Environment e : environments) {
+            Environment r = e.withDefaults(defaults);
+            if (r.jdbcUrl() == null || r.user() == null) {
+                throw new IllegalArgumentException("Environment '" + e.name() + "' needs jdbc_url and user (directly or via defaults).");
+            }
+            out.add(r);
+        }
+        return out;
+    }
+}
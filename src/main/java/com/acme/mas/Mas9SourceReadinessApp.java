@@ -11,42 +11,37 @@
 
 package com.acme.mas;
 
-import com.acme.mas.checks.*;
-import com.acme.mas.model.AssessmentResult;
+import com.acme.mas.model.Enums.CountMode;
 import com.acme.mas.model.Enums.DbType;
 import com.acme.mas.model.Enums.Rag;
-import com.acme.mas.model.Finding;
-import com.acme.mas.model.RiskBlock;
-import com.acme.mas.util.FsUtil;
+import com.acme.mas.model.Enums.ReportFormat;
+import com.acme.mas.util.Telemetry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import picocli.CommandLine;
 
-import java.net.InetAddress;
 import java.nio.file.Path;
-import java.sql.Connection;
-import java.sql.DriverManager;
 import java.time.Instant;
 import java.util.*;
-import java.util.regex.Pattern;
 
 @CommandLine.Command(
         name = "mas9-source-readiness",
         mixinStandardHelpOptions = true,
         version = "1.2.0",
         description = "MAS9 source-only readiness checker (Maximo 7.6.x assessed against MAS9 source prerequisites).",
-        sortOptions = false
+        sortOptions = false,
+        subcommands = {FleetCommand.class, ServeCommand.class, PresentationBaselineCommand.class}
 )
 public class Mas9SourceReadinessApp implements java.util.concurrent.Callable<Integer> {
 
-    @CommandLine.Option(names = "--jdbc-url", required = true, description = "JDBC URL to Maximo database.")
+    @CommandLine.Option(names = "--jdbc-url", description = "JDBC URL to Maximo database (required unless running a subcommand).")
     private String jdbcUrl;
 
-    @CommandLine.Option(names = "--user", required = true, description = "DB username (read-only recommended).")
+    @CommandLine.Option(names = "--user", description = "DB username (read-only recommended).")
     private String user;
 
-    @CommandLine.Option(names = "--password", required = true, interactive = true, description = "DB password (interactive prompt recommended).")
+    @CommandLine.Option(names = "--password", interactive = true, description = "DB password (interactive prompt recommended).")
     private String password;
 
     @CommandLine.Option(names = "--db-type", defaultValue = "AUTO", description = "DB type: ${COMPLETION-CANDIDATES}. Default: ${DEFAULT-VALUE}")
@@ -67,10 +62,58 @@ public class Mas9SourceReadinessApp implements java.util.concurrent.Callable<Int
     @CommandLine.Option(names = "--include-data-volume", defaultValue = "false", description = "Enable potentially expensive row-count checks. Default: ${DEFAULT-VALUE}")
     private boolean includeDataVolume;
 
-    @CommandLine.Option(names = "--out", description = "Output JSON report path. Default: mas9_source_readiness_<timestamp>.json")
+    @CommandLine.Option(names = "--count-mode", defaultValue = "AUTO", description = "Row count source for data volume: ${COMPLETION-CANDIDATES}. AUTO reads optimizer statistics and falls back to a capped COUNT(*). Default: ${DEFAULT-VALUE}")
+    private CountMode countMode;
+
+    @CommandLine.Option(names = "--exact-count-limit", defaultValue = "50000000", description = "Row cap for fallback COUNT(*) in AUTO mode (0 = uncapped). A capped count is a lower bound: below 50000000 (the data volume RED threshold) a RED-sized table can only show as AMBER. Default: ${DEFAULT-VALUE}")
+    private long exactCountLimit;
+
+    @CommandLine.Option(names = "--dq-sample-percent", defaultValue = "0", description = "Profile data quality on a native table sample of this percentage (TABLESAMPLE / SAMPLE) with 95% confidence intervals instead of scanning whole tables (0 = full scan). Default: ${DEFAULT-VALUE}")
+    private double dqSamplePercent;
+
+    @CommandLine.Option(names = "--db-pool-size", defaultValue = "4", description = "Number of read-only DB connections shared by concurrent checks. Default: ${DEFAULT-VALUE}")
+    private int dbPoolSize;
+
+    @CommandLine.Option(names = "--query-timeout", defaultValue = "600", description = "Per-statement query timeout in seconds (0 = driver default). Default: ${DEFAULT-VALUE}")
+    private int queryTimeoutSeconds;
+
+    @CommandLine.Option(names = "--check-budget", defaultValue = "0", description = "Wall-clock budget per check in seconds; when it runs out the check's queries are cancelled and its results are reported as partial (0 = none). Default: ${DEFAULT-VALUE}")
+    private long checkBudgetSeconds;
+
+    @CommandLine.Option(names = "--time-budget", defaultValue = "0", description = "Wall-clock budget for the whole assessment in seconds; checks still running are cut short and checks not yet started are skipped (0 = none). Default: ${DEFAULT-VALUE}")
+    private long timeBudgetSeconds;
+
+    @CommandLine.Option(names = "--parallelism", defaultValue = "4", description = "Maximum number of checks run concurrently. Default: ${DEFAULT-VALUE}")
+    private int parallelism;
+
+    @CommandLine.Option(names = "--scan-cache-dir", description = "Directory for a persistent SMP scan cache; unchanged SMP directories are not re-listed on later runs. Off by default.")
+    private String scanCacheDir;
+
+    @CommandLine.Option(names = "--invalidate-scan-cache", defaultValue = "false", description = "Ignore any existing SMP scan cache and rebuild it. Default: ${DEFAULT-VALUE}")
+    private boolean invalidateScanCache;
+
+    @CommandLine.Option(names = "--baseline", description = "Previous report (JSON or NDJSON) to compare against: checks whose inputs are unchanged (directory listings, MAXVARS versions, table statistics timestamps) reuse its results, and RAG changes and new/removed findings are written to <report>.delta.json.")
+    private Path baseline;
+
+    @CommandLine.Option(names = "--presentation-baseline", description = "Presentation digest file (from the presentation-baseline subcommand) to compare presentation and product XMLs against instead of the bundled baseline for the detected 7.6.x level.")
+    private Path presentationBaseline;
+
+    @CommandLine.Option(names = "--report-stock-list", description = "Text file of out-of-the-box BIRT design file names (one per line) used to tell stock reports from custom ones instead of the bundled list for the detected 7.6.x level.")
+    private Path reportStockList;
+
+    @CommandLine.Option(names = "--out", description = "Output report path. Default: mas9_source_readiness_<timestamp>.json (or .ndjson)")
     private String out;
 
-    private static final ObjectMapper MAPPER = new ObjectMapper()
+    @CommandLine.Option(names = "--format", defaultValue = "JSON", description = "Report format: ${COMPLETION-CANDIDATES}. NDJSON writes one line per finding/block/entry as checks finish. Default: ${DEFAULT-VALUE}")
+    private ReportFormat format;
+
+    @CommandLine.Option(names = "--telemetry-summary", defaultValue = "false", description = "Print per-check wall/CPU time, allocation, SQL and file I/O totals after the run (always recorded in the report's telemetry section). Default: ${DEFAULT-VALUE}")
+    private boolean telemetrySummary;
+
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
+    static final ObjectMapper MAPPER = new ObjectMapper()
             .registerModule(new JavaTimeModule())
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
             .enable(SerializationFeature.INDENT_OUTPUT);
@@ -82,170 +125,63 @@ public class Mas9SourceReadinessApp implements java.util.concurrent.Callable<Int
 
     @Override
     public Integer call() throws Exception {
-        String jdbcUrlRedacted = redactSecrets(jdbcUrl);
-
-        AssessmentContext ctx = new AssessmentContext(
-                jdbcUrlRedacted,
-                user,
-                dbType,
-                expectedDbType,
-                schema,
-                smpDir,
-                propertiesFile,
-                includeDataVolume
-        );
-
-        AssessmentResultBuilder builder = new AssessmentResultBuilder();
-        builder.putEvidence("smp_dir", FsUtil.fileStat(smpDir));
-        builder.putEvidence("properties_file", FsUtil.fileStat(propertiesFile));
-
-        Properties props = new Properties();
-        props.setProperty("user", user);
-        props.setProperty("password", password);
-
-        try (Connection conn = DriverManager.getConnection(jdbcUrl, props)) {
-            ctx.connection = conn;
-
-            List<Check> checks = List.of(
-                    new DbBaselineCheck(),
-                    new UpgradePathValidationCheck(),
-                    new SmpVersionAlignmentCheck(),
-                    new SmpCustomisationCheck(),
-                    new AutomationComplexityCheck(),
-                    new IntegrationCompatibilitySignalsCheck(),
-                    new DataQualitySignalsCheck(),
-                    new DataVolumeCheck(),
-                    new LicensingHintsCheck(),
-                    new SecurityPostureSignalsCheck()
-            );
-
-            for (Check c : checks) {
-                try { c.run(ctx, builder); }
-                catch (Exception e) {
-                    builder.addFinding(Finding.warn("CHECKS", "Check '" + c.id() + "' failed: " + e.getMessage(), Map.of("check", c.id())));
-                }
-            }
-
-        } catch (Exception e) {
-            builder.putCheck("db_connection", Map.of("ok", false, "error", e.getMessage()));
-            builder.addFinding(Finding.err("DATABASE", "Cannot connect to Maximo DB via JDBC: " + e.getMessage()));
-            // FS-only checks
-            List<Check> checks = List.of(
-                    new SmpVersionAlignmentCheck(),
-                    new SmpCustomisationCheck(),
-                    new SecurityPostureSignalsCheck()
-            );
-            for (Check c : checks) {
-                try { c.run(ctx, builder); }
-                catch (Exception ex) {
-                    builder.addFinding(Finding.warn("CHECKS", "Check '" + c.id() + "' failed: " + ex.getMessage(), Map.of("check", c.id())));
-                }
-            }
+        List<String> missing = new ArrayList<>();
+        if (jdbcUrl == null) missing.add("'--jdbc-url=<jdbcUrl>'");
+        if (user == null) missing.add("'--user=<user>'");
+        if (password == null) missing.add("'--password'");
+        if (!missing.isEmpty()) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "Missing required options: " + String.join(", ", missing));
         }
 
-        AssessmentResult result = builder.build();
-
-        Map<String, Rag> heatmap = deriveHeatmap(result.blocks());
-        builder.putDerived("complexity_heatmap", stringifyHeatmap(heatmap));
-        builder.putDerived("effort_estimate", ComplexityHeatmapAndEstimatorCheck.estimateEffort(heatmap));
-        result = builder.build();
-
-        Map<String, Object> report = new LinkedHashMap<>();
-        report.put("timestamp_utc", Instant.now().toString());
-        report.put("tool", Map.of("name", "mas9_source_readiness", "mode", "source_only", "version", "java-1.2.0"));
-        report.put("host", Map.of(
-                "hostname", safeHostName(),
-                "os", System.getProperty("os.name"),
-                "java", System.getProperty("java.version")
-        ));
-        report.put("inputs", Map.of(
-                "jdbc_url_redacted", ctx.jdbcUrlRedacted,
-                "user", ctx.user,
-                "db_type", String.valueOf(ctx.requestedDbType),
-                "expected_db_type", ctx.expectedDbType == null ? null : String.valueOf(ctx.expectedDbType),
-                "schema", ctx.schema,
-                "smp_dir", ctx.smpDir,
-                "properties_file", ctx.propertiesFile,
-                "include_data_volume", ctx.includeDataVolume
-        ));
-        report.put("evidence", result.evidence());
-        report.put("checks", result.checks());
-        report.put("derived", result.derived());
-        report.put("rag", Map.of("overall", result.overallRag().toString()));
-
-        List<Map<String,Object>> blocksOut = new ArrayList<>();
-        for (RiskBlock b : result.blocks()) {
-            blocksOut.add(Map.of(
-                    "name", b.name(),
-                    "rag", b.rag().toString(),
-                    "summary", b.summary(),
-                    "evidence", b.evidence()
-            ));
-        }
-        report.put("risk_blocks", blocksOut);
-
-        List<Map<String,Object>> findingsOut = new ArrayList<>();
-        for (Finding f : result.findings()) {
-            Map<String,Object> o = new LinkedHashMap<>();
-            o.put("severity", f.severity().toString());
-            o.put("category", f.category());
-            o.put("message", f.message());
-            if (f.details() != null) o.put("details", f.details());
-            findingsOut.add(o);
-        }
-        report.put("findings", findingsOut);
+        Assessment a = new Assessment();
+        a.jdbcUrl = jdbcUrl;
+        a.user = user;
+        a.password = password;
+        a.dbType = dbType;
+        a.expectedDbType = expectedDbType;
+        a.schema = schema;
+        a.smpDir = smpDir;
+        a.propertiesFile = propertiesFile;
+        a.includeDataVolume = includeDataVolume;
+        a.countMode = countMode;
+        a.exactCountLimit = exactCountLimit;
+        a.dqSamplePercent = dqSamplePercent;
+        a.dbPoolSize = dbPoolSize;
+        a.queryTimeoutSeconds = queryTimeoutSeconds;
+        a.checkBudgetSeconds = checkBudgetSeconds;
+        a.timeBudgetSeconds = timeBudgetSeconds;
+        a.parallelism = parallelism;
+        a.scanCacheDir = (scanCacheDir == null || scanCacheDir.isBlank()) ? null : Path.of(scanCacheDir);
+        a.invalidateScanCache = invalidateScanCache;
+        a.presentationBaseline = presentationBaseline;
+        a.reportStockList = reportStockList;
+        a.baseline = baseline;
+        a.format = format;
 
         String outPath = (out != null && !out.isBlank())
                 ? out
-                : "mas9_source_readiness_" + Instant.now().toString().replace(":", "").replace(".", "") + ".json";
+                : "mas9_source_readiness_" + Instant.now().toString().replace(":", "").replace(".", "")
+                  + (format == ReportFormat.NDJSON ? ".ndjson" : ".json");
 
-        MAPPER.writeValue(Path.of(outPath).toFile(), report);
+        Assessment.Result r = a.run(Path.of(outPath), MAPPER);
 
         System.out.println("\n=== MAS9 Source Readiness (Source-only) ===");
-        System.out.println("Overall RAG: " + result.overallRag());
-        System.out.println("Report: " + outPath + "\n");
-        System.out.println("Heatmap: " + stringifyHeatmap(heatmap));
-        System.out.println("Effort: " + result.derived().get("effort_estimate"));
+        System.out.println("Overall RAG: " + r.overall());
+        System.out.println("Report: " + outPath);
+        if (r.delta() != null) System.out.println("Delta vs baseline: " + r.delta());
         System.out.println();
-
-        return (result.overallRag() == Rag.GREEN) ? 0 : (result.overallRag() == Rag.AMBER ? 1 : 2);
-    }
-
-    static Map<String, Rag> deriveHeatmap(List<RiskBlock> blocks) {
-        Map<String, Rag> map = new LinkedHashMap<>();
-        map.put("java", ragFor(blocks, "Custom Java footprint"));
-        map.put("ui", ragFor(blocks, "Presentation XML overrides"));
-        map.put("automation", ragFor(blocks, "Automation script footprint"));
-        map.put("integration", ragFor(blocks, "Integration artifacts"));
-        map.put("reports", Rag.AMBER); // placeholder until BIRT inventory module is added
-        map.put("data_volume", ragFor(blocks, "Data volume signals"));
-        map.put("security", ragFor(blocks, "Security posture signals"));
-        map.put("hygiene", ragFor(blocks, "Environment hygiene signals"));
-        return map;
-    }
-
-    static Rag ragFor(List<RiskBlock> blocks, String blockName) {
-        for (RiskBlock b : blocks) {
-            if (b.name().equalsIgnoreCase(blockName)) return b.rag();
+        System.out.println("Heatmap: " + Assessment.stringifyHeatmap(r.heatmap()));
+        System.out.println("Effort: " + r.effort());
+        System.out.println();
+        if (telemetrySummary) {
+            System.out.print(Telemetry.summaryTable(r.telemetry()));
+            System.out.println();
         }
-        return Rag.AMBER;
-    }
-
-    static Map<String,String> stringifyHeatmap(Map<String,Rag> heatmap) {
-        Map<String,String> out = new LinkedHashMap<>();
-        for (var e : heatmap.entrySet()) out.put(e.getKey(), e.getValue().toString());
-        return out;
-    }
 
-    static String redactSecrets(String s) {
-        if (s == null) return null;
-        s = Pattern.compile("(password=)([^;]+)", Pattern.CASE_INSENSITIVE).matcher(s).replaceAll("$1***");
-        s = Pattern.compile("(PWD=)([^;]+)", Pattern.CASE_INSENSITIVE).matcher(s).replaceAll("$1***");
-        return s;
+        return exitCode(r.overall());
     }
 
-    static String safeHostName() {
-        try { return InetAddress.getLocalHost().getHostName(); }
-        catch (Exception e) { return "unknown"; }
+    static int exitCode(Rag overall) {
+        return (overall == Rag.GREEN) ? 0 : (overall == Rag.AMBER ? 1 : 2);
     }
 }
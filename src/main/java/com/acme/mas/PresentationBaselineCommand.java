@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2026 Aniruddh Panvelkar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * Original Author: Aniruddh Panvelkar
+ * Project: MAS Readiness Assessment Tool
+ */
+
+package com.acme.mas;
+
+import com.acme.mas.checks.PresentationXmlDiffCheck;
+import com.acme.mas.util.BoundedWorkers;
+import com.acme.mas.util.PresentationDigest;
+import com.acme.mas.util.SmpIndex;
+import com.acme.mas.util.SmpIndex.Bucket;
+import com.acme.mas.util.SmpIndex.Entry;
+import picocli.CommandLine;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+@CommandLine.Command(
+        name = "presentation-baseline",
+        mixinStandardHelpOptions = true,
+        description = "Digest the presentation and product XMLs of a clean (uncustomised) SMP into a baseline file for the presentation-xml check.",
+        sortOptions = false
+)
+public class PresentationBaselineCommand implements Callable<Integer> {
+
+    @CommandLine.Option(names = "--smp-dir", required = true, description = "Root of a clean SMP at the level being digested.")
+    private Path smpDir;
+
+    @CommandLine.Option(names = "--level", required = true, description = "Maximo level the SMP is at, e.g. 7.6.1.2.")
+    private String level;
+
+    @CommandLine.Option(names = "--out", description = "Output file. Default: presentation-<level>.json (copy into src/main/resources/baselines to bundle it).")
+    private Path out;
+
+    @Override
+    public Integer call() throws Exception {
+        if (!Files.isDirectory(smpDir)) {
+            System.err.println("SMP directory not found: " + smpDir);
+            return 2;
+        }
+        SmpIndex index = SmpIndex.build(smpDir);
+        Map<String, PresentationDigest.Digest> docs = new ConcurrentHashMap<>();
+        Map<String, String> errors = new ConcurrentHashMap<>();
+        try (BoundedWorkers workers = new BoundedWorkers("mas9-presentation", Runtime.getRuntime().availableProcessors(), 4)) {
+            for (Bucket b : PresentationXmlDiffCheck.BUCKETS) {
+                Path base = index.root(b);
+                for (Entry e : index.entries(b)) {
+                    if (!e.ext().equals(".xml")) continue;
+                    String key = PresentationXmlDiffCheck.documentKey(e);
+                    workers.submit(() -> {
+                        try (InputStream in = Files.newInputStream(base.resolve(e.path()))) {
+                            docs.put(key, PresentationDigest.of(in));
+                        } catch (Exception ex) {
+                            errors.put(key, String.valueOf(ex.getMessage()));
+                        }
+                    });
+                }
+            }
+            workers.awaitAll();
+        }
+
+        Path file = out != null ? out : Path.of("presentation-" + level + ".json");
+        new PresentationDigest.Baseline(level, docs).write(file);
+        System.out.println("Digested " + docs.size() + " XML files -> " + file);
+        errors.forEach((k, v) -> System.err.println("Skipped " + k + ": " + v));
+        if (PresentationDigest.Baseline.levelOf(level) == null) {
+            System.err.println("Note: " + level + " is not one of " + PresentationDigest.Baseline.LEVELS + "; use the file with --presentation-baseline.");
+        }
+        return errors.isEmpty() ? 0 : 1;
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright © 2026 Aniruddh Panvelkar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * Original Author: Aniruddh Panvelkar
+ * Project: MAS Readiness Assessment Tool
+ */
+
+package com.acme.mas;
+
+import com.acme.mas.model.Enums.ReportFormat;
+import com.acme.mas.util.ConnectionPool;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Long-lived service mode: a small HTTP API (JDK built-in server, loopback by default) triggers
+ * assessments of inventory environments, reports their progress and serves the reports. Between
+ * runs it keeps each environment's connection pool open, its SMP scan cache on disk and its last
+ * report as the {@code --baseline} of the next run, so a refresh only re-runs what changed.
+ *
+ * <pre>
+ * GET  /health
+ * GET  /environments
+ * POST /environments/{name}/assessments[?full=true]   202 + run; 409 if one is already active
+ * GET  /assessments
+ * GET  /assessments/{id}
+ * GET  /assessments/{id}/report
+ * GET  /assessments/{id}/delta
+ * </pre>
+ */
+@CommandLine.Command(
+        name = "serve",
+        mixinStandardHelpOptions = true,
+        description = "Run as a local service with an HTTP API to trigger assessments of inventory environments, poll their progress and fetch reports; DB pools, scan caches and each environment's last report stay warm between runs.",
+        sortOptions = false
+)
+public class ServeCommand implements Callable<Integer> {
+    private static final int MAX_RUNS = 200;
+
+    @CommandLine.Option(names = "--inventory", required = true, description = "Fleet inventory JSON listing the environments that can be assessed (same format as the fleet command).")
+    private Path inventory;
+
+    @CommandLine.Option(names = "--bind", defaultValue = "127.0.0.1", description = "Address to listen on. Default: ${DEFAULT-VALUE} (local only)")
+    private String bind;
+
+    @CommandLine.Option(names = "--port", defaultValue = "8089", description = "Port to listen on. Default: ${DEFAULT-VALUE}")
+    private int port;
+
+    @CommandLine.Option(names = "--out-dir", defaultValue = "mas9_serve", description = "Directory for reports (<out-dir>/<environment>/<timestamp>.json) and the default scan cache. Default: ${DEFAULT-VALUE}")
+    private Path outDir;
+
+    @CommandLine.Option(names = "--parallelism", defaultValue = "2", description = "Maximum number of environments assessed concurrently. Default: ${DEFAULT-VALUE}")
+    private int parallelism;
+
+    @CommandLine.Option(names = "--format", defaultValue = "JSON", description = "Report format: ${COMPLETION-CANDIDATES}. Default: ${DEFAULT-VALUE}")
+    private ReportFormat format;
+
+    @CommandLine.Option(names = "--token-env", description = "Environment variable holding the token every request must send as 'Authorization: Bearer <token>'. Default: a random token generated and printed at startup.")
+    private String tokenEnv;
+
+    @CommandLine.Option(names = "--allowed-host", description = "Additional Host header value (name or address, without port) to accept besides localhost, 127.0.0.1, [::1] and the --bind address. Repeatable.")
+    private List<String> allowedHosts = new ArrayList<>();
+
+    private final Map<String, FleetInventory.Environment> environments = new LinkedHashMap<>();
+    private final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+    private final Map<String, Path> lastReports = new ConcurrentHashMap<>();
+    private final Map<String, Run> active = new ConcurrentHashMap<>(); // by environment
+    private final Map<String, Run> runs = new LinkedHashMap<>();       // by id, oldest first; guarded by itself
+    private final AtomicLong nextId = new AtomicLong();
+    private final long startedNanos = System.nanoTime();
+    private byte[] token;
+    private final Set<String> hosts = new HashSet<>();   // accepted Host header values, lower-case, with port
+    private final Set<String> origins = new HashSet<>(); // accepted Origin header values
+    private ExecutorService workers;
+
+    /** One triggered assessment; fields are written by its worker and read by request threads. */
+    private static final class Run {
+        final String id, environment;
+        final boolean full;
+        final Instant submitted = Instant.now();
+        volatile String status = "queued";
+        volatile Instant started, finished;
+        volatile int checksDone, checksTotal;
+        volatile String lastCheck, error;
+        volatile Path baseline;
+        volatile Assessment.Result result;
+
+        Run(String id, String environment, boolean full) {
+            this.id = id;
+            this.environment = environment;
+            this.full = full;
+        }
+
+        boolean finished() { return finished != null; }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("id", id);
+            m.put("environment", environment);
+            m.put("status", status);
+            m.put("submitted_utc", submitted.toString());
+            m.put("started_utc", started == null ? null : started.toString());
+            m.put("finished_utc", finished == null ? null : finished.toString());
+            m.put("checks_done", checksDone);
+            m.put("checks_total", checksTotal);
+            m.put("last_check", lastCheck);
+            m.put("baseline", full || baseline == null ? null : baseline.toString());
+            Assessment.Result r = result;
+            if (r != null) {
+                m.put("overall_rag", r.overall().toString());
+                m.put("complexity_heatmap", Assessment.stringifyHeatmap(r.heatmap()));
+                m.put("effort_estimate", r.effort());
+                m.put("report", "/assessments/" + id + "/report");
+                if (r.delta() != null) m.put("delta", "/assessments/" + id + "/delta");
+            }
+            if (error != null) m.put("error", error);
+            return m;
+        }
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        FleetInventory inv = FleetInventory.load(inventory, Mas9SourceReadinessApp.MAPPER);
+        for (FleetInventory.Environment e : inv.resolved()) environments.put(e.name(), e);
+        String generated = null;
+        if (tokenEnv != null) {
+            String t = System.getenv(tokenEnv);
+            if (t == null || t.isBlank()) throw new IOException("Environment variable " + tokenEnv + " is not set.");
+            token = t.getBytes(StandardCharsets.UTF_8);
+        } else {
+            byte[] b = new byte[32];
+            new SecureRandom().nextBytes(b);
+            generated = Base64.getUrlEncoder().withoutPadding().encodeToString(b);
+            token = generated.getBytes(StandardCharsets.UTF_8);
+        }
+        Files.createDirectories(outDir);
+        for (String env : environments.keySet()) {
+            Path last = latestReport(outDir.resolve(FleetCommand.fileName(env)));
+            if (last != null) lastReports.put(env, last);
+        }
+
+        AtomicInteger n = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "mas9-serve-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        HttpServer server = HttpServer.create(new InetSocketAddress(bind, port), 0);
+        server.createContext("/", this::handle);
+        AtomicInteger h = new AtomicInteger();
+        server.setExecutor(Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "mas9-http-" + h.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }));
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            workers.shutdownNow();
+            for (ConnectionPool p : pools.values()) p.close();
+            stopped.countDown();
+        }, "mas9-serve-shutdown"));
+        int actualPort = server.getAddress().getPort();
+        List<String> names = new ArrayList<>(List.of("localhost", "127.0.0.1", "[::1]"));
+        InetAddress bound = server.getAddress().getAddress();
+        if (!bound.isAnyLocalAddress()) names.add(bound instanceof Inet6Address ? "[" + bind + "]" : bind);
+        names.addAll(allowedHosts);
+        for (String name : names) {
+            String host = name.toLowerCase(Locale.ROOT) + ":" + actualPort;
+            hosts.add(host);
+            origins.add("http://" + host);
+        }
+        server.start();
+        System.out.println("Serving " + environments.size() + " environments on http://" + bind + ":" + actualPort + " (bearer token required)");
+        if (generated != null) System.out.println("Token (send as 'Authorization: Bearer <token>'): " + generated);
+        stopped.await();
+        return 0;
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            // Host and Origin checks keep a browser page (DNS rebinding, cross-site form posts) from reaching the API
+            String host = ex.getRequestHeaders().getFirst("Host");
+            if (host == null || !hosts.contains(host.toLowerCase(Locale.ROOT))) {
+                send(ex, 403, Map.of("error", "Host header not accepted: " + host));
+                return;
+            }
+            String method = ex.getRequestMethod();
+            String origin = ex.getRequestHeaders().getFirst("Origin");
+            if (!method.equals("GET") && origin != null && !origins.contains(origin.toLowerCase(Locale.ROOT))) {
+                send(ex, 403, Map.of("error", "cross-origin request rejected: " + origin));
+                return;
+            }
+            if (!authorized(ex.getRequestHeaders().getFirst("Authorization"))) {
+                send(ex, 401, Map.of("error", "missing or wrong bearer token"));
+                return;
+            }
+            String[] parts = ex.getRequestURI().getRawPath().replaceAll("^/+|/+$", "").split("/");
+            for (int i = 0; i < parts.length; i++) parts[i] = URLDecoder.decode(parts[i], StandardCharsets.UTF_8); // names may contain '/'
+            route(ex, method, parts);
+        } catch (Exception e) {
+            send(ex, 500, Map.of("error", String.valueOf(e.getMessage())));
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void route(HttpExchange ex, String method, String[] p) throws IOException {
+        boolean get = method.equals("GET");
+        if (p.length == 1 && p[0].equals("health") && get) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("status", "ok");
+            m.put("version", Assessment.TOOL_VERSION);
+            m.put("uptime_seconds", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedNanos));
+            m.put("active_runs", active.size());
+            send(ex, 200, m);
+        } else if (p.length == 1 && p[0].equals("environments") && get) {
+            List<Map<String, Object>> list = new ArrayList<>();
+            for (String env : environments.keySet()) {
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("name", env);
+                Run r = active.get(env);
+                m.put("active_run", r == null ? null : r.id);
+                Path last = lastReports.get(env);
+                m.put("last_report", last == null ? null : last.toString());
+                m.put("pool_open", pools.containsKey(env));
+                list.add(m);
+            }
+            send(ex, 200, list);
+        } else if (p.length == 3 && p[0].equals("environments") && p[2].equals("assessments") && method.equals("POST")) {
+            submit(ex, p[1], "full=true".equals(ex.getRequestURI().getQuery()));
+        } else if (p.length == 1 && p[0].equals("assessments") && get) {
+            List<Map<String, Object>> list = new ArrayList<>();
+            synchronized (runs) { for (Run r : runs.values()) list.add(r.toMap()); }
+            Collections.reverse(list);
+            send(ex, 200, list);
+        } else if (p.length >= 2 && p.length <= 3 && p[0].equals("assessments") && get) {
+            Run r;
+            synchronized (runs) { r = runs.get(p[1]); }
+            if (r == null) send(ex, 404, Map.of("error", "unknown assessment: " + p[1]));
+            else if (p.length == 2) send(ex, 200, r.toMap());
+            else if (p[2].equals("report") || p[2].equals("delta")) sendFile(ex, r, p[2].equals("report"));
+            else send(ex, 404, Map.of("error", "not found"));
+        } else {
+            send(ex, 404, Map.of("error", "not found: " + method + " " + ex.getRequestURI().getPath()));
+        }
+    }
+
+    private void submit(HttpExchange ex, String env, boolean full) throws IOException {
+        FleetInventory.Environment e = environments.get(env);
+        if (e == null) {
+            send(ex, 404, Map.of("error", "unknown environment: " + env));
+            return;
+        }
+        Run run = new Run("a" + nextId.incrementAndGet(), env, full);
+        Run running = active.putIfAbsent(env, run);
+        if (running != null) {
+            send(ex, 409, Map.of("error", "an assessment of " + env + " is already active", "id", running.id));
+            return;
+        }
+        synchronized (runs) {
+            runs.put(run.id, run);
+            Iterator<Run> it = runs.values().iterator();
+            while (runs.size() > MAX_RUNS && it.hasNext()) {
+                if (it.next().finished()) it.remove();
+            }
+        }
+        workers.submit(() -> execute(run, e));
+        ex.getResponseHeaders().set("Location", "/assessments/" + run.id);
+        send(ex, 202, run.toMap());
+    }
+
+    private void execute(Run run, FleetInventory.Environment env) {
+        run.started = Instant.now();
+        run.status = "running";
+        try {
+            Assessment a = env.toAssessment();
+            a.format = format;
+            if (a.scanCacheDir == null) a.scanCacheDir = outDir.resolve("scan-cache");
+            a.pool = pool(env.name(), a);
+            a.baseline = run.full ? null : lastReports.get(env.name());
+            run.baseline = a.baseline;
+            a.progress = (checkId, done, total) -> {
+                run.lastCheck = checkId;
+                run.checksTotal = total;
+                run.checksDone = done;
+            };
+            Path dir = outDir.resolve(FleetCommand.fileName(env.name()));
+            Files.createDirectories(dir);
+            String stamp = Instant.now().toString().replace(":", "").replace(".", "");
+            Path report = dir.resolve(stamp + (format == ReportFormat.NDJSON ? ".ndjson" : ".json"));
+            run.result = a.run(report, Mas9SourceReadinessApp.MAPPER);
+            lastReports.put(env.name(), report);
+            run.status = "done";
+            System.out.println("[" + env.name() + "] " + run.id + " " + run.result.overall() + " -> " + report);
+        } catch (Exception e) {
+            run.error = String.valueOf(e.getMessage());
+            run.status = "failed";
+            System.out.println("[" + env.name() + "] " + run.id + " FAILED: " + run.error);
+        } finally {
+            run.finished = Instant.now();
+            active.remove(env.name(), run);
+        }
+    }
+
+    /** The environment's warm pool, opened on first use; null (the run opens and reports its own) if the DB is unreachable. */
+    private ConnectionPool pool(String env, Assessment a) {
+        ConnectionPool p = pools.get(env);
+        if (p != null) return p;
+        try {
+            p = a.openPool();
+        } catch (Exception e) {
+            return null;
+        }
+        ConnectionPool prev = pools.putIfAbsent(env, p);
+        if (prev != null) {
+            p.close();
+            return prev;
+        }
+        return p;
+    }
+
+    private boolean authorized(String header) {
+        if (header == null || !header.startsWith("Bearer ")) return false;
+        return MessageDigest.isEqual(token, header.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange ex, int status, Object body) throws IOException {
+        byte[] json = Mas9SourceReadinessApp.MAPPER.writeValueAsBytes(body);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, json.length);
+        try (OutputStream os = ex.getResponseBody()) { os.write(json); }
+    }
+
+    private static void sendFile(HttpExchange ex, Run run, boolean report) throws IOException {
+        Assessment.Result r = run.result;
+        Path file = r == null ? null : report ? r.report() : r.delta();
+        if (file == null || !Files.isRegularFile(file)) {
+            send(ex, 404, Map.of("error", (report ? "report" : "delta") + " not available", "status", run.status));
+            return;
+        }
+        boolean ndjson = file.getFileName().toString().endsWith(".ndjson");
+        ex.getResponseHeaders().set("Content-Type", ndjson ? "application/x-ndjson" : "application/json; charset=utf-8");
+        ex.sendResponseHeaders(200, Files.size(file));
+        try (OutputStream os = ex.getResponseBody()) { Files.copy(file, os); }
+    }
+
+    /** Newest report in an environment's directory, so a restarted service still runs deltas. */
+    private static Path latestReport(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return null;
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(f -> {
+                        String name = f.getFileName().toString();
+                        return (name.endsWith(".json") || name.endsWith(".ndjson")) && !name.endsWith(".delta.json");
+                    })
+                    .max(Comparator.comparing(f -> f.getFileName().toString()))
+                    .orElse(null);
+        }
+    }
+}
@@ -22,21 +22,44 @@ public final class AssessmentResultBuilder {
     private final Map<String, Object> checks = new LinkedHashMap<>();
     private final Map<String, Object> evidence = new LinkedHashMap<>();
     private final Map<String, Object> derived = new LinkedHashMap<>();
+    private final Map<String, Object> telemetry = new LinkedHashMap<>();
+    private final Map<String, String> fingerprints = new LinkedHashMap<>();
     private final List<RiskBlock> blocks = new ArrayList<>();
     private final List<Finding> findings = new ArrayList<>();
 
     public void putCheck(String key, Object val) { checks.put(key, val); }
     public void putEvidence(String key, Object val) { evidence.put(key, val); }
     public void putDerived(String key, Object val) { derived.put(key, val); }
+    public void putTelemetry(String key, Object val) { telemetry.put(key, val); }
+    public void putFingerprint(String checkId, String fingerprint) { fingerprints.put(checkId, fingerprint); }
 
     public void addBlock(RiskBlock b) { if (b != null) blocks.add(b); }
     public void addFinding(Finding f) { if (f != null) findings.add(f); }
 
+    /** Appends everything recorded by {@code other}, preserving its insertion order. */
+    public void merge(AssessmentResultBuilder other) {
+        checks.putAll(other.checks);
+        evidence.putAll(other.evidence);
+        derived.putAll(other.derived);
+        telemetry.putAll(other.telemetry);
+        fingerprints.putAll(other.fingerprints);
+        blocks.addAll(other.blocks);
+        findings.addAll(other.findings);
+    }
+
+    public Map<String, Object> checks() { return Collections.unmodifiableMap(checks); }
+    public Map<String, Object> evidence() { return Collections.unmodifiableMap(evidence); }
+    public Map<String, Object> derived() { return Collections.unmodifiableMap(derived); }
+    public Map<String, Object> telemetry() { return Collections.unmodifiableMap(telemetry); }
+    public Map<String, String> fingerprints() { return Collections.unmodifiableMap(fingerprints); }
+    public List<RiskBlock> blocks() { return Collections.unmodifiableList(blocks); }
+    public List<Finding> findings() { return Collections.unmodifiableList(findings); }
+
+    /** Read-only view of everything recorded so far (no copies; values may be null). */
     public AssessmentResult build() {
         Rag overall = ScoreUtil.worst(blocks);
         Rag fromFindings = ScoreUtil.ragFromFindings(findings);
         overall = ScoreUtil.worst(overall, fromFindings);
-        return new AssessmentResult(overall, List.copyOf(blocks), List.copyOf(findings),
-                Map.copyOf(checks), Map.copyOf(evidence), Map.copyOf(derived));
+        return new AssessmentResult(overall, blocks(), findings(), checks(), evidence(), derived());
     }
 }
@@ -17,24 +17,36 @@ import com.acme.mas.util.DbUtil;
 
 import java.sql.Connection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public final class AutomationComplexityCheck implements Check {
     @Override public String id() { return "automation"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
 
     @Override
-    public void run(AssessmentContext ctx, AssessmentResultBuilder out) {
-        Connection conn = ctx.connection;
-        if (conn == null) {
+    public String fingerprint(AssessmentContext ctx) throws Exception {
+        return Fingerprints.db(ctx, List.of("AUTOSCRIPT", "SCRIPTLAUNCHPOINT", "CRONTASKDEF"));
+    }
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        if (!ctx.hasDb()) {
             out.addBlock(new RiskBlock("Automation script footprint", Rag.AMBER,
                     "DB connection not available; automation footprint not measured.", Map.of()));
             return;
         }
 
         Map<String, Object> counts = new LinkedHashMap<>();
-        counts.put("AUTOSCRIPT", DbUtil.safeCount(conn, ctx.dialect, ctx.schema, "AUTOSCRIPT"));
-        counts.put("SCRIPTLAUNCHPOINT", DbUtil.safeCount(conn, ctx.dialect, ctx.schema, "SCRIPTLAUNCHPOINT"));
-        counts.put("CRONTASKDEF", DbUtil.safeCount(conn, ctx.dialect, ctx.schema, "CRONTASKDEF"));
+        DbUtil.CountBatch batch = new DbUtil.CountBatch(ctx.dialect, ctx.schema, ctx.schemaInventory)
+                .count("AUTOSCRIPT", "AUTOSCRIPT")
+                .count("SCRIPTLAUNCHPOINT", "SCRIPTLAUNCHPOINT")
+                .count("CRONTASKDEF", "CRONTASKDEF");
+        try (Connection conn = ctx.borrowConnection()) {
+            counts.putAll(batch.run(conn));
+        }
+        if (!batch.stopped().isEmpty()) counts.put("partial", "timed out before counting " + batch.stopped());
 
         long autoscript = asLong(counts.get("AUTOSCRIPT"));
         long launch = asLong(counts.get("SCRIPTLAUNCHPOINT"));
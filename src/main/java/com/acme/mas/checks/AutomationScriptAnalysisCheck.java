@@ -0,0 +1,255 @@
+package com.acme.mas.checks;
+
+import com.acme.mas.AssessmentContext;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.RiskBlock;
+import com.acme.mas.util.BoundedWorkers;
+import com.acme.mas.util.DbUtil;
+import com.acme.mas.util.MultiPatternMatcher;
+import com.acme.mas.util.MultiPatternMatcher.Match;
+import com.acme.mas.util.RuleSet;
+import com.acme.mas.util.TimeBudget;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Source-level scan of automation scripts: the AS-01..AS-10 and SIG-* rules of
+ * tools/maximo-jython/export_automation_script_inventory.py, run in-process over JDBC instead of
+ * inside Maximo. AUTOSCRIPT.SOURCE is streamed with a modest fetch size and each script is
+ * scanned once by the rules' {@link MultiPatternMatcher} on {@link BoundedWorkers}; only the
+ * aggregates and a bounded sample of findings are kept.
+ */
+public final class AutomationScriptAnalysisCheck implements Check {
+    @Override public String id() { return "automation-scripts"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
+
+    private static final int FETCH_SIZE = 50;
+    private static final int BACKLOG_PER_THREAD = 8;
+    private static final int MAX_SOURCE_CHARS = 1_000_000;
+    private static final int MAX_SAMPLE_SCRIPTS = 50;
+    private static final int MAX_SNIPPETS_PER_SCRIPT = 12;
+    private static final int CONTEXT_WINDOW = 80;
+    private static final Pattern PASSWORD_LITERAL = Pattern.compile("(password\\s*=\\s*['\"])[^'\"]*", Pattern.CASE_INSENSITIVE);
+
+    /** Rules live in {@code /rules/automation-scripts.json}; INFO rules (SIG-*) are context signals, not findings. */
+    static final RuleSet RULES = RuleSet.fromResource("/rules/automation-scripts.json");
+
+    private static boolean signal(RuleSet.Def r) { return r.id().startsWith("SIG-"); }
+
+    @Override
+    public String fingerprint(AssessmentContext ctx) throws Exception {
+        if (!ctx.hasDb()) return null;
+        // statistics do not move when a script is edited in place; its CHANGEDATE does
+        Object[] latest;
+        try (Connection conn = ctx.borrowConnection()) {
+            latest = DbUtil.firstRow(conn, "SELECT COUNT(*), MAX(CHANGEDATE) FROM " + DbUtil.qualify(ctx.schema, "AUTOSCRIPT"), 2);
+        } catch (SQLException e) {
+            return null;
+        }
+        return Fingerprints.db(ctx, List.of("AUTOSCRIPT", "SCRIPTLAUNCHPOINT"), latest);
+    }
+
+    static final List<String> BUCKETS = List.of("runtime_state", "memory_db", "transactions", "threading", "filesystem",
+            "network", "secrets", "sql", "workflow", "os_exec");
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        if (!ctx.hasDb()) {
+            out.addBlock(new RiskBlock("Automation script source signals", Rag.AMBER,
+                    "DB connection not available; automation script sources not scanned.", Map.of()));
+            return;
+        }
+
+        Tally tally = new Tally();
+        TimeBudget budget = TimeBudget.current();
+        Map<String, Object> errors = new LinkedHashMap<>();
+        try (Connection conn = ctx.borrowConnection()) {
+            Map<String, List<Map<String, Object>>> launchPoints = launchPoints(conn, ctx);
+            int threads = Runtime.getRuntime().availableProcessors();
+            try (BoundedWorkers workers = new BoundedWorkers("mas9-autoscript", threads, BACKLOG_PER_THREAD)) {
+                try {
+                    DbUtil.forEachRow(conn, "SELECT AUTOSCRIPT, SCRIPTLANGUAGE, SOURCE FROM " + DbUtil.qualify(ctx.schema, "AUTOSCRIPT"), FETCH_SIZE, rs -> {
+                        String name = rs.getString(1);
+                        String lang = rs.getString(2);
+                        String source = readSource(rs, 3, tally);
+                        try {
+                            workers.submit(() -> tally.add(scan(name, lang, source, launchPoints.getOrDefault(name, List.of()))));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted while scanning automation scripts.", e);
+                        }
+                    });
+                } catch (SQLException e) { // keep what was scanned before the cancel or failure
+                    errors.put("AUTOSCRIPT", e.getMessage());
+                }
+                workers.awaitAll();
+            }
+        }
+
+        Map<String, Object> ev = tally.toMap();
+        if (budget != null && budget.expired()) ev.put("partial", "time budget exhausted before all scripts were scanned");
+        if (!errors.isEmpty()) ev.put("errors", errors);
+        out.putCheck("automation_script_analysis", ev);
+
+        long red = tally.severity.get("RED"), amber = tally.severity.get("AMBER");
+        Rag rag = red >= 10 ? Rag.RED : (red + amber > 0 ? Rag.AMBER : Rag.GREEN);
+        String summary = "Scanned " + tally.scanned + " automation scripts: " + red + " with RED findings, " + amber + " with AMBER findings" +
+                (tally.truncated > 0 ? " (" + tally.truncated + " sources truncated at " + MAX_SOURCE_CHARS + " chars)." : ".") +
+                (errors.isEmpty() ? "" : " AUTOSCRIPT could not be read in full; counts cover the scripts read before the error.");
+        Map<String, Object> blockEv = new LinkedHashMap<>(ev);
+        blockEv.remove("sample_findings");
+        out.addBlock(new RiskBlock("Automation script source signals", rag, summary, blockEv));
+    }
+
+    /** Launch points per script name; the descriptive columns are optional (older or trimmed schemas). */
+    private static Map<String, List<Map<String, Object>>> launchPoints(Connection conn, AssessmentContext ctx) {
+        Map<String, List<Map<String, Object>>> map = new HashMap<>();
+        String table = DbUtil.qualify(ctx.schema, "SCRIPTLAUNCHPOINT");
+        for (String cols : List.of("AUTOSCRIPT, LAUNCHPOINTNAME, LAUNCHPOINTTYPE, OBJECTNAME, ATTRIBUTENAME", "AUTOSCRIPT, LAUNCHPOINTNAME")) {
+            String[] names = cols.split(", ");
+            try {
+                map.clear();
+                DbUtil.forEachRow(conn, "SELECT " + cols + " FROM " + table, 500, rs -> {
+                    Map<String, Object> lp = new LinkedHashMap<>();
+                    for (int i = 1; i < names.length; i++) lp.put(names[i].toLowerCase(Locale.ROOT), rs.getString(i + 1));
+                    map.computeIfAbsent(rs.getString(1), k -> new ArrayList<>()).add(lp);
+                });
+                return map;
+            } catch (SQLException ignored) { }
+        }
+        return Map.of();
+    }
+
+    private static String readSource(ResultSet rs, int column, Tally tally) throws SQLException {
+        try (Reader r = rs.getCharacterStream(column)) {
+            if (r == null) return "";
+            StringBuilder sb = new StringBuilder();
+            char[] buf = new char[8192];
+            int n;
+            while ((n = r.read(buf, 0, Math.min(buf.length, MAX_SOURCE_CHARS - sb.length()))) > 0) sb.append(buf, 0, n);
+            if (sb.length() >= MAX_SOURCE_CHARS && r.read() >= 0) tally.truncated();
+            return sb.toString();
+        } catch (IOException e) {
+            throw new SQLException("Cannot read AUTOSCRIPT.SOURCE: " + e.getMessage(), e);
+        }
+    }
+
+    record ScriptResult(String name, String language, String worst, Set<String> signals, Set<String> checkIds,
+                        Set<String> buckets, List<Map<String, Object>> findings, List<Map<String, Object>> launchPoints) {}
+
+    static ScriptResult scan(String name, String language, String source, List<Map<String, Object>> launchPoints) {
+        Set<String> signals = new TreeSet<>();
+        Set<String> checkIds = new TreeSet<>();
+        Set<String> buckets = new TreeSet<>();
+        List<Map<String, Object>> findings = new ArrayList<>();
+        boolean as09 = false;
+        for (Match m : RULES.matches(source, MAX_SNIPPETS_PER_SCRIPT)) {
+            RuleSet.Def r = RULES.def(m);
+            if (signal(r)) {
+                signals.add(r.name());
+                continue;
+            }
+            checkIds.add(r.id());
+            buckets.add(r.category());
+            as09 |= r.id().equals("AS-09");
+            if (findings.size() >= MAX_SNIPPETS_PER_SCRIPT) continue;
+            Map<String, Object> f = new LinkedHashMap<>();
+            f.put("check_id", r.id());
+            f.put("pattern", r.name());
+            f.put("severity", r.severity());
+            f.put("description", r.description());
+            f.put("snippet", snippet(source, m.start(), m.end()));
+            findings.add(f);
+        }
+        if (as09) deriveAs09Severity(signals, findings);
+
+        String worst = "GREEN";
+        for (Map<String, Object> f : findings) {
+            if ("RED".equals(f.get("severity"))) worst = "RED";
+            else if ("AMBER".equals(f.get("severity")) && !worst.equals("RED")) worst = "AMBER";
+        }
+        return new ScriptResult(name, language, worst, signals, checkIds, buckets, findings, launchPoints);
+    }
+
+    /**
+     * AS-09 is RED when the MXServer getMboSet chain looks unbounded (system user, or no
+     * setWhere/setQbe/setMaxRows/SqlFormat) and is iterated or counted; AMBER otherwise.
+     */
+    private static void deriveAs09Severity(Set<String> signals, List<Map<String, Object>> findings) {
+        boolean filter = signals.contains("set_where") || signals.contains("set_qbe") || signals.contains("set_maxrows") || signals.contains("sqlformat");
+        boolean heavy = signals.contains("iteration") || signals.contains("count_call");
+        boolean sys = signals.contains("system_userinfo");
+        String severity = "AMBER";
+        String rationale = "MXServer getMboSet chain detected; review for bounding filters.";
+        if ((sys || !filter) && heavy) {
+            severity = "RED";
+            rationale = "MXServer.getMboSet appears unbounded (no filter) and is iterated/counted; high OOM/DB risk in MAS9 pods.";
+        } else if (filter) {
+            rationale = "MXServer.getMboSet detected but filters/maxRows appear present; verify correctness and reset ordering.";
+        }
+        for (Map<String, Object> f : findings) {
+            if (!"AS-09".equals(f.get("check_id"))) continue;
+            f.put("severity", severity);
+            f.put("description", f.get("description") + " " + rationale);
+        }
+    }
+
+    private static String snippet(String text, int start, int end) {
+        String s = text.substring(Math.max(0, start - CONTEXT_WINDOW), Math.min(text.length(), end + CONTEXT_WINDOW))
+                .replace('\n', ' ').replace('\r', ' ');
+        return PASSWORD_LITERAL.matcher(s).replaceAll("$1***");
+    }
+
+    /** Aggregates across scripts; workers call {@link #add} concurrently. */
+    private static final class Tally {
+        long scanned, withFindings, truncated;
+        final Map<String, Long> severity = new LinkedHashMap<>(Map.of("RED", 0L, "AMBER", 0L, "GREEN", 0L));
+        final Map<String, Long> checkCounts = new TreeMap<>();
+        final Map<String, Long> bucketCounts = new LinkedHashMap<>();
+        final TreeMap<String, ScriptResult> samples = new TreeMap<>(); // smallest names, independent of scheduling
+
+        Tally() { for (String b : BUCKETS) bucketCounts.put(b, 0L); }
+
+        synchronized void truncated() { truncated++; }
+
+        synchronized void add(ScriptResult r) {
+            scanned++;
+            severity.merge(r.worst(), 1L, Long::sum);
+            if (r.findings().isEmpty()) return;
+            withFindings++;
+            for (String c : r.checkIds()) checkCounts.merge(c, 1L, Long::sum);
+            for (String b : r.buckets()) bucketCounts.merge(b, 1L, Long::sum);
+            samples.put(r.name() == null ? "" : r.name(), r);
+            if (samples.size() > MAX_SAMPLE_SCRIPTS) samples.pollLastEntry();
+        }
+
+        synchronized Map<String, Object> toMap() {
+            List<Map<String, Object>> sample = new ArrayList<>();
+            for (ScriptResult r : samples.values()) {
+                Map<String, Object> s = new LinkedHashMap<>();
+                s.put("autoscript", r.name());
+                s.put("language", r.language());
+                s.put("worst_severity", r.worst());
+                s.put("launch_points", r.launchPoints());
+                s.put("signals", List.copyOf(r.signals()));
+                s.put("findings", r.findings());
+                sample.add(s);
+            }
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("scripts_scanned", scanned);
+            m.put("scripts_with_findings", withFindings);
+            m.put("sources_truncated", truncated);
+            m.put("severity_counts_by_script", severity);
+            m.put("check_counts_by_script", checkCounts);
+            m.put("bucket_counts_by_script", bucketCounts);
+            m.put("sample_findings", sample);
+            return m;
+        }
+    }
+}
@@ -12,7 +12,21 @@ package com.acme.mas.checks;
 
 import com.acme.mas.AssessmentContext;
 
+import java.util.Set;
+
 public interface Check {
     String id();
+
+    /** Ids of checks that must complete first because this check reads context they populate (dialect, versions). */
+    default Set<String> dependsOn() { return Set.of(); }
+
+    /**
+     * Cheap digest of everything the check's output depends on (directory listings, file mtimes,
+     * MAXVARS versions, table statistics timestamps, relevant options), computed before it runs.
+     * With {@code --baseline}, a check whose fingerprint matches the baseline report's is not run
+     * and its previous output is reused. Null means "cannot tell": the check always runs.
+     */
+    default String fingerprint(AssessmentContext ctx) throws Exception { return null; }
+
     void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception;
 }
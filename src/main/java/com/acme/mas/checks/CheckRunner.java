@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2026 Aniruddh Panvelkar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * Original Author: Aniruddh Panvelkar
+ * Project: MAS Readiness Assessment Tool
+ */
+
+package com.acme.mas.checks;
+
+import com.acme.mas.AssessmentContext;
+import com.acme.mas.model.Finding;
+import com.acme.mas.report.Baseline;
+import com.acme.mas.util.Telemetry;
+import com.acme.mas.util.Threads;
+import com.acme.mas.util.TimeBudget;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs checks on a bounded {@link Threads#executor executor} (virtual threads in the Java 21
+ * build), starting each one as soon as the checks it {@link Check#dependsOn() depends on} have
+ * finished. Dependencies that are not part of the run (e.g. db-baseline in FS-only mode) are
+ * treated as satisfied.
+ *
+ * Every check writes into its own builder; outputs are handed to a {@link Listener} in
+ * registration order, each as soon as it and all earlier checks have finished, so the report
+ * stays deterministic regardless of completion order and outputs can be streamed and dropped.
+ * Each check runs under its own {@link Telemetry} recorder, reported under its id, and its own
+ * {@link TimeBudget}. With a {@link Baseline}, a check whose {@link Check#fingerprint fingerprint}
+ * is unchanged gets its baseline output instead of running; every check that completes records
+ * its fingerprint so the report can serve as the next baseline. Checks that depend on an
+ * abandoned check are skipped: it may still be writing the context state they would read.
+ */
+public final class CheckRunner {
+    static final long ABANDON_GRACE_MILLIS = 10_000;
+
+    public interface Listener {
+        void completed(Check check, AssessmentResultBuilder output) throws Exception;
+    }
+
+    private final int parallelism;
+
+    public CheckRunner(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /** Runs all checks and merges their outputs into {@code out}. */
+    public void runAll(List<Check> checks, AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        runAll(checks, ctx, (c, o) -> out.merge(o));
+    }
+
+    /** Runs all checks, calling {@code listener} on the calling thread in registration order. */
+    public void runAll(List<Check> checks, AssessmentContext ctx, Listener listener) throws Exception {
+        Map<String, Check> byId = new LinkedHashMap<>();
+        for (Check c : checks) {
+            if (byId.putIfAbsent(c.id(), c) != null) throw new IllegalArgumentException("Duplicate check id: " + c.id());
+        }
+
+        ExecutorService pool = Threads.executor("mas9-check", Math.min(parallelism, Math.max(1, checks.size())));
+        try {
+            Map<String, CompletableFuture<AssessmentResultBuilder>> scheduled = new HashMap<>();
+            Set<String> abandoned = ConcurrentHashMap.newKeySet();
+            for (Check c : checks) schedule(c, byId, scheduled, new HashSet<>(), abandoned, ctx, pool);
+
+            for (Check c : checks) listener.completed(c, scheduled.get(c.id()).join());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static CompletableFuture<AssessmentResultBuilder> schedule(Check c, Map<String, Check> byId,
+                                                                       Map<String, CompletableFuture<AssessmentResultBuilder>> scheduled,
+                                                                       Set<String> visiting, Set<String> abandoned,
+                                                                       AssessmentContext ctx, ExecutorService pool) {
+        CompletableFuture<AssessmentResultBuilder> existing = scheduled.get(c.id());
+        if (existing != null) return existing;
+        if (!visiting.add(c.id())) throw new IllegalStateException("Check dependency cycle involving '" + c.id() + "'");
+
+        List<String> depIds = new ArrayList<>();
+        List<CompletableFuture<AssessmentResultBuilder>> deps = new ArrayList<>();
+        for (String d : c.dependsOn()) {
+            Check dep = byId.get(d);
+            if (dep == null) continue;
+            depIds.add(d);
+            deps.add(schedule(dep, byId, scheduled, visiting, abandoned, ctx, pool));
+        }
+        visiting.remove(c.id());
+
+        CompletableFuture<AssessmentResultBuilder> result = new CompletableFuture<>();
+        CompletableFuture.allOf(deps.toArray(new CompletableFuture<?>[0])).whenCompleteAsync((v, e) -> {
+            String gone = depIds.stream().filter(abandoned::contains).findFirst().orElse(null);
+            if (gone == null) {
+                runOne(c, ctx, result, abandoned);
+                return;
+            }
+            abandoned.add(c.id()); // never ran, so its own dependents cannot rely on it either
+            AssessmentResultBuilder out = new AssessmentResultBuilder();
+            out.addFinding(Finding.warn("CHECKS", "Check '" + c.id() + "' skipped: dependency '" + gone + "' was abandoned.",
+                    Map.of("check", c.id(), "dependency", gone)));
+            result.complete(out);
+        }, pool);
+        scheduled.put(c.id(), result);
+        return result;
+    }
+
+    /**
+     * Runs one check under a {@link TimeBudget} (the earlier of its own budget and the run deadline)
+     * and completes {@code result} with its output. When the budget expires, the check's running
+     * statements are cancelled and whatever it collected is kept, flagged as partial. A check that
+     * still has not returned after {@link #ABANDON_GRACE_MILLIS} is interrupted and abandoned so
+     * the rest of the run can go on; a check that would start after the run deadline is skipped.
+     * Only a check that returned normally within its budget records a fingerprint.
+     *
+     * The interrupt is sent only while the worker is provably still inside this call (pool
+     * threads are reused, so a late interrupt would hit the next check), and any interrupt left
+     * over when it returns is cleared. The abandoned output carries only wall time: the check's
+     * {@link Telemetry} is still being updated by the worker and is read on the worker alone.
+     */
+    static void runOne(Check c, AssessmentContext ctx, CompletableFuture<AssessmentResultBuilder> result, Set<String> abandonedIds) {
+        AssessmentResultBuilder out = new AssessmentResultBuilder();
+        Map<String, Object> details = Map.of("check", c.id());
+        Thread worker = Thread.currentThread();
+        Object lock = new Object();
+        boolean[] inside = {true}; // guarded by lock
+        long t0 = System.nanoTime();
+        Telemetry t = Telemetry.start();
+        long deadline = Math.min(TimeBudget.deadlineAfter(ctx.checkBudgetSeconds), ctx.runDeadlineNanos);
+        TimeBudget budget = TimeBudget.start(deadline, ABANDON_GRACE_MILLIS, () -> {
+            synchronized (lock) {
+                if (!inside[0]) return;
+                abandonedIds.add(c.id()); // before completing, so dependents see it
+                AssessmentResultBuilder abandoned = new AssessmentResultBuilder();
+                abandoned.addFinding(Finding.warn("CHECKS", "Check '" + c.id() + "' did not finish within its time budget and was abandoned; its results are missing.", details));
+                Map<String, Object> tm = new LinkedHashMap<>();
+                tm.put("wall_ms", (System.nanoTime() - t0) / 1_000_000);
+                tm.put("abandoned", true);
+                abandoned.putTelemetry(c.id(), tm);
+                if (result.complete(abandoned)) worker.interrupt();
+            }
+        });
+        boolean skipped = budget.expired();
+        boolean completed = false;
+        boolean reused = false;
+        String fingerprint = null;
+        try {
+            if (skipped) out.addFinding(Finding.warn("CHECKS", "Check '" + c.id() + "' skipped: assessment time budget exhausted.", details));
+            else {
+                fingerprint = fingerprint(c, ctx);
+                AssessmentResultBuilder previous = ctx.baseline == null ? null : ctx.baseline.reuse(c.id(), fingerprint);
+                reused = previous != null;
+                if (reused) out.merge(previous);
+                else c.run(ctx, out);
+                completed = true;
+            }
+        } catch (Exception e) {
+            out.addFinding(Finding.warn("CHECKS", "Check '" + c.id() + "' failed: " + e.getMessage(), details));
+        } finally {
+            budget.stop();
+            if (!skipped && budget.expired()) {
+                out.addFinding(Finding.warn("CHECKS", "Check '" + c.id() + "' exceeded its time budget; results are partial.", details));
+            } else if (completed && fingerprint != null) {
+                out.putFingerprint(c.id(), fingerprint);
+            }
+            t.stop();
+            Map<String, Object> tm = t.toMap();
+            if (reused) {
+                tm = new LinkedHashMap<>(tm);
+                tm.put("reused_from_baseline", true);
+            }
+            out.putTelemetry(c.id(), tm);
+            synchronized (lock) { inside[0] = false; }
+            if (!result.complete(out)) Thread.interrupted(); // abandoned: drop the interrupt meant for this check
+        }
+    }
+
+    /** A failing fingerprint only costs the reuse, never the check. */
+    private static String fingerprint(Check c, AssessmentContext ctx) {
+        try { return c.fingerprint(ctx); }
+        catch (Exception e) { return null; }
+    }
+}
@@ -3,6 +3,7 @@ package com.acme.mas.checks;
 import com.acme.mas.model.Enums.Rag;
 import com.acme.mas.util.ScoreUtil;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public final class ComplexityHeatmapAndEstimatorCheck {
@@ -19,10 +20,10 @@ public final class ComplexityHeatmapAndEstimatorCheck {
         else if (worst == Rag.AMBER) { tshirt = "M"; indicative = "Typically 2–4 months (remediation + migration + testing)."; }
         else { tshirt = "L/XL"; indicative = "Typically 4–9+ months (significant refactor/integration/data work)."; }
 
-        return Map.of(
-                "tshirt_size", tshirt,
-                "indicative_timeline", indicative,
-                "note", "Heuristic only; validate via detailed discovery and IBM tooling outputs."
-        );
+        Map<String, Object> m = new LinkedHashMap<>(); // ordered, so identical runs write identical bytes
+        m.put("tshirt_size", tshirt);
+        m.put("indicative_timeline", indicative);
+        m.put("note", "Heuristic only; validate via detailed discovery and IBM tooling outputs.");
+        return m;
     }
 }
@@ -0,0 +1,248 @@
+package com.acme.mas.checks;
+
+import com.acme.mas.AssessmentContext;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.RiskBlock;
+import com.acme.mas.util.BoundedWorkers;
+import com.acme.mas.util.ClassFileScanner;
+import com.acme.mas.util.ClassFileScanner.ClassRefs;
+import com.acme.mas.util.SmpIndex;
+import com.acme.mas.util.SmpIndex.Bucket;
+import com.acme.mas.util.SmpIndex.Entry;
+import com.acme.mas.util.Telemetry;
+import com.acme.mas.util.TimeBudget;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Content-level scan of custom classes (outside the IBM packages, or in a custom/ folder) under
+ * businessobjects/classes, loose and inside jars,
+ * for references that commonly break in MAS9 containers (the bytecode-detectable part of
+ * tools/findbugs/mas9-migration-include.xml plus MAS-specific patterns). Class files are parsed
+ * by {@link ClassFileScanner} on {@link BoundedWorkers}; each worker holds
+ * one class file at a time and only counters and bounded samples are kept, so memory does not
+ * grow with the size of the tree. Jars are read entry by entry.
+ */
+public final class CustomCodeSignalsCheck implements Check {
+    @Override public String id() { return "custom-code-signals"; }
+
+    private static final int BACKLOG_PER_THREAD = 4;
+    private static final long MAX_CLASS_BYTES = 16L * 1024 * 1024;
+    private static final int SAMPLE_LIMIT = 20;
+
+    private static final Pattern ABSOLUTE_PATH = Pattern.compile("^(?:[A-Za-z]:[\\\\/]|\\\\\\\\|/(?:opt|var|tmp|home|usr|etc|data|apps)/).+");
+    private static final Set<String> WEAK_DIGESTS = Set.of("MD5", "MD2", "SHA1", "SHA-1");
+
+    enum Signal {
+        MXSERVER_LOOKUP("MXServer.getMXServer() lookups",
+                r -> r.members().contains("psdi/server/MXServer.getMXServer")),
+        PROCESS_EXEC("Runtime.exec / ProcessBuilder",
+                r -> r.members().contains("java/lang/Runtime.exec") || r.classes().contains("java/lang/ProcessBuilder")),
+        FILESYSTEM_WRITE("Local filesystem writes",
+                r -> anyClass(r, "java/io/FileOutputStream", "java/io/FileWriter", "java/io/RandomAccessFile")
+                        || anyMember(r, "java/nio/file/Files.write", "java/nio/file/Files.writeString", "java/nio/file/Files.newOutputStream",
+                        "java/nio/file/Files.newBufferedWriter", "java/nio/file/Files.createFile", "java/nio/file/Files.createDirectories",
+                        "java/nio/file/Files.copy", "java/nio/file/Files.move", "java/nio/file/Files.delete", "java/io/File.createNewFile",
+                        "java/io/File.delete", "java/io/File.mkdirs", "java/io/File.renameTo")),
+        RAW_JDBC("Raw JDBC",
+                r -> anyMember(r, "java/sql/DriverManager.getConnection", "java/sql/Connection.createStatement",
+                        "java/sql/Connection.prepareStatement", "java/sql/Connection.prepareCall", "javax/sql/DataSource.getConnection",
+                        "psdi/server/DBManager.getConnection", "psdi/server/DBManager.getSystemConnection")),
+        // Constant-pool references only: whether the SQL argument is constant is not known.
+        STATEMENT_EXECUTE("Statement.execute*/addBatch calls (SQL text passed at run time)",
+                r -> anyMember(r, "java/sql/Statement.execute", "java/sql/Statement.executeQuery", "java/sql/Statement.executeUpdate",
+                        "java/sql/Statement.addBatch")),
+        REMOVED_OR_INTERNAL_JDK("Removed or internal JDK APIs",
+                r -> r.classes().stream().anyMatch(CustomCodeSignalsCheck::isRemovedOrInternal)
+                        || anyMember(r, "java/lang/Thread.stop", "java/lang/Thread.suspend", "java/lang/Thread.resume",
+                        "java/lang/Runtime.runFinalizersOnExit", "java/lang/System.runFinalizersOnExit", "java/lang/System.getSecurityManager",
+                        "java/lang/System.setSecurityManager")),
+        CUSTOM_CLASSLOADER("Custom class loading",
+                r -> r.classes().contains("java/net/URLClassLoader") || anyMember(r, "java/lang/ClassLoader.defineClass")),
+        WEAK_DIGEST("MD5/SHA-1 message digests",
+                r -> r.members().contains("java/security/MessageDigest.getInstance") && r.strings().stream().anyMatch(s -> WEAK_DIGESTS.contains(s.toUpperCase(Locale.ROOT)))),
+        HARDCODED_PATH("Hard-coded absolute file paths",
+                r -> r.strings().stream().anyMatch(s -> ABSOLUTE_PATH.matcher(s).matches()));
+
+        final String label;
+        final Predicate<ClassRefs> test;
+
+        Signal(String label, Predicate<ClassRefs> test) {
+            this.label = label;
+            this.test = test;
+        }
+
+        String key() { return name().toLowerCase(Locale.ROOT); }
+    }
+
+    private static boolean anyClass(ClassRefs r, String... names) {
+        for (String n : names) if (r.classes().contains(n)) return true;
+        return false;
+    }
+
+    private static boolean anyMember(ClassRefs r, String... names) {
+        for (String n : names) if (r.members().contains(n)) return true;
+        return false;
+    }
+
+    /** JDK-internal packages and the Java EE / CORBA modules removed in Java 11. */
+    private static final List<String> REMOVED_OR_INTERNAL = List.of(
+            "sun/", "com/sun/jndi/", "com/sun/net/ssl/", "com/sun/corba/", "javax/xml/bind/", "javax/xml/ws/", "javax/jws/",
+            "javax/activation/", "javax/annotation/PostConstruct", "javax/annotation/PreDestroy", "javax/annotation/Resource",
+            "org/omg/", "javax/rmi/CORBA/");
+
+    static boolean isRemovedOrInternal(String cls) {
+        for (String p : REMOVED_OR_INTERNAL) if (cls.startsWith(p)) return true;
+        return false;
+    }
+
+    @Override
+    public String fingerprint(AssessmentContext ctx) {
+        return Fingerprints.smpFiles(ctx, List.of(Bucket.CLASSES), Set.of(".class", ".jar"), Arrays.toString(Signal.values())); // renamed signals invalidate reuse
+    }
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        SmpIndex index = ctx.smpIndex();
+        if (index == null || !index.rootExists(Bucket.CLASSES)) {
+            out.addBlock(new RiskBlock("Custom Java code signals", Rag.AMBER,
+                    "Classes directory not available; custom Java content was not scanned.", Map.of("smp_dir", String.valueOf(ctx.smpDir))));
+            return;
+        }
+
+        List<Path> classes = new ArrayList<>();
+        List<Path> jars = new ArrayList<>();
+        Path base = index.root(Bucket.CLASSES);
+        for (Entry e : index.entries(Bucket.CLASSES)) {
+            if (e.ext().equals(".class") && SmpCustomisationCheck.JavaFootprint.isCustom(e.path().toLowerCase(Locale.ROOT))) classes.add(base.resolve(e.path()));
+            else if (e.ext().equals(".jar")) jars.add(base.resolve(e.path()));
+        }
+
+        Scan scan = new Scan(Telemetry.current(), TimeBudget.current());
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(), classes.size() + jars.size());
+        try (BoundedWorkers workers = new BoundedWorkers("mas9-bytecode", threads, BACKLOG_PER_THREAD)) {
+            for (Path jar : jars) workers.submit(() -> scan.jar(jar));
+            for (Path cls : classes) {
+                if (scan.stopped()) break;
+                workers.submit(() -> scan.classFile(cls));
+            }
+            workers.awaitAll();
+        }
+
+        Map<String, Object> signals = new LinkedHashMap<>();
+        for (Signal s : Signal.values()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("label", s.label);
+            m.put("classes", scan.counts.get(s).get());
+            m.put("sample", scan.sample(s));
+            signals.put(s.key(), m);
+        }
+        long flagged = scan.flagged.get();
+
+        Map<String, Object> ev = new LinkedHashMap<>();
+        ev.put("classes_path", base.toString());
+        ev.put("classes_scanned", scan.scanned.get());
+        ev.put("jars_scanned", jars.size());
+        ev.put("classes_flagged", flagged);
+        ev.put("unreadable", scan.unreadable.get());
+        ev.put("class_file_versions", new TreeMap<>(scan.versions));
+        ev.put("signals", signals);
+        if (scan.stopped()) ev.put("partial", "time budget exhausted before all classes were scanned");
+        out.putCheck("custom_code_signals", ev);
+
+        long exec = scan.counts.get(Signal.PROCESS_EXEC).get();
+        Rag rag = exec > 0 || flagged >= 50 ? Rag.RED : (flagged > 0 ? Rag.AMBER : Rag.GREEN);
+        List<String> hits = new ArrayList<>();
+        for (Signal s : Signal.values()) {
+            long c = scan.counts.get(s).get();
+            if (c > 0) hits.add(s.key() + "=" + c);
+        }
+        String summary = "Scanned " + scan.scanned.get() + " custom classes (" + jars.size() + " jars); " + flagged + " flagged" +
+                (hits.isEmpty() ? "." : " (" + String.join(", ", hits) + ").");
+        out.addBlock(new RiskBlock("Custom Java code signals", rag, summary, ev));
+    }
+
+    /** Shared tallies; workers only add to concurrent counters, so no per-class results are kept. */
+    private static final class Scan {
+        final Map<Signal, AtomicLong> counts = new EnumMap<>(Signal.class);
+        final Map<Signal, TreeSet<String>> samples = new EnumMap<>(Signal.class); // smallest names, so samples do not depend on scheduling
+        final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+        final AtomicLong scanned = new AtomicLong(), flagged = new AtomicLong(), unreadable = new AtomicLong();
+        final Telemetry telemetry;
+        final TimeBudget budget;
+
+        Scan(Telemetry telemetry, TimeBudget budget) {
+            this.telemetry = telemetry;
+            this.budget = budget;
+            for (Signal s : Signal.values()) {
+                counts.put(s, new AtomicLong());
+                samples.put(s, new TreeSet<>());
+            }
+        }
+
+        List<String> sample(Signal s) {
+            TreeSet<String> sample = samples.get(s);
+            synchronized (sample) { return new ArrayList<>(sample); }
+        }
+
+        boolean stopped() { return budget != null && budget.expired(); }
+
+        void classFile(Path p) {
+            try {
+                long size = Files.size(p);
+                if (size > MAX_CLASS_BYTES) { unreadable.incrementAndGet(); return; }
+                accept(Files.readAllBytes(p), null);
+            } catch (IOException e) { unreadable.incrementAndGet(); }
+        }
+
+        void jar(Path jar) {
+            try (ZipFile zip = new ZipFile(jar.toFile())) {
+                Enumeration<? extends ZipEntry> en = zip.entries();
+                while (en.hasMoreElements() && !stopped()) {
+                    ZipEntry e = en.nextElement();
+                    String name = e.getName();
+                    if (e.isDirectory() || !name.endsWith(".class") || name.startsWith("META-INF/")
+                            || !SmpCustomisationCheck.JavaFootprint.isCustom(name.toLowerCase(Locale.ROOT))) continue;
+                    if (e.getSize() > MAX_CLASS_BYTES) { unreadable.incrementAndGet(); continue; }
+                    try (InputStream in = zip.getInputStream(e)) {
+                        accept(in.readNBytes((int) MAX_CLASS_BYTES), jar.getFileName() + "!");
+                    }
+                }
+            } catch (IOException e) { unreadable.incrementAndGet(); }
+        }
+
+        private void accept(byte[] bytes, String prefix) {
+            if (telemetry != null) telemetry.addBytesRead(bytes.length);
+            ClassRefs r;
+            try { r = ClassFileScanner.scan(ByteBuffer.wrap(bytes)); }
+            catch (IllegalArgumentException e) { unreadable.incrementAndGet(); return; }
+            scanned.incrementAndGet();
+            versions.merge(r.majorVersion(), 1L, Long::sum);
+
+            boolean any = false;
+            String name = (prefix == null ? "" : prefix) + r.name().replace('/', '.');
+            for (Signal s : Signal.values()) {
+                if (!s.test.test(r)) continue;
+                any = true;
+                counts.get(s).incrementAndGet();
+                TreeSet<String> sample = samples.get(s);
+                synchronized (sample) {
+                    sample.add(name);
+                    if (sample.size() > SAMPLE_LIMIT) sample.pollLast();
+                }
+            }
+            if (any) flagged.incrementAndGet();
+        }
+    }
+}
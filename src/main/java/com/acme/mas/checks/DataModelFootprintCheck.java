@@ -0,0 +1,157 @@
+package com.acme.mas.checks;
+
+import com.acme.mas.AssessmentContext;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.RiskBlock;
+import com.acme.mas.util.DbUtil;
+import com.acme.mas.util.SchemaInventory;
+import com.acme.mas.util.SchemaInventory.MaxObject;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Database-level customisation footprint: user-defined objects and attributes, persistent versus
+ * non-persistent attributes, wide tables, and the relationships and indexes hanging off custom
+ * objects. Objects and attribute counts come from db-baseline's {@link SchemaInventory};
+ * MAXRELATIONSHIP and MAXSYSINDEXES are aggregated per object in the database and streamed into
+ * int arrays indexed by object, so memory stays proportional to the number of objects.
+ */
+public final class DataModelFootprintCheck implements Check {
+    @Override public String id() { return "data-model"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
+
+    private static final int FETCH_SIZE = 5000;
+    private static final int WIDE_TABLE_ATTRIBUTES = 300;
+    private static final int MAX_LISTED = 20;
+
+    @Override
+    public String fingerprint(AssessmentContext ctx) throws Exception {
+        return Fingerprints.db(ctx, List.of("MAXOBJECT", "MAXATTRIBUTE", "MAXRELATIONSHIP", "MAXSYSINDEXES"));
+    }
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        SchemaInventory inv = ctx.schemaInventory;
+        if (!ctx.hasDb() || inv == null || !Boolean.TRUE.equals(inv.readable("MAXOBJECT"))) {
+            out.addBlock(new RiskBlock("Custom data model footprint", Rag.AMBER,
+                    "MAXOBJECT not available; data model customisation not measured.", Map.of()));
+            return;
+        }
+
+        List<MaxObject> objects = List.copyOf(inv.objects());
+        Map<String, Integer> byName = new HashMap<>(objects.size() * 2);
+        Map<String, Integer> byTable = new HashMap<>(objects.size() * 2);
+        for (int i = 0; i < objects.size(); i++) {
+            MaxObject o = objects.get(i);
+            byName.put(o.name(), i);
+            if (o.persistent() && o.table() != null) byTable.putIfAbsent(o.table().toUpperCase(Locale.ROOT), i);
+        }
+
+        int[] relationships = new int[objects.size()];
+        int[] indexes = new int[objects.size()];
+        Map<String, Object> errors = new LinkedHashMap<>();
+        long[] unmatched = new long[2];
+        try (Connection conn = ctx.borrowConnection()) {
+            String rel = "SELECT PARENT, COUNT(*) FROM " + DbUtil.qualify(ctx.schema, "MAXRELATIONSHIP") + " GROUP BY PARENT";
+            stream(conn, rel, byName, relationships, unmatched, 0, "MAXRELATIONSHIP", errors);
+            String idx = "SELECT TBNAME, COUNT(*) FROM " + DbUtil.qualify(ctx.schema, "MAXSYSINDEXES") + " GROUP BY TBNAME";
+            stream(conn, idx, byTable, indexes, unmatched, 1, "MAXSYSINDEXES", errors);
+        }
+
+        long customObjects = 0, customPersistent = 0, attributes = 0, persistentAttrs = 0, customAttrs = 0;
+        long customAttrsOnStock = 0, customRelationships = 0, customIndexes = 0, wide = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            MaxObject o = objects.get(i);
+            attributes += o.attributes();
+            persistentAttrs += o.persistentAttributes();
+            customAttrs += o.customAttributes();
+            if (o.persistent() && o.persistentAttributes() >= WIDE_TABLE_ATTRIBUTES) wide++;
+            if (o.userDefined()) {
+                customObjects++;
+                if (o.persistent()) customPersistent++;
+                customRelationships += relationships[i];
+                customIndexes += indexes[i];
+            } else {
+                customAttrsOnStock += o.customAttributes();
+            }
+        }
+
+        Map<String, Object> ev = new LinkedHashMap<>();
+        ev.put("objects", objects.size());
+        ev.put("custom_objects", customObjects);
+        ev.put("custom_persistent_objects", customPersistent);
+        ev.put("custom_nonpersistent_objects", customObjects - customPersistent);
+        ev.put("attributes", attributes);
+        ev.put("persistent_attributes", persistentAttrs);
+        ev.put("nonpersistent_attributes", attributes - persistentAttrs);
+        ev.put("custom_attributes", customAttrs);
+        ev.put("custom_attributes_on_stock_objects", customAttrsOnStock);
+        ev.put("relationships", errors.containsKey("MAXRELATIONSHIP") ? -1 : sum(relationships) + unmatched[0]);
+        ev.put("custom_object_relationships", errors.containsKey("MAXRELATIONSHIP") ? -1 : customRelationships);
+        ev.put("indexes", errors.containsKey("MAXSYSINDEXES") ? -1 : sum(indexes) + unmatched[1]);
+        ev.put("custom_object_indexes", errors.containsKey("MAXSYSINDEXES") ? -1 : customIndexes);
+        ev.put("wide_tables", wide);
+        ev.put("wide_table_threshold", WIDE_TABLE_ATTRIBUTES);
+
+        Map<String, Object> detail = new LinkedHashMap<>(ev);
+        detail.put("most_customised_objects", top(objects, Comparator.comparingInt(MaxObject::customAttributes), o -> o.customAttributes() > 0,
+                o -> Map.of("object", o.name(), "user_defined", o.userDefined(), "custom_attributes", o.customAttributes(), "attributes", o.attributes())));
+        detail.put("widest_tables", top(objects, Comparator.comparingInt(MaxObject::persistentAttributes), o -> o.persistent() && o.persistentAttributes() >= WIDE_TABLE_ATTRIBUTES,
+                o -> Map.of("object", o.name(), "table", String.valueOf(o.table()), "persistent_attributes", o.persistentAttributes())));
+        if (!errors.isEmpty()) detail.put("errors", errors);
+        out.putCheck("data_model_footprint", detail);
+
+        Rag rag = (customObjects >= 100 || customAttrs >= 2000) ? Rag.RED
+                : (customObjects >= 10 || customAttrs >= 200) ? Rag.AMBER : Rag.GREEN;
+        String summary = customObjects + " custom objects (" + customPersistent + " persistent) and " + customAttrs +
+                " custom attributes (" + customAttrsOnStock + " on IBM objects); " + wide + " tables with " +
+                WIDE_TABLE_ATTRIBUTES + "+ persistent attributes.";
+        out.addBlock(new RiskBlock("Custom data model footprint", rag, summary, ev));
+    }
+
+    /**
+     * Streams a (name, count) aggregate into {@code counts} at the index {@code ids} gives the
+     * name; counts for names not in the inventory go to {@code unmatched[slot]}.
+     */
+    private static void stream(Connection conn, String sql, Map<String, Integer> ids, int[] counts, long[] unmatched, int slot,
+                               String table, Map<String, Object> errors) {
+        try {
+            DbUtil.forEachRow(conn, sql, FETCH_SIZE, rs -> {
+                String name = rs.getString(1);
+                Integer id = name == null ? null : ids.get(name.toUpperCase(Locale.ROOT));
+                if (id != null) counts[id] += rs.getInt(2);
+                else unmatched[slot] += rs.getInt(2);
+            });
+        } catch (SQLException e) {
+            Arrays.fill(counts, 0);
+            unmatched[slot] = 0;
+            errors.put(table, e.getMessage());
+        }
+    }
+
+    private static long sum(int[] a) {
+        long s = 0;
+        for (int v : a) s += v;
+        return s;
+    }
+
+    private static List<Map<String, Object>> top(List<MaxObject> objects, Comparator<MaxObject> by,
+                                                 Predicate<MaxObject> include,
+                                                 Function<MaxObject, Map<String, Object>> view) {
+        PriorityQueue<MaxObject> best = new PriorityQueue<>(by.thenComparing(MaxObject::name, Comparator.reverseOrder()));
+        for (MaxObject o : objects) {
+            if (!include.test(o)) continue;
+            best.add(o);
+            if (best.size() > MAX_LISTED) best.poll();
+        }
+        List<MaxObject> sorted = new ArrayList<>(best);
+        sorted.sort(by.reversed().thenComparing(MaxObject::name));
+        List<Map<String, Object>> out = new ArrayList<>(sorted.size());
+        for (MaxObject o : sorted) out.add(view.apply(o));
+        return out;
+    }
+}
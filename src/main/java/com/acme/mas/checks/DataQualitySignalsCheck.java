@@ -4,39 +4,236 @@ import com.acme.mas.AssessmentContext;
 import com.acme.mas.model.Enums.Rag;
 import com.acme.mas.model.RiskBlock;
 import com.acme.mas.util.DbUtil;
+import com.acme.mas.util.Dialect;
+import com.acme.mas.util.ScoreUtil;
+import com.acme.mas.util.TimeBudget;
 
 import java.sql.Connection;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.sql.SQLException;
+import java.util.*;
 
+/**
+ * Null and orphaned-reference profile of the core business tables, one statement per table.
+ * With {@code --dq-sample-percent} the statement reads a native table sample instead of the
+ * whole table, counts are scaled up from the sample (the raw sample counts are kept alongside)
+ * and rates come with 95% Wilson intervals; page-level samples (SQL Server, DB2) are clustered,
+ * so treat those intervals as approximate.
+ */
 public final class DataQualitySignalsCheck implements Check {
     @Override public String id() { return "data-quality"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
+
+    private static final double Z95 = 1.96;
+
+    /** Reference to {@code parent} through same-named key columns; the first column is the reference itself. */
+    record ForeignKey(String parent, List<String> columns) {
+        String label() { return columns.get(0) + "->" + parent; }
+    }
+
+    record Profile(String table, List<String> nullColumns, List<ForeignKey> foreignKeys) {}
+
+    static final List<Profile> PROFILES = List.of(
+            new Profile("WORKORDER", List.of("SITEID", "ORGID", "STATUS"), List.of(
+                    new ForeignKey("SITE", List.of("SITEID")),
+                    new ForeignKey("ORGANIZATION", List.of("ORGID")),
+                    new ForeignKey("ASSET", List.of("ASSETNUM", "SITEID")),
+                    new ForeignKey("LOCATIONS", List.of("LOCATION", "SITEID")))),
+            new Profile("ASSET", List.of("SITEID", "ORGID", "STATUS"), List.of(
+                    new ForeignKey("SITE", List.of("SITEID")),
+                    new ForeignKey("ORGANIZATION", List.of("ORGID")),
+                    new ForeignKey("LOCATIONS", List.of("LOCATION", "SITEID")))),
+            new Profile("PERSON", List.of("PERSONID", "STATUS"), List.of())
+    );
+
+    /** Profiled tables and the parents their references point to. */
+    static List<String> tables() {
+        Set<String> t = new LinkedHashSet<>();
+        for (Profile p : PROFILES) {
+            t.add(p.table());
+            for (ForeignKey fk : p.foreignKeys()) t.add(fk.parent());
+        }
+        return List.copyOf(t);
+    }
+
+    @Override
+    public String fingerprint(AssessmentContext ctx) throws Exception {
+        return Fingerprints.db(ctx, tables(), ctx.dqSamplePercent);
+    }
 
     @Override
-    public void run(AssessmentContext ctx, AssessmentResultBuilder out) {
-        Connection conn = ctx.connection;
-        if (conn == null) {
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        if (!ctx.hasDb()) {
             out.addBlock(new RiskBlock("Data quality signals", Rag.AMBER,
                     "DB connection not available; data quality signals not measured.", Map.of()));
             return;
         }
 
+        Map<String, Map<String, Object>> profiles = new LinkedHashMap<>();
+        try (Connection conn = ctx.borrowConnection()) {
+            for (Profile p : PROFILES) profiles.put(p.table(), profile(conn, ctx.dialect, ctx.schema, p, ctx.dqSamplePercent));
+        }
+
         Map<String,Object> ev = new LinkedHashMap<>();
-        ev.put("workorder_missing_siteid", DbUtil.safeCountWhere(conn, ctx.dialect, ctx.schema, "WORKORDER", "SITEID IS NULL"));
-        ev.put("asset_missing_siteid", DbUtil.safeCountWhere(conn, ctx.dialect, ctx.schema, "ASSET", "SITEID IS NULL"));
-        ev.put("person_missing_personid", DbUtil.safeCountWhere(conn, ctx.dialect, ctx.schema, "PERSON", "PERSONID IS NULL"));
+        ev.put("workorder_missing_siteid", nulls(profiles.get("WORKORDER"), "SITEID"));
+        ev.put("asset_missing_siteid", nulls(profiles.get("ASSET"), "SITEID"));
+        ev.put("person_missing_personid", nulls(profiles.get("PERSON"), "PERSONID"));
 
         long woNull = asLong(ev.get("workorder_missing_siteid"));
         long assetNull = asLong(ev.get("asset_missing_siteid"));
+        long orphans = 0;
+        boolean sampled = false, partial = false;
+        for (Map<String, Object> p : profiles.values()) {
+            sampled |= Boolean.TRUE.equals(p.get("sampled"));
+            partial |= Boolean.TRUE.equals(p.get("partial"));
+            if (p.get("orphans") instanceof Map<?, ?> m) {
+                for (Object o : m.values()) orphans += Math.max(0, asLong(count((Map<?, ?>) o)));
+            }
+        }
+        ev.put("orphaned_references", orphans);
+        ev.put("count_basis", sampled ? "estimated from a " + ctx.dqSamplePercent + "% table sample" : "whole table");
+        if (partial) ev.put("partial", "time budget exhausted or query timed out; some tables not profiled");
 
         Rag rag = Rag.GREEN;
-        if ((woNull > 0 && woNull != -1) || (assetNull > 0 && assetNull != -1)) rag = Rag.AMBER;
+        if ((woNull > 0 && woNull != -1) || (assetNull > 0 && assetNull != -1) || orphans > 0) rag = Rag.AMBER;
 
-        String summary = "Basic null/health signals collected (heuristic). Consider data remediation if counts are high.";
+        String summary = "Basic null/health signals collected (heuristic" +
+                (sampled ? "; counts estimated from a " + ctx.dqSamplePercent + "% table sample" : "") +
+                (partial ? "; partial" : "") + "). Consider data remediation if counts are high.";
         out.putCheck("data_quality_signals", ev);
+        out.putCheck("data_quality_profile", profiles);
         out.addBlock(new RiskBlock("Data quality signals", rag, summary, ev));
     }
 
+    /**
+     * Profiles one table in a single statement. If it fails, foreign keys are dropped first (a
+     * parent table may be missing or unreadable), then sampling (the platform may not support it);
+     * as a last resort every column is counted on its own so one missing column only loses itself.
+     * A timeout or an expired budget ends the fallbacks: each one is a heavier plan than the last,
+     * so the table is reported as not profiled instead.
+     */
+    static Map<String, Object> profile(Connection conn, Dialect dialect, String schema, Profile p, double samplePercent) {
+        boolean trySample = samplePercent > 0 && samplePercent < 100 && dialect.sampledTable("x", "t", samplePercent) != null;
+        List<String> errors = new ArrayList<>();
+        for (boolean sample : trySample ? new boolean[]{true, false} : new boolean[]{false}) {
+            for (boolean withFks : p.foreignKeys().isEmpty() ? new boolean[]{false} : new boolean[]{true, false}) {
+                try {
+                    return profileOnce(conn, dialect, schema, p, sample ? samplePercent : 0, withFks);
+                } catch (SQLException e) {
+                    if (TimeBudget.stopped(e)) return notProfiled(e.getMessage());
+                    errors.add(e.getMessage());
+                }
+            }
+        }
+        return profilePerColumn(conn, dialect, schema, p, errors.get(errors.size() - 1));
+    }
+
+    private static Map<String, Object> notProfiled(String error) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("partial", true);
+        out.put("profile_error", error);
+        return out;
+    }
+
+    private static Map<String, Object> profilePerColumn(Connection conn, Dialect dialect, String schema, Profile p, String error) {
+        DbUtil.CountBatch batch = new DbUtil.CountBatch(dialect, schema).count("*", p.table());
+        for (String c : p.nullColumns()) batch.countWhere(c, p.table(), c + " IS NULL");
+        Map<String, Long> counts = batch.run(conn);
+        long n = counts.get("*");
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("sampled", false);
+        out.put("rows_profiled", n);
+        Map<String, Object> nulls = new LinkedHashMap<>();
+        for (String c : p.nullColumns()) nulls.put(c, rate(counts.get(c), Math.max(0, n), 0));
+        out.put("nulls", nulls);
+        out.put("profile_error", error);
+        if (!batch.stopped().isEmpty()) out.put("partial", true);
+        return out;
+    }
+
+    private static Map<String, Object> profileOnce(Connection conn, Dialect dialect, String schema, Profile p,
+                                                   double samplePercent, boolean withFks) throws SQLException {
+        String tableQ = DbUtil.qualify(schema, p.table());
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*)");
+        for (String c : p.nullColumns()) sql.append(", SUM(CASE WHEN t.").append(c).append(" IS NULL THEN 1 ELSE 0 END)");
+        List<ForeignKey> fks = withFks ? p.foreignKeys() : List.of();
+        for (int i = 0; i < fks.size(); i++) {
+            String ref = fks.get(i).columns().get(0);
+            sql.append(", SUM(CASE WHEN t.").append(ref).append(" IS NOT NULL AND p").append(i).append('.').append(ref)
+                    .append(" IS NULL THEN 1 ELSE 0 END)");
+        }
+        sql.append(" FROM ").append(samplePercent > 0 ? dialect.sampledTable(tableQ, "t", samplePercent) : tableQ + " t");
+        for (int i = 0; i < fks.size(); i++) {
+            ForeignKey fk = fks.get(i);
+            sql.append(" LEFT JOIN ").append(DbUtil.qualify(schema, fk.parent())).append(" p").append(i).append(" ON ");
+            for (int j = 0; j < fk.columns().size(); j++) {
+                String c = fk.columns().get(j);
+                if (j > 0) sql.append(" AND ");
+                sql.append('p').append(i).append('.').append(c).append(" = t.").append(c);
+            }
+        }
+
+        int columns = 1 + p.nullColumns().size() + fks.size();
+        Object[] row = DbUtil.firstRow(conn, sql.toString(), columns);
+        long n = Math.max(0, asLong(row[0]));
+        boolean sampled = samplePercent > 0;
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("sampled", sampled);
+        if (sampled) out.put("sample_percent", samplePercent);
+        out.put("rows_profiled", n);
+        if (sampled) out.put("rows_estimated", scale(n, samplePercent));
+        Map<String, Object> nulls = new LinkedHashMap<>();
+        for (int i = 0; i < p.nullColumns().size(); i++) nulls.put(p.nullColumns().get(i), rate(asCount(row[1 + i]), n, samplePercent));
+        out.put("nulls", nulls);
+        if (withFks) {
+            Map<String, Object> orphans = new LinkedHashMap<>();
+            for (int i = 0; i < fks.size(); i++) orphans.put(fks.get(i).label(), rate(asCount(row[1 + p.nullColumns().size() + i]), n, samplePercent));
+            out.put("orphans", orphans);
+        } else if (!p.foreignKeys().isEmpty()) {
+            out.put("orphans_skipped", "reference tables not readable");
+        }
+        return out;
+    }
+
+    /**
+     * Count and rate of {@code k} in {@code n} profiled rows. From a sample ({@code samplePercent}
+     * > 0) the count is the sample count scaled to the whole table, and the raw sample count is
+     * kept as {@code sample_count}.
+     */
+    private static Map<String, Object> rate(long k, long n, double samplePercent) {
+        boolean sampled = samplePercent > 0;
+        Map<String, Object> m = new LinkedHashMap<>();
+        if (sampled) {
+            m.put("estimated_count", k < 0 ? k : scale(k, samplePercent));
+            m.put("sample_count", k);
+        } else {
+            m.put("count", k);
+        }
+        m.put("rate", n <= 0 || k < 0 ? null : round((double) k / n));
+        if (sampled && n > 0 && k >= 0) {
+            double[] ci = ScoreUtil.wilsonInterval(k, n, Z95);
+            m.put("ci95", List.of(round(ci[0]), round(ci[1])));
+        }
+        return m;
+    }
+
+    private static Object nulls(Map<String, Object> profile, String column) {
+        if (profile == null || !(profile.get("nulls") instanceof Map<?, ?> m)) return -1L;
+        Object c = m.get(column);
+        return c instanceof Map<?, ?> r ? count(r) : -1L;
+    }
+
+    /** Whole-table count of a {@link #rate} entry, exact or estimated. */
+    private static Object count(Map<?, ?> rate) {
+        return rate.containsKey("count") ? rate.get("count") : rate.get("estimated_count");
+    }
+
+    private static long scale(long k, double samplePercent) { return Math.round(k * 100.0 / samplePercent); }
+
+    private static long asCount(Object o) { return o == null ? 0 : asLong(o); } // SUM over no rows is NULL
+    private static double round(double d) { return Math.round(d * 1_000_000d) / 1_000_000d; }
+
     static long asLong(Object o) {
         if (o == null) return -1;
         if (o instanceof Number n) return n.longValue();
@@ -3,43 +3,73 @@ package com.acme.mas.checks;
 import com.acme.mas.AssessmentContext;
 import com.acme.mas.model.Enums.Rag;
 import com.acme.mas.model.RiskBlock;
+import com.acme.mas.model.RowCount;
 import com.acme.mas.util.DbUtil;
 
 import java.sql.Connection;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 
 public final class DataVolumeCheck implements Check {
     @Override public String id() { return "data-volume"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
+
+    static final List<String> TABLES = List.of("WORKORDER", "ASSET", "LOCATIONS", "PERSON", "LABTRANS", "MATUSETRANS");
+    public static final long RED_ROWS = 50_000_000L;
+    static final long AMBER_ROWS = 5_000_000L;
 
     @Override
-    public void run(AssessmentContext ctx, AssessmentResultBuilder out) {
+    public String fingerprint(AssessmentContext ctx) throws Exception {
+        return ctx.includeDataVolume ? Fingerprints.db(ctx, TABLES, ctx.countMode, ctx.exactCountLimit) : null;
+    }
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
         if (!ctx.includeDataVolume) {
             out.addBlock(new RiskBlock("Data volume signals", Rag.AMBER,
                     "Data volume checks are disabled (use --include-data-volume to enable).", Map.of()));
             return;
         }
 
-        Connection conn = ctx.connection;
-        if (conn == null) {
+        if (!ctx.hasDb()) {
             out.addBlock(new RiskBlock("Data volume signals", Rag.AMBER,
                     "DB connection not available; data volume not measured.", Map.of()));
             return;
         }
 
-        String[] tables = {"WORKORDER", "ASSET", "LOCATIONS", "PERSON", "LABTRANS", "MATUSETRANS"};
         Map<String, Object> counts = new LinkedHashMap<>();
+        Map<String, Object> detail = new LinkedHashMap<>();
         long max = 0;
-        for (String t : tables) {
-            long c = asLong(DbUtil.safeCount(conn, ctx.dialect, ctx.schema, t));
-            counts.put(t, c);
-            if (c > max) max = c;
+        int estimated = 0;
+        List<String> capped = new ArrayList<>();
+        List<String> stopped = new ArrayList<>();
+        Map<String, RowCount> rowCounts;
+        try (Connection conn = ctx.borrowConnection()) {
+            rowCounts = DbUtil.rowCounts(conn, ctx.dialect, ctx.schema, TABLES, ctx.countMode, ctx.exactCountLimit);
+        }
+        for (String t : TABLES) {
+            RowCount rc = rowCounts.get(t);
+            counts.put(t, rc.rows());
+            detail.put(t, rc.toEvidence());
+            if (!rc.exact() && rc.rows() >= 0) estimated++;
+            if ("count_capped".equals(rc.source())) capped.add(t);
+            if (DbUtil.COUNT_STOPPED.equals(rc.source())) stopped.add(t);
+            if (rc.rows() > max) max = rc.rows();
         }
 
-        Rag rag = (max >= 50_000_000L) ? Rag.RED : (max >= 5_000_000L ? Rag.AMBER : Rag.GREEN);
-        String summary = "Largest table count signal=" + max + " rows (heuristic).";
+        // A capped count is a lower bound, so it can only raise the RAG; with a cap below RED_ROWS a
+        // RED-sized table shows as AMBER, which the summary calls out.
+        Rag rag = (max >= RED_ROWS) ? Rag.RED : (max >= AMBER_ROWS ? Rag.AMBER : Rag.GREEN);
+        String summary = "Largest table count signal=" + (capped.isEmpty() ? "" : ">=") + max + " rows (heuristic" +
+                (estimated > 0 ? "; " + estimated + " of " + TABLES.size() + " counts estimated from optimizer statistics or capped" : "") + ")" +
+                (!capped.isEmpty() && ctx.exactCountLimit < RED_ROWS
+                        ? "; " + String.join(", ", capped) + " hit the --exact-count-limit of " + ctx.exactCountLimit +
+                          ", below the RED threshold of " + RED_ROWS + ", so RED cannot be ruled out."
+                        : ".");
 
         out.putCheck("data_volume_counts", counts);
+        if (!capped.isEmpty()) detail.put("capped_tables", capped);
+        if (!stopped.isEmpty()) detail.put("partial", "timed out before counting " + stopped);
+        out.putCheck("data_volume_count_detail", detail);
         out.addBlock(new RiskBlock("Data volume signals", rag, summary, counts));
     }
 
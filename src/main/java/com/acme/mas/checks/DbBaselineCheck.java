@@ -7,34 +7,38 @@ import com.acme.mas.model.Finding;
 import com.acme.mas.model.RiskBlock;
 import com.acme.mas.util.DbUtil;
 import com.acme.mas.util.Dialect;
+import com.acme.mas.util.SchemaInventory;
 
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.util.*;
 
 public final class DbBaselineCheck implements Check {
 
     private static final Set<String> ALLOWED_SOURCE_VERSIONS = Set.of("7.6.0.10", "7.6.1.2", "7.6.1.3");
+    private static final List<String> VERSION_VARS = List.of("MAXIMO_VERSION", "VERSION", "PRODUCTVERSION", "APPVERSION", "SMPVERSION", "DBVERSION");
 
     @Override public String id() { return "db-baseline"; }
 
     @Override
     public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
-        Connection conn = ctx.connection;
-        if (conn == null) {
+        if (!ctx.hasDb()) {
             out.addFinding(Finding.err("DATABASE", "No DB connection available."));
             out.addBlock(new RiskBlock("Database baseline", Rag.RED, "DB connection failed; cannot assess database checks.", Map.of()));
             return;
         }
+        try (Connection conn = ctx.borrowConnection()) {
+            assess(ctx, out, conn);
+        }
+    }
 
-        DatabaseMetaData md = conn.getMetaData();
-        out.putCheck("db_connection", Map.of(
+    private static void assess(AssessmentContext ctx, AssessmentResultBuilder out, Connection conn) throws Exception {
+        out.putCheck("db_connection", DbUtil.metadata(conn, "DatabaseMetaData.product", md -> Map.of(
                 "ok", true,
                 "dbms_name", md.getDatabaseProductName(),
                 "dbms_version", md.getDatabaseProductVersion(),
                 "driver_name", md.getDriverName(),
                 "driver_version", md.getDriverVersion()
-        ));
+        )));
 
         DbType detected = DbUtil.detectDbType(conn);
         DbType effective = (ctx.requestedDbType == DbType.AUTO) ? detected : ctx.requestedDbType;
@@ -56,15 +60,29 @@ public final class DbBaselineCheck implements Check {
             }
         }
 
+        SchemaInventory inventory = SchemaInventory.load(conn, ctx.dialect, ctx.schema);
+        ctx.schemaInventory = inventory;
+        out.putCheck("schema_inventory", inventory.summary());
+
         String[] coreTables = {"MAXVARS", "MAXPROP", "MAXOBJECT", "MAXATTRIBUTE"};
         List<Map<String, Object>> readability = new ArrayList<>();
         for (String t : coreTables) {
+            Boolean read = inventory.readable(t);
+            if (read != null) {
+                if (read) readability.add(Map.of("table", t, "select_ok", true));
+                else readability.add(Map.of("table", t, "select_ok", false, "error", String.valueOf(inventory.errors().get(t))));
+                continue;
+            }
+            if (Boolean.FALSE.equals(inventory.tableExists(t))) {
+                readability.add(Map.of("table", t, "select_ok", false, "error", "Table not found in schema catalog."));
+                continue;
+            }
             String tableQ = DbUtil.qualify(ctx.schema, t);
             try {
                 DbUtil.execQuery(conn, ctx.dialect.selectOneFromTable(tableQ));
                 readability.add(Map.of("table", t, "select_ok", true));
             } catch (Exception e) {
-                readability.add(Map.of("table", t, "select_ok", false, "error", e.getMessage()));
+                readability.add(Map.of("table", t, "select_ok", false, "error", String.valueOf(e.getMessage())));
             }
         }
         out.putCheck("db_core_table_readability", readability);
@@ -74,14 +92,9 @@ public final class DbBaselineCheck implements Check {
         else out.addFinding(Finding.ok("DATABASE", "Core Maximo tables readable via provided connection."));
 
         List<Map<String, String>> hints = new ArrayList<>();
-        String[] candidates = {"MAXIMO_VERSION", "VERSION", "PRODUCTVERSION", "APPVERSION", "SMPVERSION", "DBVERSION"};
-        for (String k : candidates) {
-            try {
-                String v = DbUtil.scalarString(conn,
-                        "SELECT value FROM " + DbUtil.qualify(ctx.schema, "MAXVARS") +
-                                " WHERE UPPER(varname)=UPPER('" + k + "')");
-                if (v != null && !v.isBlank()) hints.add(Map.of("varname", k, "value", v));
-            } catch (Exception ignored) { }
+        for (String k : VERSION_VARS) {
+            String v = inventory.var(k);
+            if (v != null) hints.add(Map.of("varname", k, "value", v));
         }
         out.putCheck("source_version_hints_db", hints);
         ctx.dbVersionBest = bestDbVersion(hints);
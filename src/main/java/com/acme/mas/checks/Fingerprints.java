@@ -0,0 +1,68 @@
+package com.acme.mas.checks;
+
+import com.acme.mas.AssessmentContext;
+import com.acme.mas.model.RowCount;
+import com.acme.mas.util.DbUtil;
+import com.acme.mas.util.Fingerprint;
+import com.acme.mas.util.SmpIndex;
+import com.acme.mas.util.SmpIndex.Bucket;
+import com.acme.mas.util.SmpIndex.Entry;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** {@link Check#fingerprint} building blocks shared by the checks. */
+final class Fingerprints {
+    private Fingerprints() {}
+
+    /**
+     * DB platform, schema, best MAXVARS version and the optimizer-statistics row count and
+     * gathering time of every table, plus {@code inputs}. Null without a DB connection or when any
+     * table has no statistics timestamp, since then nothing cheap shows whether it changed.
+     */
+    static String db(AssessmentContext ctx, List<String> tables, Object... inputs) throws Exception {
+        if (!ctx.hasDb()) return null;
+        Map<String, RowCount> stats;
+        try (Connection conn = ctx.borrowConnection()) {
+            stats = DbUtil.statsCounts(conn, ctx.dialect, ctx.schema, tables);
+        }
+        Fingerprint f = new Fingerprint().addAll(ctx.effectiveDbType, ctx.schema, ctx.dbVersionBest);
+        for (String t : tables) {
+            RowCount rc = stats.get(t);
+            if (rc == null || rc.statsTime() == null) return null;
+            f.addAll(t, rc.rows(), rc.statsTime());
+        }
+        return f.addAll(inputs).hex();
+    }
+
+    /** SMP location and the listing digest of every bucket, plus {@code inputs}; null without an SMP. */
+    static String smp(AssessmentContext ctx, List<Bucket> buckets, Object... inputs) {
+        SmpIndex index = ctx.smpIndex();
+        if (index == null) return null;
+        Fingerprint f = new Fingerprint().add(index.smp().toAbsolutePath().normalize());
+        for (Bucket b : buckets) f.add(index.digest(b));
+        return f.addAll(inputs).hex();
+    }
+
+    /**
+     * {@link #smp} for checks that read file contents: every listed file with one of {@code exts}
+     * is also stat-ed afresh. A listing reused from the scan cache keeps the old size and mtime of
+     * a file edited in place, which would otherwise hand back the baseline output for it.
+     */
+    static String smpFiles(AssessmentContext ctx, List<Bucket> buckets, Set<String> exts, Object... inputs) {
+        SmpIndex index = ctx.smpIndex();
+        if (index == null) return null;
+        Fingerprint f = new Fingerprint().add(index.smp().toAbsolutePath().normalize());
+        for (Bucket b : buckets) {
+            f.add(index.digest(b));
+            Path root = index.root(b);
+            for (Entry e : index.entries(b)) {
+                if (exts.contains(e.ext())) f.file(root.resolve(e.path()));
+            }
+        }
+        return f.addAll(inputs).hex();
+    }
+}
@@ -7,24 +7,36 @@ import com.acme.mas.util.DbUtil;
 
 import java.sql.Connection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public final class IntegrationCompatibilitySignalsCheck implements Check {
     @Override public String id() { return "integration-signals"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
 
     @Override
-    public void run(AssessmentContext ctx, AssessmentResultBuilder out) {
-        Connection conn = ctx.connection;
-        if (conn == null) {
+    public String fingerprint(AssessmentContext ctx) throws Exception {
+        return Fingerprints.db(ctx, List.of("MAXENDPOINT", "MAXIFACEINVOKE", "MAXINTERROR"));
+    }
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        if (!ctx.hasDb()) {
             out.addBlock(new RiskBlock("Integration compatibility signals", Rag.AMBER,
                     "DB connection not available; integration DB signals not measured.", Map.of()));
             return;
         }
 
         Map<String,Object> ev = new LinkedHashMap<>();
-        ev.put("MAXENDPOINT_count", DbUtil.safeCount(conn, ctx.dialect, ctx.schema, "MAXENDPOINT"));
-        ev.put("MAXIFACEINVOKE_count", DbUtil.safeCount(conn, ctx.dialect, ctx.schema, "MAXIFACEINVOKE"));
-        ev.put("MAXINTERROR_count", DbUtil.safeCount(conn, ctx.dialect, ctx.schema, "MAXINTERROR"));
+        DbUtil.CountBatch batch = new DbUtil.CountBatch(ctx.dialect, ctx.schema, ctx.schemaInventory)
+                .count("MAXENDPOINT_count", "MAXENDPOINT")
+                .count("MAXIFACEINVOKE_count", "MAXIFACEINVOKE")
+                .count("MAXINTERROR_count", "MAXINTERROR");
+        try (Connection conn = ctx.borrowConnection()) {
+            ev.putAll(batch.run(conn));
+        }
+        if (!batch.stopped().isEmpty()) ev.put("partial", "timed out before counting " + batch.stopped());
 
         long endpoints = asLong(ev.get("MAXENDPOINT_count"));
         Rag rag = (endpoints >= 200) ? Rag.RED : (endpoints >= 50 ? Rag.AMBER : Rag.GREEN);
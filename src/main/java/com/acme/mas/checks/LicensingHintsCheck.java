@@ -7,26 +7,41 @@ import com.acme.mas.util.DbUtil;
 
 import java.sql.Connection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public final class LicensingHintsCheck implements Check {
     @Override public String id() { return "licensing-hints"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
 
     @Override
-    public void run(AssessmentContext ctx, AssessmentResultBuilder out) {
-        Connection conn = ctx.connection;
-        if (conn == null) {
+    public String fingerprint(AssessmentContext ctx) throws Exception {
+        return Fingerprints.db(ctx, List.of("MAXUSER"));
+    }
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        if (!ctx.hasDb()) {
             out.addBlock(new RiskBlock("Licensing & entitlement hints", Rag.AMBER,
                     "DB connection not available; licensing hints not derived.", Map.of()));
             return;
         }
 
         Map<String,Object> ev = new LinkedHashMap<>();
-        long totalUsers = asLong(DbUtil.safeCount(conn, ctx.dialect, ctx.schema, "MAXUSER"));
-        long activeUsers = asLong(DbUtil.safeCountWhere(conn, ctx.dialect, ctx.schema, "MAXUSER", "UPPER(STATUS)='ACTIVE'"));
+        long totalUsers, activeUsers;
+        DbUtil.CountBatch batch = new DbUtil.CountBatch(ctx.dialect, ctx.schema, ctx.schemaInventory)
+                .count("total", "MAXUSER")
+                .countWhere("active", "MAXUSER", "UPPER(STATUS)='ACTIVE'");
+        try (Connection conn = ctx.borrowConnection()) {
+            Map<String, Long> users = batch.run(conn);
+            totalUsers = users.get("total");
+            activeUsers = users.get("active");
+        }
 
         ev.put("maxuser_total", totalUsers);
         ev.put("maxuser_active_best_effort", activeUsers);
+        if (!batch.stopped().isEmpty()) ev.put("partial", "timed out before counting " + batch.stopped());
 
         Rag rag = (totalUsers >= 5000) ? Rag.AMBER : Rag.GREEN;
         String summary = "User inventory signal: total MAXUSER=" + totalUsers + ", active(best-effort)=" + activeUsers + ".";
@@ -0,0 +1,232 @@
+package com.acme.mas.checks;
+
+import com.acme.mas.AssessmentContext;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.Finding;
+import com.acme.mas.model.RiskBlock;
+import com.acme.mas.util.BoundedWorkers;
+import com.acme.mas.util.Fingerprint;
+import com.acme.mas.util.PresentationDigest;
+import com.acme.mas.util.PresentationDigest.Baseline;
+import com.acme.mas.util.PresentationDigest.Diff;
+import com.acme.mas.util.SmpIndex;
+import com.acme.mas.util.SmpIndex.Bucket;
+import com.acme.mas.util.SmpIndex.Entry;
+import com.acme.mas.util.Telemetry;
+import com.acme.mas.util.TimeBudget;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presentation and product XML customisation measured against the out-of-the-box files of the
+ * environment's 7.6.x level. Each XML is digested by {@link PresentationDigest} on
+ * {@link BoundedWorkers} and compared with the baseline on the same worker, so only the per-file
+ * counts are kept. Without a baseline for the level it falls back to counting product XMLs.
+ */
+public final class PresentationXmlDiffCheck implements Check {
+    @Override public String id() { return "presentation-xml"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
+
+    /** Buckets holding presentation and product XMLs; also what {@code presentation-baseline} digests. */
+    public static final List<Bucket> BUCKETS = List.of(Bucket.APP_PRESENTATIONS, Bucket.PRESENTATION);
+
+    private static final int BACKLOG_PER_THREAD = 4;
+    private static final double DENSE = 0.25;
+    private static final int MAX_LISTED = 25;
+
+    @Override
+    public String fingerprint(AssessmentContext ctx) {
+        SmpIndex index = ctx.smpIndex();
+        if (index == null) return null;
+        String override = ctx.presentationBaseline == null ? null : new Fingerprint().file(ctx.presentationBaseline).hex();
+        return Fingerprints.smpFiles(ctx, BUCKETS, Set.of(".xml"), level(ctx, index), override);
+    }
+
+    /** Baseline key of an SMP file: "presentations/..." or "product/..." plus its bucket-relative path. */
+    public static String documentKey(Entry e) {
+        return (e.bucket() == Bucket.PRESENTATION ? "product/" : "presentations/") + e.path();
+    }
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        SmpIndex index = ctx.smpIndex();
+        if (index == null || BUCKETS.stream().noneMatch(index::rootExists)) {
+            out.addBlock(new RiskBlock("Presentation XML overrides", Rag.AMBER,
+                    "Presentation XML directories not found (expected maximo/resources/presentations or maximo/applications/maximo/properties/product).",
+                    Map.of("smp_dir", String.valueOf(ctx.smpDir))));
+            return;
+        }
+
+        String level = level(ctx, index);
+        Baseline baseline = null;
+        String baselineError = null;
+        try {
+            baseline = ctx.presentationBaseline != null ? Baseline.load(ctx.presentationBaseline) : Baseline.bundled(level);
+        } catch (IOException e) {
+            baselineError = e.getMessage();
+        }
+        if (baseline == null) {
+            out.addBlock(countBlock(index, level, baselineError));
+            return;
+        }
+
+        Comparison cmp = new Comparison(baseline, Telemetry.current(), TimeBudget.current());
+        int threads = Runtime.getRuntime().availableProcessors();
+        try (BoundedWorkers workers = new BoundedWorkers("mas9-presentation", threads, BACKLOG_PER_THREAD)) {
+            for (Bucket b : BUCKETS) {
+                Path base = index.root(b);
+                for (Entry e : index.entries(b)) {
+                    if (cmp.stopped()) break;
+                    if (!e.ext().equals(".xml")) continue;
+                    workers.submit(() -> cmp.file(base.resolve(e.path()), e));
+                }
+            }
+            workers.awaitAll();
+        }
+
+        Map<String, Object> ev = cmp.toMap();
+        ev.put("baseline_level", baseline.level());
+        ev.put("baseline_source", ctx.presentationBaseline != null ? ctx.presentationBaseline.toString() : "bundled");
+        String fileLevel = Baseline.levelOf(baseline.level());
+        if (ctx.presentationBaseline != null && level != null && !level.equals(fileLevel)) {
+            String warning = "--presentation-baseline is for " + baseline.level() + " but the environment is at " + level +
+                    "; differences between the levels show up as customisation.";
+            ev.put("baseline_level_warning", warning);
+            out.addFinding(Finding.warn("SOURCE_VERSION", warning, Map.of("baseline", ctx.presentationBaseline.toString())));
+        }
+        if (cmp.stopped()) ev.put("partial", "time budget exhausted before all presentation XMLs were compared");
+        out.putCheck("presentation_xml_diff", ev);
+
+        long modified = (Long) ev.get("modified"), custom = (Long) ev.get("custom_only"), dense = (Long) ev.get("densely_modified");
+        Rag rag = dense >= 20 || custom >= 20 ? Rag.RED : (modified > 0 || custom > 0 ? Rag.AMBER : Rag.GREEN);
+        String summary = ev.get("documents") + " presentation/product XMLs vs " + baseline.level() + " baseline: " +
+                modified + " modified (" + dense + " with " + Math.round(DENSE * 100) + "%+ of elements changed or added), " +
+                custom + " not in the baseline, " + ev.get("unchanged") + " unchanged.";
+        Map<String, Object> blockEv = new LinkedHashMap<>(ev);
+        blockEv.remove("most_customised");
+        out.addBlock(new RiskBlock("Presentation XML overrides", rag, summary, blockEv));
+    }
+
+    /** Level from the DB version hints, else from the SMP version files; null if neither names a supported level. */
+    static String level(AssessmentContext ctx, SmpIndex index) {
+        String l = Baseline.levelOf(ctx.dbVersionBest);
+        return l != null || index == null ? l : Baseline.levelOf(SmpVersionAlignmentCheck.smpVersion(index));
+    }
+
+    /** The file-count heuristic used when no baseline digest is available. */
+    private static RiskBlock countBlock(SmpIndex index, String level, String baselineError) {
+        List<String> sample = new ArrayList<>();
+        long xmlCount = index.countByExt(Bucket.PRESENTATION, Set.of(".xml"), 30, sample);
+
+        Rag rag = xmlCount >= 200 ? Rag.RED : (xmlCount >= 50 ? Rag.AMBER : Rag.GREEN);
+        String summary = "Found " + xmlCount + " XML files under product/ (override heuristic; no presentation baseline for " +
+                (level == null ? "an undetected level" : level) + ").";
+        Map<String, Object> ev = new LinkedHashMap<>();
+        ev.put("path", index.root(Bucket.PRESENTATION).toString());
+        ev.put("xml_count", xmlCount);
+        ev.put("sample", sample);
+        ev.put("baseline_level", level);
+        ev.put("bundled_levels", Baseline.bundledLevels());
+        if (baselineError != null) ev.put("baseline_error", baselineError);
+        return new RiskBlock("Presentation XML overrides", rag, summary, ev);
+    }
+
+    record Compared(String document, int baselineElements, Diff diff) {
+        boolean custom() { return baselineElements < 0; }
+    }
+
+    /** Per-document results; workers add concurrently. */
+    private static final class Comparison {
+        final Baseline baseline;
+        final Map<String, Compared> docs = new ConcurrentHashMap<>();
+        final AtomicLong unreadable = new AtomicLong();
+        final Telemetry telemetry;
+        final TimeBudget budget;
+
+        Comparison(Baseline baseline, Telemetry telemetry, TimeBudget budget) {
+            this.baseline = baseline;
+            this.telemetry = telemetry;
+            this.budget = budget;
+        }
+
+        boolean stopped() { return budget != null && budget.expired(); }
+
+        void file(Path p, Entry e) {
+            String key = documentKey(e);
+            try (InputStream in = Files.newInputStream(p)) {
+                PresentationDigest.Digest d = PresentationDigest.of(in);
+                if (telemetry != null) {
+                    telemetry.fileVisited();
+                    telemetry.addBytesRead(e.size());
+                }
+                PresentationDigest.Digest ootb = baseline.get(key);
+                docs.put(key, ootb == null
+                        ? new Compared(key, -1, new Diff(d.elements(), 0, 0, d.elements(), 0))
+                        : new Compared(key, ootb.elements(), PresentationDigest.compare(d, ootb)));
+            } catch (IOException | XMLStreamException ex) { unreadable.incrementAndGet(); }
+        }
+
+        Map<String, Object> toMap() {
+            long unchanged = 0, modified = 0, custom = 0, dense = 0, elements = 0, changed = 0, added = 0, removed = 0;
+            List<Compared> listed = new ArrayList<>();
+            for (Compared c : docs.values()) {
+                Diff d = c.diff();
+                elements += d.elements();
+                if (c.custom()) {
+                    custom++;
+                    continue;
+                }
+                changed += d.changed();
+                added += d.added();
+                removed += d.removed();
+                if (d.changed() + d.added() + d.removed() == 0) {
+                    unchanged++;
+                    continue;
+                }
+                modified++;
+                if (d.density() >= DENSE) dense++;
+                listed.add(c);
+            }
+            long missing = baseline.paths().stream().filter(p -> !docs.containsKey(p)).count();
+
+            listed.sort(Comparator.comparingDouble((Compared c) -> c.diff().density()).reversed().thenComparing(Compared::document));
+            List<Map<String, Object>> top = new ArrayList<>();
+            for (Compared c : listed.subList(0, Math.min(MAX_LISTED, listed.size()))) {
+                Diff d = c.diff();
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("document", c.document());
+                m.put("density", Math.round(d.density() * 1000) / 1000.0);
+                m.put("elements", d.elements());
+                m.put("changed", d.changed());
+                m.put("added", d.added());
+                m.put("removed", d.removed());
+                top.add(m);
+            }
+            List<String> customDocs = docs.values().stream().filter(Compared::custom).map(Compared::document).sorted().limit(MAX_LISTED).toList();
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("documents", docs.size());
+            m.put("unchanged", unchanged);
+            m.put("modified", modified);
+            m.put("densely_modified", dense);
+            m.put("density_threshold", DENSE);
+            m.put("custom_only", custom);
+            m.put("baseline_missing_from_smp", missing);
+            m.put("unreadable", unreadable.get());
+            m.put("elements", elements);
+            m.put("elements_changed", changed);
+            m.put("elements_added", added);
+            m.put("elements_removed", removed);
+            m.put("custom_documents_sample", customDocs);
+            m.put("most_customised", top);
+            return m;
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.acme.mas.checks;
+
+import com.acme.mas.AssessmentContext;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.RiskBlock;
+import com.acme.mas.util.BirtDesignScanner;
+import com.acme.mas.util.BirtDesignScanner.DesignStats;
+import com.acme.mas.util.BoundedWorkers;
+import com.acme.mas.util.DbUtil;
+import com.acme.mas.util.Fingerprint;
+import com.acme.mas.util.SmpIndex;
+import com.acme.mas.util.SmpIndex.Bucket;
+import com.acme.mas.util.SmpIndex.Entry;
+import com.acme.mas.util.Telemetry;
+import com.acme.mas.util.TimeBudget;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedReader;
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * BIRT report inventory: every {@code .rptdesign} under the SMP reports directory and every
+ * design imported into REPORTDESIGN, parsed by {@link BirtDesignScanner} on {@link BoundedWorkers}
+ * and given a complexity score. DB designs are copied off the result set one row at a time, at
+ * most one per worker, so memory stays bounded; the rare design too large to copy is parsed from
+ * the column's Reader on the streaming thread. A design found in both places is counted once,
+ * using the database copy (that is what Maximo runs). REPORT supplies the registered-report counts.
+ * Designs named in the stock list of the environment's 7.6.x level are IBM's; the RAG is based on
+ * the others. Without a list (none is bundled yet) it counts REPORTDESIGN designs that have no file
+ * in the SMP reports tree as custom; with neither a list nor both sources it stays AMBER at most.
+ */
+public final class ReportInventoryCheck implements Check {
+    @Override public String id() { return "reports"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
+
+    private static final int FETCH_SIZE = 20;
+    private static final int BACKLOG_PER_THREAD = 4;
+    private static final int PARALLEL_DESIGN_CHARS = 1024 * 1024;
+    private static final int MAX_DESIGN_CHARS = 16 * 1024 * 1024;
+    private static final int MEDIUM_SCORE = 15;
+    private static final int COMPLEX_SCORE = 40;
+    private static final int MAX_LISTED = 25;
+
+    @Override
+    public String fingerprint(AssessmentContext ctx) throws Exception {
+        String level = PresentationXmlDiffCheck.level(ctx, ctx.smpIndex());
+        String override = ctx.reportStockList == null ? null : new Fingerprint().file(ctx.reportStockList).hex();
+        String files = Fingerprints.smpFiles(ctx, List.of(Bucket.REPORTS), Set.of(".rptdesign"), level, override);
+        if (!ctx.hasDb()) return files;
+        return Fingerprints.db(ctx, List.of("REPORT", "REPORTDESIGN"), files, level, override);
+    }
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        SmpIndex index = ctx.smpIndex();
+        boolean haveFiles = index != null && index.rootExists(Bucket.REPORTS);
+        if (!haveFiles && !ctx.hasDb()) {
+            out.addBlock(new RiskBlock("BIRT report inventory", Rag.AMBER,
+                    "Neither the SMP reports directory nor the DB is available; reports were not inventoried.",
+                    Map.of("smp_dir", String.valueOf(ctx.smpDir))));
+            return;
+        }
+
+        Inventory inv = new Inventory(Telemetry.current(), TimeBudget.current());
+        Map<String, Object> registered = new LinkedHashMap<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        try (BoundedWorkers workers = new BoundedWorkers("mas9-birt", threads, BACKLOG_PER_THREAD)) {
+            if (ctx.hasDb()) {
+                try (Connection conn = ctx.borrowConnection()) {
+                    registered = registered(conn, ctx.schema, inv);
+                    designsFromDb(conn, ctx.schema, inv);
+                }
+            }
+            if (haveFiles) {
+                Path base = index.root(Bucket.REPORTS);
+                for (Entry e : index.entries(Bucket.REPORTS)) {
+                    if (!e.ext().equals(".rptdesign")) continue;
+                    inv.smpKeys.add(Inventory.key(e.path()));
+                    if (inv.stopped()) continue;
+                    workers.submit(() -> inv.file(base.resolve(e.path()), e));
+                }
+            }
+            workers.awaitAll();
+        }
+
+        String level = PresentationXmlDiffCheck.level(ctx, index);
+        Set<String> stock = null;
+        String stockError = null;
+        try {
+            stock = ctx.reportStockList != null ? stockList(ctx.reportStockList) : bundledStockList(level);
+        } catch (IOException e) {
+            stockError = e.getMessage();
+        }
+
+        Predicate<Design> custom = null;
+        String basis, noList = "no stock list for " + (level == null ? "an undetected level" : level);
+        if (stock != null) {
+            Set<String> names = stock;
+            custom = d -> !names.contains(Inventory.key(d.name()));
+            basis = "custom designs (not in the stock list)";
+        } else if (haveFiles && ctx.hasDb()) {
+            // stock designs ship in the SMP tree, so a design only in REPORTDESIGN was imported separately
+            custom = d -> d.source().equals("db") && !inv.smpKeys.contains(Inventory.key(d.name()));
+            basis = "REPORTDESIGN designs with no file in the SMP reports tree (" + noList + ")";
+        } else {
+            basis = "all designs, stock included (" + noList + " and not both SMP and DB designs); AMBER at most";
+        }
+
+        Map<String, Object> ev = inv.toMap(custom);
+        ev.put("reports_dir", haveFiles ? index.root(Bucket.REPORTS).toString() : null);
+        ev.put("registered_reports", registered);
+        ev.put("stock_list_level", level);
+        ev.put("stock_list_source", ctx.reportStockList != null ? ctx.reportStockList.toString() : stock != null ? "bundled" : null);
+        if (stockError != null) ev.put("stock_list_error", stockError);
+        if (inv.stopped()) ev.put("partial", "time budget exhausted before all designs were parsed");
+        out.putCheck("birt_report_inventory", ev);
+
+        Map<?, ?> bands = (Map<?, ?>) ev.get("score_bands");
+        long complex = (Long) bands.get("complex"), jdbc = (Long) ev.get("designs_with_jdbc");
+        Rag rag;
+        String summary = ev.get("designs") + " BIRT designs (" + ev.get("designs_from_db") + " from REPORTDESIGN)";
+        if (custom != null) {
+            Map<?, ?> customEv = (Map<?, ?>) ev.get("custom");
+            long customComplex = (Long) customEv.get("complex"), customJdbc = (Long) customEv.get("designs_with_jdbc");
+            rag = customComplex >= 50 || customJdbc >= 10 ? Rag.RED : (customComplex > 0 || customJdbc > 0 ? Rag.AMBER : Rag.GREEN);
+            summary += ", " + customEv.get("designs") + " custom: " + customComplex + " complex (score " + COMPLEX_SCORE + "+), " +
+                    customEv.get("medium") + " medium; " + customJdbc + " use JDBC directly.";
+        } else {
+            // the totals include IBM's own designs, which alone can pass the RED thresholds
+            rag = complex > 0 || jdbc > 0 ? Rag.AMBER : Rag.GREEN;
+            summary += ": " + complex + " complex (score " + COMPLEX_SCORE + "+), " + bands.get("medium") + " medium; " +
+                    jdbc + " use JDBC directly. Stock and custom designs are not separated.";
+        }
+        ev.put("rag_basis", basis);
+        Map<String, Object> blockEv = new LinkedHashMap<>(ev);
+        blockEv.remove("most_complex_designs");
+        out.addBlock(new RiskBlock("BIRT report inventory", rag, summary, blockEv));
+    }
+
+    /** Registered reports per application, one grouped query. */
+    private static Map<String, Object> registered(Connection conn, String schema, Inventory inv) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        long[] totals = new long[2]; // reports, applications
+        try {
+            DbUtil.forEachRow(conn, "SELECT APPNAME, COUNT(*) FROM " + DbUtil.qualify(schema, "REPORT") + " GROUP BY APPNAME", 500, rs -> {
+                totals[0] += rs.getLong(2);
+                totals[1]++;
+            });
+            m.put("reports", totals[0]);
+            m.put("applications", totals[1]);
+        } catch (SQLException e) {
+            inv.errors.put("REPORT", e.getMessage());
+        }
+        return m;
+    }
+
+    /**
+     * Streams REPORTDESIGN with a small fetch size. Each worker holds at most one design, so the
+     * next row is fetched only once a worker is free; the Reader itself never leaves this thread,
+     * which owns the connection.
+     */
+    private static void designsFromDb(Connection conn, String schema, Inventory inv) throws InterruptedException {
+        try (BoundedWorkers workers = new BoundedWorkers("mas9-birt-db", Runtime.getRuntime().availableProcessors(), 1)) {
+            try {
+                DbUtil.forEachRow(conn, "SELECT REPORTNAME, DESIGN FROM " + DbUtil.qualify(schema, "REPORTDESIGN"), FETCH_SIZE, rs -> {
+                    if (inv.stopped()) return;
+                    inv.design(rs.getString(1), rs, 2, workers);
+                });
+            } catch (SQLException e) {
+                inv.errors.put("REPORTDESIGN", e.getMessage());
+            }
+            workers.awaitAll();
+        }
+    }
+
+    /** Passes at most {@link #MAX_DESIGN_CHARS} through, then fails the parse and records that it did. */
+    private static final class CappedReader extends FilterReader {
+        long chars;
+        boolean exceeded;
+
+        CappedReader(Reader in) { super(in); }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) count(1);
+            return c;
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count(n);
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            chars += n;
+            if (chars > MAX_DESIGN_CHARS) {
+                exceeded = true;
+                throw new IOException("design longer than " + MAX_DESIGN_CHARS + " characters");
+            }
+        }
+    }
+
+    /** Bundled stock design names for {@code level}, or null if none ships with this build. */
+    private static Set<String> bundledStockList(String level) throws IOException {
+        if (level == null) return null;
+        try (InputStream in = ReportInventoryCheck.class.getResourceAsStream("/baselines/reports-" + level + ".txt")) {
+            return in == null ? null : stockList(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Set<String> stockList(Path file) throws IOException {
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return stockList(r);
+        }
+    }
+
+    /** One design file name per line, '#' starts a comment; names are keyed like {@link Inventory#key}. */
+    private static Set<String> stockList(Reader in) throws IOException {
+        Set<String> names = new HashSet<>();
+        BufferedReader r = new BufferedReader(in);
+        for (String line; (line = r.readLine()) != null; ) {
+            int hash = line.indexOf('#');
+            String name = (hash >= 0 ? line.substring(0, hash) : line).trim();
+            if (!name.isEmpty()) names.add(Inventory.key(name));
+        }
+        return names;
+    }
+
+    record Design(String name, String source, DesignStats stats) {}
+
+    /** Parsed designs by lower-cased file name; workers add concurrently. */
+    private static final class Inventory {
+        final Map<String, Design> designs = new ConcurrentHashMap<>();
+        final Map<String, Object> errors = new ConcurrentHashMap<>();
+        final AtomicLong unreadable = new AtomicLong();
+        final AtomicLong oversized = new AtomicLong();
+        final Set<String> smpKeys = ConcurrentHashMap.newKeySet(); // every design file in the SMP tree, parsed or not
+        final Telemetry telemetry;
+        final TimeBudget budget;
+
+        Inventory(Telemetry telemetry, TimeBudget budget) {
+            this.telemetry = telemetry;
+            this.budget = budget;
+        }
+
+        boolean stopped() { return budget != null && budget.expired(); }
+
+        /**
+         * Copies the design in {@code column} of the current row, up to {@link #PARALLEL_DESIGN_CHARS},
+         * and hands it to a worker; a longer one is parsed here from the rest of the Reader. Empty
+         * designs count as unreadable.
+         */
+        void design(String name, ResultSet rs, int column, BoundedWorkers workers) throws SQLException {
+            try (Reader r = rs.getCharacterStream(column)) {
+                if (r == null) {
+                    unreadable.incrementAndGet();
+                    return;
+                }
+                CharArrayWriter head = new CharArrayWriter(8192);
+                char[] buf = new char[8192];
+                int n;
+                while (head.size() <= PARALLEL_DESIGN_CHARS && (n = r.read(buf)) > 0) head.write(buf, 0, n);
+                char[] xml = head.toCharArray();
+                if (xml.length <= PARALLEL_DESIGN_CHARS) {
+                    if (telemetry != null) telemetry.addBytesRead(xml.length);
+                    workers.submit(() -> parse(name, new CappedReader(new CharArrayReader(xml))));
+                    return;
+                }
+                PushbackReader rest = new PushbackReader(r, xml.length);
+                rest.unread(xml);
+                CappedReader in = new CappedReader(rest);
+                parse(name, in);
+                if (telemetry != null) telemetry.addBytesRead(in.chars);
+            } catch (IOException e) {
+                throw new SQLException("Cannot read REPORTDESIGN.DESIGN: " + e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while parsing report designs.", e);
+            }
+        }
+
+        private void parse(String name, CappedReader in) {
+            try {
+                add(new Design(name, "db", BirtDesignScanner.scan(in)));
+            } catch (XMLStreamException e) {
+                (in.exceeded ? oversized : unreadable).incrementAndGet();
+            }
+        }
+
+        void file(Path p, Entry e) {
+            try (InputStream in = Files.newInputStream(p)) {
+                DesignStats s = BirtDesignScanner.scan(in);
+                if (telemetry != null) {
+                    telemetry.fileVisited();
+                    telemetry.addBytesRead(e.size());
+                }
+                add(new Design(e.path(), "smp", s));
+            } catch (IOException | XMLStreamException ex) { unreadable.incrementAndGet(); }
+        }
+
+        /** The DB copy wins over a file; otherwise the higher score, then the smaller name, so results do not depend on scheduling. */
+        private void add(Design d) {
+            designs.merge(key(d.name()), d, (a, b) -> {
+                if (!a.source().equals(b.source())) return a.source().equals("db") ? a : b;
+                if (a.stats().score() != b.stats().score()) return a.stats().score() > b.stats().score() ? a : b;
+                return a.name().compareTo(b.name()) <= 0 ? a : b;
+            });
+        }
+
+        /** Lower-cased file name without directories. */
+        static String key(String name) {
+            if (name == null) return "";
+            return name.substring(name.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        }
+
+        /** Totals over all designs, plus a {@code custom} section when {@code custom} can tell custom designs apart. */
+        Map<String, Object> toMap(Predicate<Design> custom) {
+            long customDesigns = 0, customWithJdbc = 0;
+            long[] customBands = new long[3];
+            long fromDb = 0, dataSets = 0, scriptedSources = 0, scriptedSets = 0, sql = 0, jdbc = 0, methods = 0, withSql = 0, withJdbc = 0;
+            long[] bands = new long[3];
+            for (Design d : designs.values()) {
+                DesignStats s = d.stats();
+                if (d.source().equals("db")) fromDb++;
+                dataSets += s.dataSets();
+                scriptedSources += s.scriptedDataSources();
+                scriptedSets += s.scriptedDataSets();
+                sql += s.sqlQueries();
+                jdbc += s.jdbc();
+                methods += s.scriptMethods();
+                if (s.sqlQueries() > 0) withSql++;
+                if (s.jdbc() > 0) withJdbc++;
+                int band = s.score() >= COMPLEX_SCORE ? 2 : s.score() >= MEDIUM_SCORE ? 1 : 0;
+                bands[band]++;
+                if (custom != null && custom.test(d)) {
+                    customDesigns++;
+                    customBands[band]++;
+                    if (s.jdbc() > 0) customWithJdbc++;
+                }
+            }
+
+            List<Design> top = new ArrayList<>(designs.values());
+            top.sort(Comparator.comparingInt((Design d) -> d.stats().score()).reversed().thenComparing(Design::name));
+            List<Map<String, Object>> listed = new ArrayList<>();
+            for (Design d : top.subList(0, Math.min(MAX_LISTED, top.size()))) {
+                DesignStats s = d.stats();
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("design", d.name());
+                m.put("source", d.source());
+                if (custom != null) m.put("custom", custom.test(d));
+                m.put("score", s.score());
+                m.put("data_sets", s.dataSets());
+                m.put("scripted_data_sources", s.scriptedDataSources());
+                m.put("sql_queries", s.sqlQueries());
+                m.put("jdbc", s.jdbc());
+                m.put("script_methods", s.scriptMethods());
+                listed.add(m);
+            }
+
+            Map<String, Long> scoreBands = new LinkedHashMap<>();
+            scoreBands.put("simple", bands[0]);
+            scoreBands.put("medium", bands[1]);
+            scoreBands.put("complex", bands[2]);
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("designs", designs.size());
+            m.put("designs_from_db", fromDb);
+            m.put("designs_unreadable", unreadable.get());
+            m.put("designs_oversized", oversized.get());
+            m.put("max_design_chars", MAX_DESIGN_CHARS);
+            m.put("data_sets", dataSets);
+            m.put("scripted_data_sources", scriptedSources);
+            m.put("scripted_data_sets", scriptedSets);
+            m.put("sql_queries", sql);
+            m.put("designs_with_sql", withSql);
+            m.put("jdbc_uses", jdbc);
+            m.put("designs_with_jdbc", withJdbc);
+            m.put("script_methods", methods);
+            m.put("score_bands", scoreBands);
+            m.put("score_thresholds", Map.of("medium", MEDIUM_SCORE, "complex", COMPLEX_SCORE));
+            if (custom != null) {
+                Map<String, Object> c = new LinkedHashMap<>();
+                c.put("designs", customDesigns);
+                c.put("other_designs", designs.size() - customDesigns);
+                c.put("simple", customBands[0]);
+                c.put("medium", customBands[1]);
+                c.put("complex", customBands[2]);
+                c.put("designs_with_jdbc", customWithJdbc);
+                m.put("custom", c);
+            }
+            m.put("most_complex_designs", listed);
+            if (!errors.isEmpty()) m.put("errors", new TreeMap<>(errors));
+            return m;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.acme.mas.checks;
 import com.acme.mas.AssessmentContext;
 import com.acme.mas.model.Enums.Rag;
 import com.acme.mas.model.RiskBlock;
+import com.acme.mas.util.Fingerprint;
 import com.acme.mas.util.FsUtil;
 
 import java.nio.file.Files;
@@ -13,6 +14,11 @@ import java.util.Map;
 public final class SecurityPostureSignalsCheck implements Check {
     @Override public String id() { return "security-signals"; }
 
+    @Override
+    public String fingerprint(AssessmentContext ctx) {
+        return new Fingerprint().add(ctx.propertiesFile).file(ctx.propertiesPath()).hex();
+    }
+
     @Override
     public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
         Map<String,Object> ev = new LinkedHashMap<>();
@@ -20,8 +26,7 @@ public final class SecurityPostureSignalsCheck implements Check {
 
         Path props = ctx.propertiesPath();
         if (props != null && Files.exists(props) && Files.isRegularFile(props)) {
-            String txt = FsUtil.safeRead(props, 500_000);
-            Map<String,String> p = FsUtil.parseProperties(txt);
+            Map<String,String> p = FsUtil.parseProperties(FsUtil.lines(props, 500_000));
             String ssl = p.getOrDefault("mxe.use.ssl", "");
             String smtp = p.getOrDefault("mxe.smtp.host", "");
             ev.put("mxe.use.ssl", ssl);
@@ -3,60 +3,80 @@ package com.acme.mas.checks;
 import com.acme.mas.AssessmentContext;
 import com.acme.mas.model.Enums.Rag;
 import com.acme.mas.model.RiskBlock;
-import com.acme.mas.util.FsUtil;
+import com.acme.mas.util.SmpIndex;
+import com.acme.mas.util.SmpScanCache;
+import com.acme.mas.util.SmpIndex.Bucket;
+import com.acme.mas.util.SmpIndex.Entry;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 
 public final class SmpCustomisationCheck implements Check {
     @Override public String id() { return "smp-customisation"; }
 
+    static final List<String> REQUIRED_DIRS = List.of(
+            "maximo",
+            "maximo/applications",
+            "maximo/applications/maximo",
+            "maximo/applications/maximo/businessobjects",
+            "maximo/applications/maximo/properties",
+            "maximo/tools",
+            "maximo/etc"
+    );
+
+    @Override
+    public String fingerprint(AssessmentContext ctx) {
+        SmpIndex index = ctx.smpIndex();
+        if (index == null) return null;
+        return Fingerprints.smp(ctx, List.of(Bucket.CLASSES, Bucket.INTEGRATION, Bucket.ETC, Bucket.TOOLS_BACKUP, Bucket.TOOLS_PATCH), REQUIRED_DIRS.stream().map(index::exists).toList());
+    }
+
     @Override
     public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
-        Path smp = ctx.smpPath();
-        if (smp == null || !FsUtil.dirExists(smp)) {
+        SmpIndex index = ctx.smpIndex();
+        if (index == null) {
+            Map<String,Object> ev = new LinkedHashMap<>();
+            ev.put("smp_dir", ctx.smpDir);
             out.addBlock(new RiskBlock("SMP customisation", Rag.AMBER,
-                    "SMP directory not provided or not accessible; SMP customisation checks skipped.",
-                    Map.of("smp_dir", ctx.smpDir)));
+                    "SMP directory not provided or not accessible; SMP customisation checks skipped.", ev));
             return;
         }
 
-        out.addBlock(structureBlock(smp));
-        out.addBlock(customJavaBlock(smp));
-        out.addBlock(presentationXmlBlock(smp));
-        out.addBlock(integrationBlock(smp));
-        out.addBlock(hygieneBlock(smp));
+        Map<String,Object> idx = new LinkedHashMap<>();
+        idx.put("files_indexed", index.fileCount());
+        SmpScanCache cache = ctx.scanCache();
+        if (cache != null) {
+            idx.put("scan_cache", cache.file().toString());
+            idx.put("dirs_reused", cache.reusedDirs());
+            idx.put("dirs_rescanned", cache.rescannedDirs());
+        }
+        out.putCheck("smp_index", idx);
+
+        out.addBlock(structureBlock(index));
+        out.addBlock(customJavaBlock(index));
+        out.addBlock(integrationBlock(index));
+        out.addBlock(hygieneBlock(index));
     }
 
-    private static RiskBlock structureBlock(Path smp) {
-        List<String> required = List.of(
-                "maximo",
-                "maximo/applications",
-                "maximo/applications/maximo",
-                "maximo/applications/maximo/businessobjects",
-                "maximo/applications/maximo/properties",
-                "maximo/tools",
-                "maximo/etc"
-        );
+    private static RiskBlock structureBlock(SmpIndex index) {
         List<String> missing = new ArrayList<>();
-        for (String r : required) {
-            if (!Files.exists(smp.resolve(r))) missing.add(r);
+        for (String r : REQUIRED_DIRS) {
+            if (!index.exists(r)) missing.add(r);
         }
         Rag rag = missing.isEmpty() ? Rag.GREEN : (missing.size() <= 2 ? Rag.AMBER : Rag.RED);
         String summary = missing.isEmpty() ? "Core SMP folders detected." : "Missing expected SMP folders: " + String.join(", ", missing);
-        return new RiskBlock("SMP structure completeness", rag, summary, Map.of("missing", missing, "checked", required));
+        return new RiskBlock("SMP structure completeness", rag, summary, Map.of("missing", missing, "checked", REQUIRED_DIRS));
     }
 
-    private static RiskBlock hygieneBlock(Path smp) throws Exception {
-        Path backup = smp.resolve("maximo/tools/backup");
-        Path patch = smp.resolve("maximo/tools/patch");
+    private static RiskBlock hygieneBlock(SmpIndex index) {
+        Path backup = index.root(Bucket.TOOLS_BACKUP);
+        Path patch = index.root(Bucket.TOOLS_PATCH);
 
         List<String> backupSample = new ArrayList<>();
         List<String> patchSample = new ArrayList<>();
 
-        long backupFiles = FsUtil.countFilesByExt(backup, Set.of(".zip",".tar",".gz",".bak"), 10, backupSample);
-        long patchFiles = FsUtil.countFilesByExt(patch, Set.of(".log",".txt",".jar",".zip"), 10, patchSample);
+        long backupFiles = index.countByExt(Bucket.TOOLS_BACKUP, Set.of(".zip",".tar",".gz",".bak"), 10, backupSample);
+        long patchFiles = index.countByExt(Bucket.TOOLS_PATCH, Set.of(".log",".txt",".jar",".zip"), 10, patchSample);
 
         Rag rag = (patchFiles > 0 || backupFiles > 0) ? Rag.AMBER : Rag.GREEN;
         String summary = (patchFiles > 0 || backupFiles > 0)
@@ -73,86 +93,46 @@ public final class SmpCustomisationCheck implements Check {
         return new RiskBlock("Environment hygiene signals", rag, summary, ev);
     }
 
-    private static RiskBlock customJavaBlock(Path smp) throws Exception {
-        Path base = smp.resolve("maximo/applications/maximo/businessobjects/classes");
-        if (!FsUtil.dirExists(base)) {
+    private static RiskBlock customJavaBlock(SmpIndex index) {
+        Path base = index.root(Bucket.CLASSES);
+        if (!index.rootExists(Bucket.CLASSES)) {
             return new RiskBlock("Custom Java footprint", Rag.AMBER,
                     "Classes directory not found (expected maximo/applications/maximo/businessobjects/classes).",
                     Map.of("expected_path", base.toString()));
         }
 
-        long totalJava = 0, totalClass = 0, customJava = 0, customClass = 0, nonIbmJava = 0, nonIbmClass = 0;
-
-        try (var stream = Files.walk(base)) {
-            for (Path p : (Iterable<Path>) stream::iterator) {
-                if (!Files.isRegularFile(p)) continue;
-                String fn = p.getFileName().toString().toLowerCase(Locale.ROOT);
-                boolean isJava = fn.endsWith(".java");
-                boolean isClass = fn.endsWith(".class");
-                if (!isJava && !isClass) continue;
-
-                String rel = base.relativize(p).toString().replace('\\', '/').toLowerCase(Locale.ROOT);
-                boolean underCustom = rel.startsWith("custom/") || rel.contains("/custom/");
-                boolean isIbm = rel.startsWith("psdi/") || rel.startsWith("com/ibm/") || rel.contains("/psdi/") || rel.contains("/com/ibm/");
-
-                if (isJava) totalJava++;
-                if (isClass) totalClass++;
-                if (underCustom) {
-                    if (isJava) customJava++;
-                    if (isClass) customClass++;
-                }
-                if (!isIbm) {
-                    if (isJava) nonIbmJava++;
-                    if (isClass) nonIbmClass++;
-                }
-            }
-        }
+        JavaFootprint fp = new JavaFootprint();
+        for (Entry e : index.entries(Bucket.CLASSES)) fp.add(e.path(), e.ext());
 
-        long footprint = Math.max(nonIbmJava + nonIbmClass, customJava + customClass);
+        long footprint = Math.max(fp.nonIbmJava + fp.nonIbmClass, fp.customJava + fp.customClass);
         Rag rag = footprint >= 200 ? Rag.RED : (footprint >= 50 ? Rag.AMBER : Rag.GREEN);
 
         String summary = "Heuristic custom footprint=" + footprint +
-                " (nonIbmJava=" + nonIbmJava + ", nonIbmClass=" + nonIbmClass +
-                ", customJava=" + customJava + ", customClass=" + customClass + ").";
+                " (nonIbmJava=" + fp.nonIbmJava + ", nonIbmClass=" + fp.nonIbmClass +
+                ", customJava=" + fp.customJava + ", customClass=" + fp.customClass + ").";
 
         Map<String,Object> ev = new LinkedHashMap<>();
         ev.put("classes_path", base.toString());
-        ev.put("total_java", totalJava);
-        ev.put("total_class", totalClass);
-        ev.put("custom_java", customJava);
-        ev.put("custom_class", customClass);
-        ev.put("non_ibm_java", nonIbmJava);
-        ev.put("non_ibm_class", nonIbmClass);
+        ev.put("total_java", fp.totalJava);
+        ev.put("total_class", fp.totalClass);
+        ev.put("custom_java", fp.customJava);
+        ev.put("custom_class", fp.customClass);
+        ev.put("non_ibm_java", fp.nonIbmJava);
+        ev.put("non_ibm_class", fp.nonIbmClass);
         ev.put("heuristic_custom_footprint", footprint);
 
         return new RiskBlock("Custom Java footprint", rag, summary, ev);
     }
 
-    private static RiskBlock presentationXmlBlock(Path smp) throws Exception {
-        Path dir = smp.resolve("maximo/applications/maximo/properties/product");
-        if (!FsUtil.dirExists(dir)) {
-            return new RiskBlock("Presentation XML overrides", Rag.AMBER,
-                    "Presentation XML directory not found (expected maximo/applications/maximo/properties/product).",
-                    Map.of("expected_path", dir.toString()));
-        }
-
-        List<String> sample = new ArrayList<>();
-        long xmlCount = FsUtil.countFilesByExt(dir, Set.of(".xml"), 30, sample);
-
-        Rag rag = xmlCount >= 200 ? Rag.RED : (xmlCount >= 50 ? Rag.AMBER : Rag.GREEN);
-        String summary = "Found " + xmlCount + " XML files under product/ (override heuristic).";
-        return new RiskBlock("Presentation XML overrides", rag, summary, Map.of("path", dir.toString(), "xml_count", xmlCount, "sample", sample));
-    }
-
-    private static RiskBlock integrationBlock(Path smp) throws Exception {
-        Path integDir = smp.resolve("maximo/applications/maximo/integration");
-        Path etcDir = smp.resolve("maximo/etc");
+    private static RiskBlock integrationBlock(SmpIndex index) {
+        Path integDir = index.root(Bucket.INTEGRATION);
+        Path etcDir = index.root(Bucket.ETC);
 
         List<String> sampleInteg = new ArrayList<>();
         List<String> sampleMx = new ArrayList<>();
 
-        long integSignals = FsUtil.countFilesByExt(integDir, Set.of(".xml",".xsd",".properties",".jar",".java",".class"), 30, sampleInteg);
-        long mxintegSignals = FsUtil.countFilesByPrefix(etcDir, "mxinteg", 30, sampleMx);
+        long integSignals = index.countByExt(Bucket.INTEGRATION, Set.of(".xml",".xsd",".properties",".jar",".java",".class"), 30, sampleInteg);
+        long mxintegSignals = index.countByPrefix(Bucket.ETC, "mxinteg", 30, sampleMx);
 
         long totalSignals = integSignals + mxintegSignals;
         Rag rag = totalSignals >= 200 ? Rag.RED : (totalSignals >= 50 ? Rag.AMBER : Rag.GREEN);
@@ -167,4 +147,43 @@ public final class SmpCustomisationCheck implements Check {
                 "sample_mxinteg", sampleMx
         ));
     }
+
+    /** Tallies .java/.class files under the classes tree by custom-folder and IBM-package heuristics. */
+    static final class JavaFootprint {
+        long totalJava, totalClass, customJava, customClass, nonIbmJava, nonIbmClass;
+
+        void add(String relPath, String ext) {
+            boolean isJava = ext.equals(".java");
+            boolean isClass = ext.equals(".class");
+            if (!isJava && !isClass) return;
+
+            String rel = relPath.toLowerCase(Locale.ROOT);
+            boolean underCustom = isUnderCustom(rel);
+            boolean ibm = isIbm(rel);
+
+            if (isJava) totalJava++;
+            if (isClass) totalClass++;
+            if (underCustom) {
+                if (isJava) customJava++;
+                if (isClass) customClass++;
+            }
+            if (!ibm) {
+                if (isJava) nonIbmJava++;
+                if (isClass) nonIbmClass++;
+            }
+        }
+
+        /** Custom code: outside the IBM packages, or in a custom/ folder inside them. */
+        static boolean isCustom(String relLower) {
+            return !isIbm(relLower) || isUnderCustom(relLower);
+        }
+
+        static boolean isUnderCustom(String relLower) {
+            return relLower.startsWith("custom/") || relLower.contains("/custom/");
+        }
+
+        static boolean isIbm(String relLower) {
+            return relLower.startsWith("psdi/") || relLower.startsWith("com/ibm/") || relLower.contains("/psdi/") || relLower.contains("/com/ibm/");
+        }
+    }
 }
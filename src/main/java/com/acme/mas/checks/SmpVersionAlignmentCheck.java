@@ -3,9 +3,10 @@ package com.acme.mas.checks;
 import com.acme.mas.AssessmentContext;
 import com.acme.mas.model.Enums.Rag;
 import com.acme.mas.model.RiskBlock;
+import com.acme.mas.util.Fingerprint;
 import com.acme.mas.util.FsUtil;
+import com.acme.mas.util.SmpIndex;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -13,6 +14,7 @@ import java.util.regex.Pattern;
 
 public final class SmpVersionAlignmentCheck implements Check {
     @Override public String id() { return "smp-version-alignment"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
 
     private static final String[] SMP_VERSION_FILES = {
             "maximo/version.properties",
@@ -21,21 +23,29 @@ public final class SmpVersionAlignmentCheck implements Check {
     };
 
     @Override
-    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+    public String fingerprint(AssessmentContext ctx) {
         Path smp = ctx.smpPath();
-        if (smp == null || !FsUtil.dirExists(smp)) {
+        if (smp == null) return null;
+        Fingerprint f = new Fingerprint().add(ctx.dbVersionBest);
+        for (String rel : SMP_VERSION_FILES) f.file(smp.resolve(rel));
+        return f.hex();
+    }
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        SmpIndex index = ctx.smpIndex();
+        if (index == null) {
+            Map<String,Object> ev = new LinkedHashMap<>();
+            ev.put("smp_dir", ctx.smpDir);
             out.addBlock(new RiskBlock("SMP vs DB version alignment", Rag.AMBER,
-                    "SMP directory not provided or not accessible; cannot validate SMP/DB version alignment.",
-                    Map.of("smp_dir", ctx.smpDir)));
+                    "SMP directory not provided or not accessible; cannot validate SMP/DB version alignment.", ev));
             return;
         }
 
         List<Map<String, Object>> found = new ArrayList<>();
         for (String rel : SMP_VERSION_FILES) {
-            Path p = smp.resolve(rel);
-            if (Files.exists(p) && Files.isRegularFile(p)) {
-                String text = FsUtil.safeRead(p, 200_000);
-                String v = extractVersion(text);
+            if (index.isRegularFile(rel)) {
+                String v = extractVersion(FsUtil.lines(index.smp().resolve(rel), 200_000));
                 found.add(Map.of("file", rel, "exists", true, "detected_version", v));
             } else {
                 found.add(Map.of("file", rel, "exists", false));
@@ -81,11 +91,29 @@ public final class SmpVersionAlignmentCheck implements Check {
         }
     }
 
+    /** First version number found in the SMP version files, or null. */
+    static String smpVersion(SmpIndex index) {
+        for (String rel : SMP_VERSION_FILES) {
+            if (!index.isRegularFile(rel)) continue;
+            String v = extractVersion(FsUtil.lines(index.smp().resolve(rel), 200_000));
+            if (v != null && !v.isBlank()) return v;
+        }
+        return null;
+    }
+
+    private static final Pattern VERSION = Pattern.compile("(\\d+\\.\\d+\\.\\d+\\.\\d+)");
+
     static String extractVersion(String text) {
         if (text == null) return null;
-        Pattern p = Pattern.compile("(\\d+\\.\\d+\\.\\d+\\.\\d+)");
-        Matcher m = p.matcher(text);
-        if (m.find()) return m.group(1);
+        return extractVersion(text.lines().iterator());
+    }
+
+    /** First version number in the lines; stops reading at the first match. */
+    static String extractVersion(Iterator<String> lines) {
+        Matcher m = VERSION.matcher("");
+        while (lines.hasNext()) {
+            if (m.reset(lines.next()).find()) return m.group(1);
+        }
         return null;
     }
 
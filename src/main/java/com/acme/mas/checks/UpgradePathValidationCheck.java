@@ -5,9 +5,11 @@ import com.acme.mas.model.Enums.Rag;
 import com.acme.mas.model.RiskBlock;
 
 import java.util.Map;
+import java.util.Set;
 
 public final class UpgradePathValidationCheck implements Check {
     @Override public String id() { return "upgrade-path"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
 
     @Override
     public void run(AssessmentContext ctx, AssessmentResultBuilder out) {
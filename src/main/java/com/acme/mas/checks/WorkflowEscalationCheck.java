@@ -0,0 +1,280 @@
+package com.acme.mas.checks;
+
+import com.acme.mas.AssessmentContext;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.RiskBlock;
+import com.acme.mas.util.DbUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Workflow, escalation and cron task inventory over JDBC (the DB side of
+ * tools/maximo-jython/export_cron_escalation_inventory.py). Each table is read once, grouped in
+ * the database where it can be, so WFPROCESS costs one row per process and WFNODE one row per
+ * active process however many revisions have piled up; only per-process and per-definition
+ * tallies are kept in memory.
+ */
+public final class WorkflowEscalationCheck implements Check {
+    @Override public String id() { return "workflow"; }
+    @Override public Set<String> dependsOn() { return Set.of("db-baseline"); }
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int MAX_LISTED = 20;
+    private static final int[] NODE_BUCKETS = {10, 25, 50, 100};
+    private static final long[] FREQUENCY_BUCKETS = {60, 15 * 60, 3600, 86_400};
+    private static final List<String> FREQUENCY_LABELS = List.of("<=1m", "<=15m", "<=1h", "<=1d", ">1d");
+
+    @Override
+    public String fingerprint(AssessmentContext ctx) throws Exception {
+        return Fingerprints.db(ctx, List.of("WFPROCESS", "WFNODE", "ESCALATION", "ESCREFPOINT", "CRONTASKINSTANCE"));
+    }
+
+    @Override
+    public void run(AssessmentContext ctx, AssessmentResultBuilder out) throws Exception {
+        if (!ctx.hasDb()) {
+            out.addBlock(new RiskBlock("Workflow and escalation complexity", Rag.AMBER,
+                    "DB connection not available; workflow and escalation inventory not collected.", Map.of()));
+            return;
+        }
+
+        Map<String, Object> errors = new LinkedHashMap<>();
+        Map<String, Object> workflow, escalations, cron;
+        try (Connection conn = ctx.borrowConnection()) {
+            workflow = workflow(conn, ctx.schema, errors);
+            escalations = escalations(conn, ctx.schema, errors);
+            cron = cron(conn, ctx.schema, errors);
+        }
+
+        Map<String, Object> ev = new LinkedHashMap<>();
+        ev.put("workflow", workflow);
+        ev.put("escalations", escalations);
+        ev.put("cron", cron);
+        if (!errors.isEmpty()) ev.put("errors", errors);
+        out.putCheck("workflow_escalation_inventory", ev);
+
+        long activeProcesses = asLong(workflow.get("active_processes"));
+        long maxNodes = asLong(workflow.get("max_nodes_active_revision"));
+        long activeEsc = asLong(escalations.get("active"));
+        long everyMinute = asLong(asMap(escalations.get("active_by_frequency")).get("<=1m"));
+        long activeCron = asLong(cron.get("active_instances"));
+
+        Rag rag;
+        if (activeProcesses >= 50 || maxNodes >= NODE_BUCKETS[NODE_BUCKETS.length - 1] || activeEsc >= 100) rag = Rag.RED;
+        else if (activeProcesses >= 10 || activeEsc >= 25 || everyMinute > 0 || activeCron >= 50) rag = Rag.AMBER;
+        else rag = Rag.GREEN;
+        if (errors.size() == 5 && rag == Rag.GREEN) rag = Rag.AMBER; // nothing was readable
+
+        Map<String, Object> blockEv = new LinkedHashMap<>();
+        blockEv.put("active_processes", activeProcesses);
+        blockEv.put("max_nodes_active_revision", maxNodes);
+        blockEv.put("active_escalations", activeEsc);
+        blockEv.put("active_escalations_every_minute", everyMinute);
+        blockEv.put("active_cron_instances", activeCron);
+        String summary = activeProcesses + " active workflow processes (largest " + maxNodes + " nodes), " +
+                activeEsc + " active escalations (" + everyMinute + " running every minute or faster), " +
+                activeCron + " active cron task instances.";
+        out.addBlock(new RiskBlock("Workflow and escalation complexity", rag, summary, blockEv));
+    }
+
+    /** One grouped pass over WFPROCESS (revisions, active revision) and one over the active revisions' WFNODE rows. */
+    private static Map<String, Object> workflow(Connection conn, String schema, Map<String, Object> errors) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        long[] processes = new long[4]; // processes, revisions, active, enabled
+        long[] maxRevisions = {0};
+        try {
+            DbUtil.forEachRow(conn, "SELECT PROCESSNAME, COUNT(*), MAX(CASE WHEN ACTIVE = 1 THEN 1 ELSE 0 END)," +
+                    " MAX(CASE WHEN ENABLED = 1 THEN 1 ELSE 0 END) FROM " + DbUtil.qualify(schema, "WFPROCESS") +
+                    " GROUP BY PROCESSNAME", FETCH_SIZE, rs -> {
+                int revs = rs.getInt(2);
+                processes[0]++;
+                processes[1] += revs;
+                processes[2] += rs.getInt(3);
+                processes[3] += rs.getInt(4);
+                maxRevisions[0] = Math.max(maxRevisions[0], revs);
+            });
+            m.put("processes", processes[0]);
+            m.put("revisions", processes[1]);
+            m.put("active_processes", processes[2]);
+            m.put("enabled_processes", processes[3]);
+            m.put("max_revisions_per_process", maxRevisions[0]);
+        } catch (SQLException e) {
+            errors.put("WFPROCESS", e.getMessage());
+            m.put("active_processes", -1L);
+        }
+
+        long[] nodeBuckets = new long[NODE_BUCKETS.length + 1];
+        long[] nodeTotals = new long[4]; // nodes, conditions, subprocesses, interactions
+        long[] maxNodes = {0};
+        PriorityQueue<Map.Entry<String, Integer>> largest = new PriorityQueue<>(Map.Entry.comparingByValue());
+        try {
+            String n = DbUtil.qualify(schema, "WFNODE"), p = DbUtil.qualify(schema, "WFPROCESS");
+            DbUtil.forEachRow(conn, "SELECT n.PROCESSNAME, COUNT(*)," +
+                    " SUM(CASE WHEN n.NODETYPE = 'CONDITION' THEN 1 ELSE 0 END)," +
+                    " SUM(CASE WHEN n.NODETYPE = 'SUBPROCESS' THEN 1 ELSE 0 END)," +
+                    " SUM(CASE WHEN n.NODETYPE IN ('INTERACTION', 'INPUT', 'MANUAL') THEN 1 ELSE 0 END)" +
+                    " FROM " + n + " n JOIN " + p + " p ON p.PROCESSNAME = n.PROCESSNAME AND p.PROCESSREV = n.PROCESSREV" +
+                    " WHERE p.ACTIVE = 1 GROUP BY n.PROCESSNAME", FETCH_SIZE, rs -> {
+                int nodes = rs.getInt(2);
+                nodeBuckets[bucket(nodes, NODE_BUCKETS)]++;
+                nodeTotals[0] += nodes;
+                nodeTotals[1] += rs.getInt(3);
+                nodeTotals[2] += rs.getInt(4);
+                nodeTotals[3] += rs.getInt(5);
+                maxNodes[0] = Math.max(maxNodes[0], nodes);
+                largest.add(Map.entry(String.valueOf(rs.getString(1)), nodes));
+                if (largest.size() > MAX_LISTED) largest.poll();
+            });
+            Map<String, Long> dist = new LinkedHashMap<>();
+            for (int i = 0; i < NODE_BUCKETS.length; i++) dist.put("<=" + NODE_BUCKETS[i], nodeBuckets[i]);
+            dist.put(">" + NODE_BUCKETS[NODE_BUCKETS.length - 1], nodeBuckets[NODE_BUCKETS.length]);
+            m.put("nodes_active_revisions", nodeTotals[0]);
+            m.put("condition_nodes", nodeTotals[1]);
+            m.put("subprocess_nodes", nodeTotals[2]);
+            m.put("interaction_nodes", nodeTotals[3]);
+            m.put("max_nodes_active_revision", maxNodes[0]);
+            m.put("active_processes_by_node_count", dist);
+            m.put("largest_active_processes", descending(largest, "process", "nodes"));
+        } catch (SQLException e) {
+            errors.put("WFNODE", e.getMessage());
+            m.put("max_nodes_active_revision", -1L);
+        }
+        return m;
+    }
+
+    /** ESCALATION streamed once for the frequency distribution; ESCREFPOINT grouped per escalation. */
+    private static Map<String, Object> escalations(Connection conn, String schema, Map<String, Object> errors) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        long[] totals = new long[2]; // total, active
+        long[] byFrequency = new long[FREQUENCY_LABELS.size() + 1]; // last slot: unparsed schedule
+        Map<String, Long> byObject = new HashMap<>();
+        try {
+            DbUtil.forEachRow(conn, "SELECT OBJECTNAME, ACTIVE, SCHEDULE FROM " + DbUtil.qualify(schema, "ESCALATION"), FETCH_SIZE, rs -> {
+                totals[0]++;
+                if (rs.getInt(2) != 1) return;
+                totals[1]++;
+                byObject.merge(String.valueOf(rs.getString(1)), 1L, Long::sum);
+                long s = intervalSeconds(rs.getString(3));
+                byFrequency[s < 0 ? FREQUENCY_LABELS.size() : bucket(s, FREQUENCY_BUCKETS)]++;
+            });
+            m.put("total", totals[0]);
+            m.put("active", totals[1]);
+            m.put("active_by_frequency", frequencies(byFrequency));
+            m.put("active_by_object", top(byObject));
+        } catch (SQLException e) {
+            errors.put("ESCALATION", e.getMessage());
+            m.put("active", -1L);
+        }
+
+        long[] points = new long[2]; // reference points, max per escalation
+        try {
+            DbUtil.forEachRow(conn, "SELECT ESCALATION, COUNT(*) FROM " + DbUtil.qualify(schema, "ESCREFPOINT") +
+                    " GROUP BY ESCALATION", FETCH_SIZE, rs -> {
+                int n = rs.getInt(2);
+                points[0] += n;
+                points[1] = Math.max(points[1], n);
+            });
+            m.put("escalation_points", points[0]);
+            m.put("max_points_per_escalation", points[1]);
+        } catch (SQLException e) {
+            errors.put("ESCREFPOINT", e.getMessage());
+        }
+        return m;
+    }
+
+    /** CRONTASKINSTANCE streamed once: instances per definition and the active schedule distribution. */
+    private static Map<String, Object> cron(Connection conn, String schema, Map<String, Object> errors) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        long[] totals = new long[2]; // instances, active
+        long[] byFrequency = new long[FREQUENCY_LABELS.size() + 1];
+        Map<String, Long> perDefinition = new HashMap<>();
+        try {
+            DbUtil.forEachRow(conn, "SELECT CRONTASKNAME, ACTIVE, SCHEDULE FROM " + DbUtil.qualify(schema, "CRONTASKINSTANCE"), FETCH_SIZE, rs -> {
+                totals[0]++;
+                perDefinition.merge(String.valueOf(rs.getString(1)), 1L, Long::sum);
+                if (rs.getInt(2) != 1) return;
+                totals[1]++;
+                long s = intervalSeconds(rs.getString(3));
+                byFrequency[s < 0 ? FREQUENCY_LABELS.size() : bucket(s, FREQUENCY_BUCKETS)]++;
+            });
+            m.put("definitions_with_instances", perDefinition.size());
+            m.put("instances", totals[0]);
+            m.put("active_instances", totals[1]);
+            m.put("max_instances_per_definition", perDefinition.values().stream().mapToLong(Long::longValue).max().orElse(0));
+            m.put("active_by_frequency", frequencies(byFrequency));
+            m.put("instances_by_definition", top(perDefinition));
+        } catch (SQLException e) {
+            errors.put("CRONTASKINSTANCE", e.getMessage());
+            m.put("active_instances", -1L);
+        }
+        return m;
+    }
+
+    /**
+     * Seconds between runs from the first field of a Maximo schedule string ("30m,*,*,..."; units
+     * s, m, h, d, w, M, y), or -1 when it cannot be parsed.
+     */
+    static long intervalSeconds(String schedule) {
+        if (schedule == null) return -1;
+        int comma = schedule.indexOf(',');
+        String first = (comma < 0 ? schedule : schedule.substring(0, comma)).trim();
+        if (first.length() < 2) return -1;
+        long n;
+        try { n = Long.parseLong(first.substring(0, first.length() - 1)); } catch (NumberFormatException e) { return -1; }
+        long unit = switch (first.charAt(first.length() - 1)) {
+            case 's' -> 1;
+            case 'm' -> 60;
+            case 'h' -> 3600;
+            case 'd' -> 86_400;
+            case 'w' -> 7 * 86_400;
+            case 'M' -> 30 * 86_400;
+            case 'y' -> 365 * 86_400;
+            default -> -1;
+        };
+        return unit < 0 || n <= 0 ? -1 : n * unit;
+    }
+
+    private static int bucket(long v, long[] upperBounds) {
+        for (int i = 0; i < upperBounds.length; i++) if (v <= upperBounds[i]) return i;
+        return upperBounds.length;
+    }
+
+    private static int bucket(int v, int[] upperBounds) {
+        for (int i = 0; i < upperBounds.length; i++) if (v <= upperBounds[i]) return i;
+        return upperBounds.length;
+    }
+
+    private static Map<String, Long> frequencies(long[] counts) {
+        Map<String, Long> m = new LinkedHashMap<>();
+        for (int i = 0; i < FREQUENCY_LABELS.size(); i++) m.put(FREQUENCY_LABELS.get(i), counts[i]);
+        m.put("unparsed", counts[FREQUENCY_LABELS.size()]);
+        return m;
+    }
+
+    /** The {@link #MAX_LISTED} largest counts, largest first (ties by name). */
+    private static Map<String, Long> top(Map<String, Long> counts) {
+        Map<String, Long> m = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(MAX_LISTED)
+                .forEach(e -> m.put(e.getKey(), e.getValue()));
+        return m;
+    }
+
+    private static List<Map<String, Object>> descending(PriorityQueue<Map.Entry<String, Integer>> heap, String nameKey, String valueKey) {
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(heap);
+        sorted.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        List<Map<String, Object>> out = new ArrayList<>(sorted.size());
+        for (var e : sorted) out.add(Map.of(nameKey, e.getKey(), valueKey, e.getValue()));
+        return out;
+    }
+
+    private static Map<?, ?> asMap(Object o) { return o instanceof Map<?, ?> m ? m : Map.of(); }
+
+    static long asLong(Object o) {
+        if (o == null) return -1;
+        if (o instanceof Number n) return n.longValue();
+        try { return Long.parseLong(o.toString()); } catch (Exception ignored) { return -1; }
+    }
+}
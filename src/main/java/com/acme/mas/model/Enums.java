@@ -5,4 +5,6 @@ public final class Enums {
     public enum Rag { GREEN, AMBER, RED }
     public enum Severity { OK, WARN, ERROR }
     public enum DbType { AUTO, ORACLE, DB2, SQLSERVER, UNKNOWN }
+    public enum CountMode { AUTO, STATS, EXACT }
+    public enum ReportFormat { JSON, NDJSON }
 }
@@ -0,0 +1,31 @@
+package com.acme.mas.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A table row count and how it was obtained. {@code rows} is -1 when unknown; when
+ * {@code exact} is false it is an optimizer-statistics estimate (or a lower bound for a
+ * capped count) and {@code statsTime} records when the statistics were gathered, if known.
+ */
+public record RowCount(long rows, boolean exact, String source, Instant statsTime) {
+    public static RowCount unknown(String source) { return new RowCount(-1, false, source, null); }
+
+    public Long statsAgeDays() {
+        return statsTime == null ? null : Duration.between(statsTime, Instant.now()).toDays();
+    }
+
+    public Map<String, Object> toEvidence() {
+        Map<String, Object> o = new LinkedHashMap<>();
+        o.put("rows", rows);
+        o.put("exact", exact);
+        o.put("source", source);
+        if (statsTime != null) {
+            o.put("stats_time", statsTime.toString());
+            o.put("stats_age_days", statsAgeDays());
+        }
+        return o;
+    }
+}
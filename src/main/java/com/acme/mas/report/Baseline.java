@@ -0,0 +1,228 @@
+package com.acme.mas.report;
+
+import com.acme.mas.checks.AssessmentResultBuilder;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.Enums.Severity;
+import com.acme.mas.model.Finding;
+import com.acme.mas.model.RiskBlock;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A previous report (JSON or NDJSON) read back for {@code --baseline}. Checks whose fingerprint
+ * still matches get their recorded output back from {@link #reuse} instead of running again;
+ * {@link Delta} then diffs the new run's risk blocks and findings against the baseline's.
+ *
+ * Outputs are only reused from a report written by the same tool version, since a newer check
+ * may report differently for the same inputs.
+ */
+public final class Baseline {
+    private final Path file;
+    private final ObjectMapper mapper;
+    private final Map<String, String> fingerprints = new HashMap<>();
+    private final Map<String, AssessmentResultBuilder> outputs = new LinkedHashMap<>(); // by check id, in report order
+    private final Set<String> reused = ConcurrentHashMap.newKeySet();
+    private String timestamp;
+    private String toolVersion;
+    private String overall;
+    private boolean reusable;
+
+    private Baseline(Path file, ObjectMapper mapper) {
+        this.file = file;
+        this.mapper = mapper;
+    }
+
+    /** Reads {@code file}; outputs are reusable only if it was written by {@code toolVersion}. */
+    public static Baseline load(Path file, ObjectMapper mapper, String toolVersion) throws IOException {
+        Baseline b = new Baseline(file, mapper);
+        try (MappingIterator<JsonNode> it = mapper.readerFor(JsonNode.class).readValues(file.toFile())) {
+            if (!it.hasNext()) throw new IOException("Baseline report is empty: " + file);
+            JsonNode first = it.next();
+            if ("header".equals(first.path("type").asText())) {
+                b.header(first);
+                while (it.hasNext()) b.ndjsonLine(it.next());
+            } else {
+                b.json(first);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Cannot read baseline report " + file + ": " + e.getMessage(), e);
+        }
+        b.reusable = Objects.equals(toolVersion, b.toolVersion);
+        return b;
+    }
+
+    public Path file() { return file; }
+
+    /** The baseline's output of {@code checkId} if it was recorded with the same fingerprint, else null (the check has to run). */
+    public AssessmentResultBuilder reuse(String checkId, String fingerprint) {
+        if (!reusable || fingerprint == null || !fingerprint.equals(fingerprints.get(checkId))) return null;
+        AssessmentResultBuilder out = outputs.get(checkId);
+        if (out != null) reused.add(checkId);
+        return out;
+    }
+
+    public Delta delta() { return new Delta(); }
+
+    private void header(JsonNode h) {
+        timestamp = h.path("timestamp_utc").asText(null);
+        toolVersion = h.path("tool").path("version").asText(null);
+    }
+
+    /** Classic layout: map entries are attributed to checks through the {@code fingerprints} section. */
+    private void json(JsonNode doc) throws JsonProcessingException {
+        header(doc);
+        overall = doc.path("rag").path("overall").asText(null);
+        for (var e : doc.path("fingerprints").properties()) {
+            String id = e.getKey();
+            JsonNode fp = e.getValue();
+            fingerprints.put(id, fp.path("fingerprint").asText(null));
+            AssessmentResultBuilder out = output(id);
+            for (JsonNode k : fp.path("checks")) out.putCheck(k.asText(), value(doc.path("checks").get(k.asText())));
+            for (JsonNode k : fp.path("evidence")) out.putEvidence(k.asText(), value(doc.path("evidence").get(k.asText())));
+            for (JsonNode k : fp.path("derived")) out.putDerived(k.asText(), value(doc.path("derived").get(k.asText())));
+        }
+        for (JsonNode b : doc.path("risk_blocks")) block(b);
+        for (JsonNode f : doc.path("findings")) finding(f);
+    }
+
+    private void ndjsonLine(JsonNode line) throws JsonProcessingException {
+        String check = line.path("check").asText(null);
+        switch (line.path("type").asText()) {
+            case "check" -> { if (check != null) output(check).putCheck(line.path("key").asText(), value(line.get("value"))); }
+            case "evidence" -> { if (check != null) output(check).putEvidence(line.path("key").asText(), value(line.get("value"))); }
+            case "derived" -> { if (check != null) output(check).putDerived(line.path("key").asText(), value(line.get("value"))); }
+            case "fingerprint" -> fingerprints.put(check, line.path("fingerprint").asText(null));
+            case "risk_block" -> block(line);
+            case "finding" -> finding(line);
+            case "rag" -> overall = line.path("overall").asText(null);
+            default -> { }
+        }
+    }
+
+    private void block(JsonNode b) throws JsonProcessingException {
+        output(b.path("check").asText()).addBlock(new RiskBlock(b.path("name").asText(),
+                parse(Rag.class, b.path("rag").asText(), Rag.AMBER), b.path("summary").asText(null), value(b.get("evidence"))));
+    }
+
+    private void finding(JsonNode f) throws JsonProcessingException {
+        output(f.path("check").asText()).addFinding(new Finding(parse(Severity.class, f.path("severity").asText(), Severity.WARN),
+                f.path("category").asText(null), f.path("message").asText(null), value(f.get("details"))));
+    }
+
+    private AssessmentResultBuilder output(String checkId) {
+        return outputs.computeIfAbsent(checkId, k -> new AssessmentResultBuilder());
+    }
+
+    private Object value(JsonNode n) throws JsonProcessingException {
+        return n == null || n.isNull() ? null : mapper.treeToValue(n, Object.class);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String name, E fallback) {
+        try { return Enum.valueOf(type, name); } catch (IllegalArgumentException e) { return fallback; }
+    }
+
+    /**
+     * RAG changes per risk block and added/removed findings between the baseline and this run.
+     * Feed it every section as it is written; blocks and findings are matched per check by block
+     * name and by severity, category and message.
+     */
+    public final class Delta {
+        private final List<Map<String, Object>> ragChanges = new ArrayList<>();
+        private final List<Map<String, Object>> blocksAdded = new ArrayList<>();
+        private final List<Map<String, Object>> blocksRemoved = new ArrayList<>();
+        private final List<Map<String, Object>> findingsAdded = new ArrayList<>();
+        private final List<Map<String, Object>> findingsRemoved = new ArrayList<>();
+        private final Set<String> seen = new HashSet<>();
+
+        private Delta() {}
+
+        public void section(String checkId, AssessmentResultBuilder current) {
+            seen.add(checkId);
+            AssessmentResultBuilder before = outputs.get(checkId);
+            List<RiskBlock> oldBlocks = before == null ? List.of() : before.blocks();
+            List<Finding> oldFindings = before == null ? List.of() : before.findings();
+
+            Map<String, RiskBlock> previous = new LinkedHashMap<>();
+            for (RiskBlock b : oldBlocks) previous.put(b.name(), b);
+            for (RiskBlock b : current.blocks()) {
+                RiskBlock p = previous.remove(b.name());
+                if (p == null) {
+                    blocksAdded.add(block(checkId, b));
+                } else if (p.rag() != b.rag()) {
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("check", checkId);
+                    m.put("name", b.name());
+                    m.put("from", String.valueOf(p.rag()));
+                    m.put("to", String.valueOf(b.rag()));
+                    m.put("summary", b.summary());
+                    ragChanges.add(m);
+                }
+            }
+            for (RiskBlock p : previous.values()) blocksRemoved.add(block(checkId, p));
+
+            Set<String> oldKeys = new HashSet<>();
+            for (Finding f : oldFindings) oldKeys.add(key(f));
+            Set<String> newKeys = new HashSet<>();
+            for (Finding f : current.findings()) {
+                if (newKeys.add(key(f)) && !oldKeys.contains(key(f))) findingsAdded.add(finding(checkId, f));
+            }
+            for (Finding f : oldFindings) {
+                if (!newKeys.contains(key(f))) findingsRemoved.add(finding(checkId, f));
+            }
+        }
+
+        /** The diff; checks that were in the baseline but not in this run count as removed. */
+        public Map<String, Object> toMap(Rag overallNow) {
+            for (var e : outputs.entrySet()) {
+                if (seen.contains(e.getKey())) continue;
+                for (RiskBlock b : e.getValue().blocks()) blocksRemoved.add(block(e.getKey(), b));
+                for (Finding f : e.getValue().findings()) findingsRemoved.add(finding(e.getKey(), f));
+            }
+            seen.addAll(outputs.keySet());
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("baseline", file.toString());
+            m.put("baseline_timestamp_utc", timestamp);
+            m.put("baseline_tool_version", toolVersion);
+            if (!reusable) m.put("note", "Baseline was written by another tool version; no outputs were reused.");
+            Map<String, Object> rag = new LinkedHashMap<>();
+            rag.put("from", String.valueOf(overall));
+            rag.put("to", String.valueOf(overallNow));
+            m.put("overall_rag", rag);
+            m.put("reused_checks", new TreeSet<>(reused));
+            m.put("rag_changes", ragChanges);
+            m.put("blocks_added", blocksAdded);
+            m.put("blocks_removed", blocksRemoved);
+            m.put("findings_added", findingsAdded);
+            m.put("findings_removed", findingsRemoved);
+            return m;
+        }
+
+        private static String key(Finding f) { return f.severity() + "\u0000" + f.category() + "\u0000" + f.message(); }
+
+        private static Map<String, Object> block(String checkId, RiskBlock b) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("check", checkId);
+            m.put("name", b.name());
+            m.put("rag", String.valueOf(b.rag()));
+            m.put("summary", b.summary());
+            return m;
+        }
+
+        private static Map<String, Object> finding(String checkId, Finding f) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("check", checkId);
+            m.put("severity", String.valueOf(f.severity()));
+            m.put("category", f.category());
+            m.put("message", f.message());
+            return m;
+        }
+    }
+}
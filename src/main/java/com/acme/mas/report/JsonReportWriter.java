@@ -0,0 +1,152 @@
+package com.acme.mas.report;
+
+import com.acme.mas.checks.AssessmentResultBuilder;
+import com.acme.mas.model.Finding;
+import com.acme.mas.model.RiskBlock;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Single pretty-printed JSON document with the classic section layout (evidence, checks,
+ * derived, telemetry, fingerprints, rag, risk_blocks, findings). Each fingerprint entry also lists
+ * the checks/evidence/derived keys its check wrote, so {@link Baseline} can attribute them. Because those sections interleave across
+ * checks, each check's output is streamed into a per-section spool file next to the report; {@link #finish}
+ * then streams the spools into the final document. Heap use is bounded by one check's output.
+ */
+final class JsonReportWriter extends ReportWriter {
+    private enum Section { EVIDENCE, CHECKS, DERIVED, TELEMETRY, FINGERPRINTS, RISK_BLOCKS, FINDINGS }
+
+    private final Path out;
+    private final ObjectMapper mapper;
+    private final Map<Section, Path> spoolFiles = new EnumMap<>(Section.class);
+    private final Map<Section, JsonGenerator> spools = new EnumMap<>(Section.class);
+    private Map<String, Object> header = Map.of();
+
+    JsonReportWriter(Path out, ObjectMapper mapper) throws IOException {
+        this.out = out;
+        this.mapper = mapper;
+        Path dir = out.toAbsolutePath().getParent();
+        try {
+            for (Section s : Section.values()) {
+                Path f = Files.createTempFile(dir, ".mas9-" + s.name().toLowerCase(Locale.ROOT) + "-", ".spool");
+                spoolFiles.put(s, f);
+                JsonGenerator g = mapper.getFactory().createGenerator(Files.newOutputStream(f));
+                g.setRootValueSeparator(null);
+                spools.put(s, g);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void header(Map<String, Object> header) { this.header = new LinkedHashMap<>(header); }
+
+    @Override
+    protected void write(String checkId, AssessmentResultBuilder o) throws IOException {
+        spoolEntries(Section.EVIDENCE, o.evidence());
+        spoolEntries(Section.CHECKS, o.checks());
+        spoolEntries(Section.DERIVED, o.derived());
+        spoolEntries(Section.TELEMETRY, o.telemetry());
+        Map<String, Object> fingerprints = new LinkedHashMap<>();
+        for (var e : o.fingerprints().entrySet()) {
+            Map<String, Object> fp = new LinkedHashMap<>();
+            fp.put("fingerprint", e.getValue());
+            fp.put("checks", o.checks().keySet());
+            fp.put("evidence", o.evidence().keySet());
+            fp.put("derived", o.derived().keySet());
+            fingerprints.put(e.getKey(), fp);
+        }
+        spoolEntries(Section.FINGERPRINTS, fingerprints);
+        JsonGenerator g = spools.get(Section.RISK_BLOCKS);
+        for (RiskBlock b : o.blocks()) {
+            g.writeStartObject();
+            writeBlock(g, checkId, b);
+            g.writeEndObject();
+        }
+        g = spools.get(Section.FINDINGS);
+        for (Finding f : o.findings()) {
+            g.writeStartObject();
+            writeFinding(g, checkId, f);
+            g.writeEndObject();
+        }
+    }
+
+    /** Each map entry is spooled as a one-field object so it can be copied back into the section object. */
+    private void spoolEntries(Section s, Map<String, Object> entries) throws IOException {
+        JsonGenerator g = spools.get(s);
+        for (var e : entries.entrySet()) {
+            g.writeStartObject();
+            g.writeFieldName(e.getKey());
+            g.writeObject(e.getValue());
+            g.writeEndObject();
+        }
+    }
+
+    @Override
+    public void finish(Map<String, Object> derived) throws IOException {
+        spoolEntries(Section.DERIVED, derived);
+        for (JsonGenerator sg : spools.values()) sg.close();
+
+        try (JsonGenerator g = mapper.getFactory().createGenerator(Files.newOutputStream(out))) {
+            g.useDefaultPrettyPrinter();
+            g.writeStartObject();
+            for (var e : header.entrySet()) {
+                g.writeFieldName(e.getKey());
+                g.writeObject(e.getValue());
+            }
+            copyObjectSection(g, "evidence", Section.EVIDENCE);
+            copyObjectSection(g, "checks", Section.CHECKS);
+            copyObjectSection(g, "derived", Section.DERIVED);
+            copyObjectSection(g, "telemetry", Section.TELEMETRY);
+            copyObjectSection(g, "fingerprints", Section.FINGERPRINTS);
+            g.writeObjectFieldStart("rag");
+            g.writeStringField("overall", String.valueOf(overallRag()));
+            g.writeEndObject();
+            copyArraySection(g, "risk_blocks", Section.RISK_BLOCKS);
+            copyArraySection(g, "findings", Section.FINDINGS);
+            g.writeEndObject();
+        }
+    }
+
+    private void copyObjectSection(JsonGenerator g, String name, Section s) throws IOException {
+        g.writeObjectFieldStart(name);
+        try (JsonParser p = mapper.getFactory().createParser(spoolFiles.get(s).toFile())) {
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    g.writeFieldName(p.currentName());
+                    p.nextToken();
+                    g.copyCurrentStructure(p);
+                }
+            }
+        }
+        g.writeEndObject();
+    }
+
+    private void copyArraySection(JsonGenerator g, String name, Section s) throws IOException {
+        g.writeArrayFieldStart(name);
+        try (JsonParser p = mapper.getFactory().createParser(spoolFiles.get(s).toFile())) {
+            while (p.nextToken() == JsonToken.START_OBJECT) g.copyCurrentStructure(p);
+        }
+        g.writeEndArray();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (JsonGenerator g : spools.values()) {
+            try { g.close(); } catch (IOException ignored) { }
+        }
+        for (Path f : spoolFiles.values()) Files.deleteIfExists(f);
+    }
+}
@@ -0,0 +1,96 @@
+package com.acme.mas.report;
+
+import com.acme.mas.checks.AssessmentResultBuilder;
+import com.acme.mas.model.Finding;
+import com.acme.mas.model.RiskBlock;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * One JSON object per line, each tagged with a {@code type}: header, evidence, check, derived,
+ * telemetry, fingerprint, risk_block, finding and finally rag. Lines are flushed as each check
+ * completes so the file can be tailed and ingested incrementally.
+ */
+final class NdjsonReportWriter extends ReportWriter {
+    private final JsonGenerator g;
+
+    NdjsonReportWriter(Path out, ObjectMapper mapper) throws IOException {
+        // indentation from the shared mapper would break the one-object-per-line framing
+        ObjectMapper compact = mapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+        this.g = compact.getFactory().createGenerator(Files.newOutputStream(out));
+        g.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void header(Map<String, Object> header) throws IOException {
+        g.writeStartObject();
+        g.writeStringField("type", "header");
+        for (var e : header.entrySet()) {
+            g.writeFieldName(e.getKey());
+            g.writeObject(e.getValue());
+        }
+        endLine();
+    }
+
+    @Override
+    protected void write(String checkId, AssessmentResultBuilder out) throws IOException {
+        for (var e : out.evidence().entrySet()) keyValue("evidence", checkId, e.getKey(), e.getValue());
+        for (var e : out.checks().entrySet()) keyValue("check", checkId, e.getKey(), e.getValue());
+        for (var e : out.derived().entrySet()) keyValue("derived", checkId, e.getKey(), e.getValue());
+        for (var e : out.telemetry().entrySet()) keyValue("telemetry", checkId, e.getKey(), e.getValue());
+        for (var e : out.fingerprints().entrySet()) {
+            g.writeStartObject();
+            g.writeStringField("type", "fingerprint");
+            g.writeStringField("check", e.getKey());
+            g.writeStringField("fingerprint", e.getValue());
+            endLine();
+        }
+        for (RiskBlock b : out.blocks()) {
+            g.writeStartObject();
+            g.writeStringField("type", "risk_block");
+            writeBlock(g, checkId, b);
+            endLine();
+        }
+        for (Finding f : out.findings()) {
+            g.writeStartObject();
+            g.writeStringField("type", "finding");
+            writeFinding(g, checkId, f);
+            endLine();
+        }
+        g.flush();
+    }
+
+    @Override
+    public void finish(Map<String, Object> derived) throws IOException {
+        for (var e : derived.entrySet()) keyValue("derived", null, e.getKey(), e.getValue());
+        g.writeStartObject();
+        g.writeStringField("type", "rag");
+        g.writeStringField("overall", String.valueOf(overallRag()));
+        endLine();
+        g.flush();
+    }
+
+    private void keyValue(String type, String checkId, String key, Object value) throws IOException {
+        g.writeStartObject();
+        g.writeStringField("type", type);
+        if (checkId != null) g.writeStringField("check", checkId);
+        g.writeStringField("key", key);
+        g.writeFieldName("value");
+        g.writeObject(value);
+        endLine();
+    }
+
+    private void endLine() throws IOException {
+        g.writeEndObject();
+        g.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException { g.close(); }
+}
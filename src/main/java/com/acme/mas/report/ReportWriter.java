@@ -0,0 +1,70 @@
+package com.acme.mas.report;
+
+import com.acme.mas.checks.AssessmentResultBuilder;
+import com.acme.mas.model.Enums.Rag;
+import com.acme.mas.model.Enums.ReportFormat;
+import com.acme.mas.model.Finding;
+import com.acme.mas.model.RiskBlock;
+import com.acme.mas.util.ScoreUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a report to disk one check output at a time, so nothing but the RAG of each risk block
+ * is retained once a check's output has been written. Call {@link #header}, then
+ * {@link #section} per check (in registration order), then {@link #finish}.
+ */
+public abstract class ReportWriter implements Closeable {
+    private final List<RiskBlock> blocks = new ArrayList<>();
+    private Rag findingsRag = Rag.GREEN;
+
+    public static ReportWriter open(Path out, ReportFormat format, ObjectMapper mapper) throws IOException {
+        return format == ReportFormat.NDJSON ? new NdjsonReportWriter(out, mapper) : new JsonReportWriter(out, mapper);
+    }
+
+    public abstract void header(Map<String, Object> header) throws IOException;
+
+    public final void section(String checkId, AssessmentResultBuilder out) throws IOException {
+        for (RiskBlock b : out.blocks()) blocks.add(new RiskBlock(b.name(), b.rag(), b.summary(), null));
+        findingsRag = ScoreUtil.worst(findingsRag, ScoreUtil.ragFromFindings(out.findings()));
+        write(checkId, out);
+    }
+
+    protected abstract void write(String checkId, AssessmentResultBuilder out) throws IOException;
+
+    /** Writes the run-level derived values and the overall RAG and completes the report. */
+    public abstract void finish(Map<String, Object> derived) throws IOException;
+
+    /** Risk blocks written so far, without evidence. */
+    public List<RiskBlock> blocks() { return Collections.unmodifiableList(blocks); }
+
+    public Rag overallRag() { return ScoreUtil.worst(ScoreUtil.worst(blocks), findingsRag); }
+
+    static void writeBlock(JsonGenerator g, String checkId, RiskBlock b) throws IOException {
+        g.writeStringField("check", checkId);
+        g.writeStringField("name", b.name());
+        g.writeStringField("rag", String.valueOf(b.rag()));
+        g.writeStringField("summary", b.summary());
+        g.writeFieldName("evidence");
+        g.writeObject(b.evidence());
+    }
+
+    static void writeFinding(JsonGenerator g, String checkId, Finding f) throws IOException {
+        g.writeStringField("check", checkId);
+        g.writeStringField("severity", String.valueOf(f.severity()));
+        g.writeStringField("category", f.category());
+        g.writeStringField("message", f.message());
+        if (f.details() != null) {
+            g.writeFieldName("details");
+            g.writeObject(f.details());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.acme.mas.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Streams a BIRT {@code .rptdesign} document with StAX and counts what drives migration effort:
+ * data sources and data sets (scripted or ODA/JDBC), SQL embedded in query text or script
+ * methods, direct JDBC use from scripts, and the event-handler scripts, tables, charts and
+ * parameters around them. Only the text of the element being read is buffered (capped), so a
+ * design of any size is parsed in constant memory.
+ */
+public final class BirtDesignScanner {
+    private BirtDesignScanner() {}
+
+    private static final int MAX_TEXT_CHARS = 64 * 1024;
+    private static final Pattern SQL = Pattern.compile("\\bselect\\b[\\s\\S]{1,2000}?\\bfrom\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SCRIPT_JDBC = Pattern.compile("DriverManager|getConnection\\s*\\(|createStatement\\s*\\(|prepareStatement\\s*\\(|jdbc:");
+    private static final XMLInputFactory XML = newFactory();
+
+    private static XMLInputFactory newFactory() {
+        XMLInputFactory f = XMLInputFactory.newFactory();
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        f.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        f.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return f;
+    }
+
+    /**
+     * Counts for one design. {@code sqlQueries} are ODA query texts and script methods that
+     * contain a SELECT ... FROM; {@code jdbc} counts JDBC ODA data sources plus scripts that open
+     * connections or statements themselves.
+     */
+    public record DesignStats(int dataSources, int scriptedDataSources, int dataSets, int scriptedDataSets,
+                              int sqlQueries, int jdbc, int scriptMethods, int tables, int charts, int parameters) {
+
+        /**
+         * Weighted complexity: 2 per data set, 2 per SQL query, 5 per JDBC use, 1 per script
+         * method, table and chart, and 1 per two parameters.
+         */
+        public int score() {
+            return 2 * dataSets + 2 * sqlQueries + 5 * jdbc + scriptMethods + tables + charts + parameters / 2;
+        }
+    }
+
+    public static DesignStats scan(InputStream in) throws XMLStreamException {
+        XMLStreamReader r = XML.createXMLStreamReader(in);
+        try { return scan(r); } finally { r.close(); }
+    }
+
+    public static DesignStats scan(Reader in) throws XMLStreamException {
+        XMLStreamReader r = XML.createXMLStreamReader(in);
+        try { return scan(r); } finally { r.close(); }
+    }
+
+    private static DesignStats scan(XMLStreamReader r) throws XMLStreamException {
+        int dataSources = 0, scriptedDataSources = 0, dataSets = 0, scriptedDataSets = 0;
+        int sql = 0, jdbc = 0, methods = 0, tables = 0, charts = 0, parameters = 0;
+        StringBuilder text = null; // non-null while inside an element whose text is inspected
+        boolean queryText = false;
+
+        while (r.hasNext()) {
+            switch (r.next()) {
+                case XMLStreamReader.START_ELEMENT -> {
+                    switch (r.getLocalName()) {
+                        case "oda-data-source" -> {
+                            dataSources++;
+                            if (lower(r.getAttributeValue(null, "extensionID")).contains("jdbc")) jdbc++;
+                        }
+                        case "script-data-source" -> { dataSources++; scriptedDataSources++; }
+                        case "oda-data-set", "joint-data-set", "derived-data-set" -> dataSets++;
+                        case "script-data-set" -> { dataSets++; scriptedDataSets++; }
+                        case "method" -> { methods++; text = new StringBuilder(); queryText = false; }
+                        case "xml-property", "property" -> {
+                            if ("queryText".equals(r.getAttributeValue(null, "name"))) { text = new StringBuilder(); queryText = true; }
+                        }
+                        case "table", "list", "grid", "cross-tab" -> tables++;
+                        case "extended-item" -> {
+                            String ext = lower(r.getAttributeValue(null, "extensionName"));
+                            if (ext.equals("chart")) charts++;
+                            else if (ext.equals("crosstab")) tables++;
+                        }
+                        case "scalar-parameter", "filter-parameter" -> parameters++;
+                        default -> { }
+                    }
+                }
+                case XMLStreamReader.CHARACTERS, XMLStreamReader.CDATA -> {
+                    if (text != null && text.length() < MAX_TEXT_CHARS) {
+                        int n = Math.min(r.getTextLength(), MAX_TEXT_CHARS - text.length());
+                        text.append(r.getTextCharacters(), r.getTextStart(), n);
+                    }
+                }
+                case XMLStreamReader.END_ELEMENT -> {
+                    if (text == null) break;
+                    String name = r.getLocalName();
+                    boolean done = queryText ? name.equals("xml-property") || name.equals("property") : name.equals("method");
+                    if (!done) break;
+                    if (queryText ? !text.toString().isBlank() : SQL.matcher(text).find()) sql++;
+                    if (!queryText && SCRIPT_JDBC.matcher(text).find()) jdbc++;
+                    text = null;
+                }
+                default -> { }
+            }
+        }
+        return new DesignStats(dataSources, scriptedDataSources, dataSets, scriptedDataSets, sql, jdbc, methods, tables, charts, parameters);
+    }
+
+    private static String lower(String s) { return s == null ? "" : s.toLowerCase(Locale.ROOT); }
+}
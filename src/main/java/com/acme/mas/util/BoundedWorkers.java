@@ -0,0 +1,57 @@
+package com.acme.mas.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fixed worker pool with a bounded backlog: {@link #submit} blocks while {@code threads *
+ * backlogPerThread} tasks are queued or running, so a producer streaming files or rows cannot
+ * get far ahead of the workers and memory stays proportional to the pool, not the input.
+ */
+public final class BoundedWorkers implements AutoCloseable {
+    private final ExecutorService pool;
+    private final Semaphore slots;
+    private final int capacity;
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    public BoundedWorkers(String name, int threads, int backlogPerThread) {
+        int n = Math.max(1, threads);
+        this.capacity = n * Math.max(1, backlogPerThread);
+        this.slots = new Semaphore(capacity);
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(n, r -> {
+            Thread t = new Thread(r, name + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void submit(Runnable task) throws InterruptedException {
+        slots.acquire();
+        try {
+            pool.execute(() -> {
+                try { task.run(); }
+                catch (RuntimeException e) { failure.compareAndSet(null, e); }
+                finally { slots.release(); }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    /** Waits for every submitted task; rethrows the first task failure, if any. */
+    public void awaitAll() throws InterruptedException {
+        slots.acquire(capacity);
+        slots.release(capacity);
+        RuntimeException e = failure.get();
+        if (e != null) throw e;
+    }
+
+    @Override
+    public void close() { pool.shutdownNow(); }
+}
@@ -0,0 +1,80 @@
+package com.acme.mas.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads the constant pool of a class file: the classes, members (fields and methods, as
+ * {@code owner.name}) and string literals a class refers to. That is all the migration signals
+ * need, so method bodies are never parsed and no bytecode library is required.
+ */
+public final class ClassFileScanner {
+    private ClassFileScanner() {}
+
+    /** Class names use internal form ({@code java/lang/Runtime}). */
+    public record ClassRefs(String name, int majorVersion, Set<String> classes, Set<String> members, List<String> strings) {}
+
+    /** Parses one class file; throws {@link IllegalArgumentException} if it is not one. */
+    public static ClassRefs scan(ByteBuffer b) {
+        try {
+            if (b.getInt() != 0xCAFEBABE) throw new IllegalArgumentException("not a class file");
+            b.getShort(); // minor
+            int major = b.getShort() & 0xFFFF;
+            int n = b.getShort() & 0xFFFF;
+
+            byte[] tags = new byte[n];
+            int[] a = new int[n], c = new int[n];
+            String[] utf8 = new String[n];
+            for (int i = 1; i < n; i++) {
+                byte tag = b.get();
+                tags[i] = tag;
+                switch (tag) {
+                    case 1 -> {
+                        int len = b.getShort() & 0xFFFF;
+                        utf8[i] = utf8(b, len);
+                    }
+                    case 7, 8, 16, 19, 20 -> a[i] = b.getShort() & 0xFFFF;
+                    case 9, 10, 11, 12, 17, 18 -> { a[i] = b.getShort() & 0xFFFF; c[i] = b.getShort() & 0xFFFF; }
+                    case 3, 4 -> b.getInt();
+                    case 5, 6 -> { b.getLong(); i++; } // takes two slots
+                    case 15 -> { b.get(); b.getShort(); }
+                    default -> throw new IllegalArgumentException("bad constant pool tag " + tag + " at " + i);
+                }
+            }
+            b.getShort(); // access flags
+            int thisClass = b.getShort() & 0xFFFF;
+
+            Set<String> classes = new HashSet<>();
+            Set<String> members = new HashSet<>();
+            List<String> strings = new ArrayList<>();
+            for (int i = 1; i < n; i++) {
+                switch (tags[i]) {
+                    case 7 -> classes.add(utf8[a[i]]);
+                    case 8 -> strings.add(utf8[a[i]]);
+                    case 9, 10, 11 -> members.add(utf8[a[a[i]]] + "." + utf8[a[c[i]]]);
+                    default -> { }
+                }
+            }
+            return new ClassRefs(utf8[a[thisClass]], major, classes, members, strings);
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) throw e;
+            throw new IllegalArgumentException("truncated or malformed class file", e);
+        }
+    }
+
+    /** Modified UTF-8; names and literals are almost always ASCII, so decode that without a copy. */
+    private static String utf8(ByteBuffer b, int len) {
+        if (b.hasArray()) {
+            int off = b.arrayOffset() + b.position();
+            byte[] arr = b.array();
+            boolean ascii = true;
+            for (int i = 0; i < len && ascii; i++) ascii = arr[off + i] >= 0;
+            b.position(b.position() + len);
+            return new String(arr, off, len, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[len];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
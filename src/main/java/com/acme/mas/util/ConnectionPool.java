@@ -0,0 +1,145 @@
+package com.acme.mas.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size pool of read-only connections to a single JDBC URL.
+ *
+ * Borrowed connections are proxies: {@code close()} hands the physical connection back to the
+ * pool, and every statement they create gets the pool's query timeout. Idle connections are
+ * validated with {@link Connection#isValid(int)} before reuse and replaced if dead. Waiting for
+ * a connection never outlasts the calling check's {@link TimeBudget}. A borrowed connection is
+ * confined to the borrowing thread: JDBC connections are not safe for concurrent statements, so
+ * use from any other thread (other than handing it back) fails instead of corrupting the session.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    private static final long BORROW_TIMEOUT_MINUTES = 10;
+
+    private final String jdbcUrl;
+    private final Properties props;
+    private final int size;
+    private final int queryTimeoutSeconds;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<Connection> idle = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    /** Opens the first connection eagerly so bad URLs/credentials fail here rather than inside a check. */
+    public ConnectionPool(String jdbcUrl, Properties props, int size, int queryTimeoutSeconds) throws SQLException {
+        this.jdbcUrl = jdbcUrl;
+        this.props = props;
+        this.size = Math.max(1, size);
+        this.queryTimeoutSeconds = Math.max(0, queryTimeoutSeconds);
+        this.permits = new Semaphore(this.size, true);
+        idle.add(open());
+    }
+
+    public int size() { return size; }
+    public int queryTimeoutSeconds() { return queryTimeoutSeconds; }
+
+    public Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed.");
+        try {
+            TimeBudget budget = TimeBudget.current();
+            long waitMillis = TimeUnit.MINUTES.toMillis(BORROW_TIMEOUT_MINUTES);
+            if (budget != null) waitMillis = Math.min(waitMillis, budget.remainingMillis());
+            if (!permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS))
+                throw budget != null && budget.expired()
+                        ? new SQLTimeoutException("Time budget exhausted waiting for a pooled DB connection.")
+                        : new SQLException("Timed out waiting for a pooled DB connection (pool size " + size + ").");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a pooled DB connection.", e);
+        }
+        try {
+            return wrap(takeHealthy());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection takeHealthy() throws SQLException {
+        Connection c;
+        while ((c = idle.pollFirst()) != null) {
+            if (isHealthy(c)) return c;
+            closeQuietly(c);
+        }
+        return open();
+    }
+
+    private Connection open() throws SQLException {
+        Connection c = DriverManager.getConnection(jdbcUrl, props);
+        try { c.setReadOnly(true); } catch (SQLException ignored) {}
+        return c;
+    }
+
+    private static boolean isHealthy(Connection c) {
+        try { return !c.isClosed() && c.isValid(VALIDATION_TIMEOUT_SECONDS); }
+        catch (SQLException e) { return false; }
+    }
+
+    private void giveBack(Connection physical) {
+        if (closed) closeQuietly(physical);
+        else idle.addFirst(physical);
+        permits.release();
+    }
+
+    private Connection wrap(Connection physical) {
+        Thread owner = Thread.currentThread();
+        InvocationHandler h = new InvocationHandler() {
+            private volatile boolean returned;
+
+            @Override
+            public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+                String name = m.getName();
+                if (m.getDeclaringClass() == Object.class) {
+                    return switch (name) {
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> "pooled:" + physical;
+                    };
+                }
+                if (name.equals("close")) {
+                    synchronized (this) {
+                        if (returned) return null;
+                        returned = true;
+                    }
+                    giveBack(physical);
+                    return null;
+                }
+                if (name.equals("isClosed")) return returned || physical.isClosed();
+                if (returned) throw new SQLException("Connection already returned to pool.");
+                if (Thread.currentThread() != owner) {
+                    throw new SQLException("Pooled connection borrowed by " + owner.getName() + " used from " +
+                            Thread.currentThread().getName() + "; borrow a connection per thread.");
+                }
+                Object r;
+                try { r = m.invoke(physical, args); }
+                catch (InvocationTargetException e) { throw e.getCause(); }
+                if (r instanceof Statement st && queryTimeoutSeconds > 0) st.setQueryTimeout(queryTimeoutSeconds);
+                return r;
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, h);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection c;
+        while ((c = idle.pollFirst()) != null) closeQuietly(c);
+    }
+
+    private static void closeQuietly(Connection c) {
+        try { c.close(); } catch (SQLException ignored) {}
+    }
+}
@@ -1,13 +1,20 @@
 package com.acme.mas.util;
 
+import com.acme.mas.model.Enums.CountMode;
 import com.acme.mas.model.Enums.DbType;
+import com.acme.mas.model.RowCount;
 
 import java.sql.*;
-import java.util.Locale;
+import java.util.*;
 
 public final class DbUtil {
     private DbUtil() {}
 
+    /** {@link RowCount#source()} of a table the statistics catalog query did not return. */
+    public static final String NOT_IN_CATALOG = "not_in_catalog";
+    /** {@link RowCount} source of a count left unknown because its batch timed out or ran out of budget. */
+    public static final String COUNT_STOPPED = "count_stopped";
+
     public static DbType detectDbType(Connection conn) {
         try {
             String name = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
@@ -18,33 +25,82 @@ public final class DbUtil {
         return DbType.UNKNOWN;
     }
 
-    public static void execQuery(Connection conn, String sql) throws SQLException {
-        try (Statement st = conn.createStatement();
-             ResultSet rs = st.executeQuery(sql)) { }
+    public interface MetadataCall<T> { T call(DatabaseMetaData md) throws SQLException; }
+    interface Binder { void bind(PreparedStatement ps) throws SQLException; }
+    interface Reader<T> { T read(ResultSet rs) throws SQLException; }
+
+    /**
+     * Runs every query issued by this class: the statement's timeout is clamped to the calling
+     * check's {@link TimeBudget} (which can cancel it) and the call is recorded in {@link Telemetry}.
+     */
+    static <T> T query(Connection conn, String sql, Binder binder, Reader<T> reader) throws SQLException {
+        TimeBudget budget = TimeBudget.current();
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            if (budget != null) budget.apply(ps);
+            try {
+                if (binder != null) binder.bind(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    T v = reader.read(rs);
+                    ok = true;
+                    return v;
+                }
+            } finally {
+                if (budget != null) budget.release(ps);
+            }
+        } finally { Telemetry.query(sql, t0, ok); }
     }
 
-    public static String scalarString(Connection conn, String sql) throws SQLException {
-        try (Statement st = conn.createStatement();
-             ResultSet rs = st.executeQuery(sql)) {
-            if (rs.next()) {
-                Object v = rs.getObject(1);
-                return v == null ? null : v.toString();
+    /**
+     * Runs {@link DatabaseMetaData} calls, which create no {@link Statement} that a
+     * {@link TimeBudget} could time out or cancel, with the connection's network timeout set to
+     * the calling check's remaining budget (restored afterwards); recorded in {@link Telemetry}
+     * as {@code label}. A driver that times out this way usually closes the connection, which the
+     * pool then replaces.
+     */
+    public static <T> T metadata(Connection conn, String label, MetadataCall<T> call) throws SQLException {
+        TimeBudget budget = TimeBudget.current();
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        int previous = -1;
+        try {
+            if (budget != null && budget.hasDeadline()) {
+                if (budget.expired()) throw new SQLTimeoutException("Time budget exhausted.");
+                try {
+                    previous = conn.getNetworkTimeout();
+                    conn.setNetworkTimeout(Runnable::run, (int) Math.max(1, Math.min(Integer.MAX_VALUE, budget.remainingMillis())));
+                } catch (SQLException | AbstractMethodError e) { // optional in JDBC 4.1; missing from older drivers
+                    previous = -1;
+                }
             }
-            return null;
+            T v = call.call(conn.getMetaData());
+            ok = true;
+            return v;
+        } finally {
+            if (previous >= 0) {
+                try { conn.setNetworkTimeout(Runnable::run, previous); } catch (SQLException ignored) {}
+            }
+            Telemetry.query(label, t0, ok);
         }
     }
 
+    public static void execQuery(Connection conn, String sql) throws SQLException {
+        query(conn, sql, null, rs -> null);
+    }
+
+    public static String scalarString(Connection conn, String sql) throws SQLException {
+        Object v = scalar(conn, sql);
+        return v == null ? null : v.toString();
+    }
+
     public static Long scalarLong(Connection conn, String sql) throws SQLException {
-        try (Statement st = conn.createStatement();
-             ResultSet rs = st.executeQuery(sql)) {
-            if (rs.next()) {
-                Object v = rs.getObject(1);
-                if (v == null) return null;
-                if (v instanceof Number n) return n.longValue();
-                try { return Long.parseLong(v.toString()); } catch (Exception ignored) { return null; }
-            }
-            return null;
-        }
+        return asLong(scalar(conn, sql));
+    }
+
+    /** First column of the first row, or null when there is no row. */
+    private static Object scalar(Connection conn, String sql) throws SQLException {
+        return query(conn, sql, null, rs -> rs.next() ? rs.getObject(1) : null);
     }
 
     public static Long safeCount(Connection conn, Dialect dialect, String schema, String table) {
@@ -57,6 +113,213 @@ public final class DbUtil {
         catch (Exception ignored) { return -1L; }
     }
 
+    /**
+     * Row count according to {@code mode}. STATS reads optimizer statistics only; AUTO uses them
+     * when present and otherwise falls back to a count capped at {@code exactLimit} rows (a capped
+     * result is reported as a non-exact lower bound); EXACT always runs COUNT(*).
+     */
+    public static RowCount rowCount(Connection conn, Dialect dialect, String schema, String table, CountMode mode, long exactLimit) {
+        return rowCounts(conn, dialect, schema, List.of(table), mode, exactLimit).get(table);
+    }
+
+    /**
+     * {@link #rowCount} for several tables in at most two round trips: one statistics lookup for
+     * all tables, then one {@link CountBatch} for the tables that need counting.
+     */
+    public static Map<String, RowCount> rowCounts(Connection conn, Dialect dialect, String schema, List<String> tables, CountMode mode, long exactLimit) {
+        Map<String, RowCount> stats = mode == CountMode.EXACT ? Map.of() : statsCounts(conn, dialect, schema, tables);
+        boolean capped = mode != CountMode.EXACT && exactLimit > 0;
+        CountBatch batch = new CountBatch(dialect, schema);
+        Map<String, RowCount> out = new LinkedHashMap<>();
+        for (String t : tables) {
+            RowCount rc = stats.get(t);
+            if (rc != null && rc.rows() < 0 && mode != CountMode.STATS) rc = null; // not in the catalog: count it
+            if (rc == null && mode == CountMode.STATS) rc = RowCount.unknown(dialect.tableStatsSource());
+            out.put(t, rc);
+            if (rc != null) continue;
+            if (capped) batch.countUpTo(t, t, exactLimit);
+            else batch.count(t, t);
+        }
+        for (var e : batch.run(conn).entrySet()) {
+            long n = e.getValue();
+            RowCount rc;
+            if (n < 0) rc = RowCount.unknown(batch.stopped().contains(e.getKey()) ? COUNT_STOPPED : "count");
+            else if (capped) rc = new RowCount(n, n < exactLimit, n < exactLimit ? "count" : "count_capped", null);
+            else rc = new RowCount(n, true, "count", null);
+            out.put(e.getKey(), rc);
+        }
+        return out;
+    }
+
+    /**
+     * Optimizer-statistics row count; null when the table was never analysed, and
+     * {@link RowCount#unknown unknown} ({@value #NOT_IN_CATALOG}) when the catalog has no row for it.
+     */
+    public static RowCount statsCount(Connection conn, Dialect dialect, String schema, String table) {
+        return statsCounts(conn, dialect, schema, List.of(table)).get(table);
+    }
+
+    /**
+     * Optimizer-statistics row counts in one query. Tables that were never analysed are absent;
+     * tables the catalog query did not return at all are {@link RowCount#unknown unknown} with
+     * source {@value #NOT_IN_CATALOG}. Names are matched case-insensitively (SQL Server returns
+     * them as created, usually lower case).
+     */
+    public static Map<String, RowCount> statsCounts(Connection conn, Dialect dialect, String schema, List<String> tables) {
+        String sql = dialect.tableStatsQuery(tables.size());
+        if (sql == null || tables.isEmpty()) return Map.of();
+        Map<String, String> byCatalogName = new HashMap<>();
+        for (String t : tables) byCatalogName.put(dialect.catalogName(t).toUpperCase(Locale.ROOT), t);
+
+        try {
+            return query(conn, sql, ps -> {
+                ps.setString(1, dialect.catalogName(schema));
+                int i = 2;
+                for (String t : tables) ps.setString(i++, dialect.catalogName(t));
+            }, rs -> {
+                Map<String, RowCount> out = new HashMap<>();
+                Set<String> seen = new HashSet<>();
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    String table = name == null ? null : byCatalogName.get(name.toUpperCase(Locale.ROOT));
+                    if (table == null) continue;
+                    seen.add(table);
+                    long rows = rs.getLong(2);
+                    if (rs.wasNull() || rows < 0) continue; // never analysed (NULL on Oracle/SQL Server, -1 on DB2)
+                    Timestamp ts = rs.getTimestamp(3);
+                    out.put(table, new RowCount(rows, false, dialect.tableStatsSource(), ts == null ? null : ts.toInstant()));
+                }
+                for (String t : tables) {
+                    if (!seen.contains(t)) out.put(t, RowCount.unknown(NOT_IN_CATALOG));
+                }
+                return out;
+            });
+        } catch (SQLException e) { return Map.of(); }
+    }
+
+    /**
+     * Several counts sent as one statement ({@link Dialect#batchCount}) instead of one round trip
+     * each. If the combined statement fails (e.g. one table is missing or not readable) every
+     * count is retried on its own, so only the failing ones are lost. Given a
+     * {@link SchemaInventory}, counts of tables it knows to be missing are -1 without a query.
+     */
+    public static final class CountBatch {
+        private static final int MAX_PER_STATEMENT = 50;
+
+        private final Dialect dialect;
+        private final String schema;
+        private final SchemaInventory inventory;
+        private final Map<String, String> queries = new LinkedHashMap<>(); // null SQL = table known to be missing
+        private final Set<String> stopped = new LinkedHashSet<>();
+
+        public CountBatch(Dialect dialect, String schema) { this(dialect, schema, null); }
+
+        public CountBatch(Dialect dialect, String schema, SchemaInventory inventory) {
+            this.dialect = dialect;
+            this.schema = schema;
+            this.inventory = inventory;
+        }
+
+        public CountBatch count(String key, String table) {
+            return add(key, table, dialect.countAll(qualify(schema, table)));
+        }
+
+        public CountBatch countWhere(String key, String table, String where) {
+            return add(key, table, dialect.countWhere(qualify(schema, table), where));
+        }
+
+        public CountBatch countUpTo(String key, String table, long limit) {
+            return add(key, table, dialect.countUpTo(qualify(schema, table), limit));
+        }
+
+        private CountBatch add(String key, String table, String sql) {
+            boolean missing = inventory != null && Boolean.FALSE.equals(inventory.tableExists(table));
+            queries.put(key, missing ? null : sql);
+            return this;
+        }
+
+        /**
+         * Counts by key in the order added; -1 for counts that failed or tables that are missing.
+         * A failed batch is retried one query at a time, unless it failed on a statement timeout or
+         * the check's budget ({@link TimeBudget#stopped}): then this and the remaining counts are
+         * left at -1 and listed by {@link #stopped()}, rather than each waiting out the timeout again.
+         */
+        public Map<String, Long> run(Connection conn) {
+            List<String> keys = new ArrayList<>();
+            Map<String, Long> out = new LinkedHashMap<>();
+            stopped.clear();
+            for (var e : queries.entrySet()) {
+                out.put(e.getKey(), -1L);
+                if (e.getValue() != null) keys.add(e.getKey());
+            }
+            for (int from = 0; from < keys.size(); from += MAX_PER_STATEMENT) {
+                List<String> chunk = keys.subList(from, Math.min(keys.size(), from + MAX_PER_STATEMENT));
+                List<String> sqls = new ArrayList<>(chunk.size());
+                for (String k : chunk) sqls.add(queries.get(k));
+
+                Object[] row = null;
+                if (chunk.size() > 1) {
+                    try { row = firstRow(conn, dialect.batchCount(sqls), chunk.size()); }
+                    catch (SQLException e) {
+                        if (TimeBudget.stopped(e)) return stop(out, keys.subList(from, keys.size()));
+                    }
+                }
+                for (int i = 0; i < chunk.size(); i++) {
+                    Long n;
+                    if (row != null) n = asLong(row[i]);
+                    else {
+                        try { n = scalarLong(conn, sqls.get(i)); }
+                        catch (SQLException e) {
+                            if (TimeBudget.stopped(e)) return stop(out, keys.subList(from + i, keys.size()));
+                            n = null;
+                        }
+                        catch (Exception ignored) { n = null; }
+                    }
+                    out.put(chunk.get(i), n == null ? -1L : n);
+                }
+            }
+            return out;
+        }
+
+        /** Keys the last {@link #run} left at -1 because it stopped on a timeout or the budget; empty if it finished. */
+        public Set<String> stopped() { return Collections.unmodifiableSet(stopped); }
+
+        private Map<String, Long> stop(Map<String, Long> out, List<String> remaining) {
+            stopped.addAll(remaining);
+            return out;
+        }
+    }
+
+    public interface RowHandler { void row(ResultSet rs) throws SQLException; }
+
+    /**
+     * Streams every row of {@code sql} to {@code handler}, fetching {@code fetchSize} rows per
+     * round trip, so large result sets (e.g. CLOB sources) are never held in memory at once.
+     */
+    public static void forEachRow(Connection conn, String sql, int fetchSize, RowHandler handler) throws SQLException {
+        query(conn, sql, ps -> ps.setFetchSize(fetchSize), rs -> {
+            while (rs.next()) handler.row(rs);
+            return null;
+        });
+    }
+
+    /** First {@code columns} columns of the first row (all null when there is no row). */
+    public static Object[] firstRow(Connection conn, String sql, int columns) throws SQLException {
+        return query(conn, sql, null, rs -> {
+            Object[] row = new Object[columns];
+            if (rs.next()) {
+                for (int i = 0; i < columns; i++) row[i] = rs.getObject(i + 1);
+            }
+            return row;
+        });
+    }
+
+    private static Long asLong(Object v) {
+        if (v == null) return null;
+        if (v instanceof Number n) return n.longValue();
+        try { return Long.parseLong(v.toString()); } catch (Exception ignored) { return null; }
+    }
+
     public static String qualify(String schema, String table) {
         if (schema == null || schema.isBlank()) return table;
         return schema + "." + table;
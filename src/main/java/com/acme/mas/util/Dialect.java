@@ -2,10 +2,18 @@ package com.acme.mas.util;
 
 import com.acme.mas.model.Enums.DbType;
 
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
 public final class Dialect {
+    private static final int SAMPLE_SEED = 9; // fixed so repeat runs sample the same rows
     private final DbType dbType;
     public Dialect(DbType dbType) { this.dbType = dbType; }
 
+    public DbType dbType() { return dbType; }
+
     public String selectOneFromTable(String tableQ) {
         return switch (dbType) {
             case SQLSERVER -> "SELECT TOP 1 1 AS one FROM " + tableQ;
@@ -17,4 +25,84 @@ public final class Dialect {
 
     public String countAll(String tableQ) { return "SELECT COUNT(*) FROM " + tableQ; }
     public String countWhere(String tableQ, String where) { return "SELECT COUNT(*) FROM " + tableQ + " WHERE " + where; }
+
+    /** Counts at most {@code limit} rows, so a fallback count can never turn into a full scan of a huge table. */
+    public String countUpTo(String tableQ, long limit) {
+        return switch (dbType) {
+            case SQLSERVER -> "SELECT COUNT(*) FROM (SELECT TOP " + limit + " 1 AS one FROM " + tableQ + ") x";
+            case DB2      -> "SELECT COUNT(*) FROM (SELECT 1 AS one FROM " + tableQ + " FETCH FIRST " + limit + " ROWS ONLY) x";
+            case ORACLE   -> "SELECT COUNT(*) FROM " + tableQ + " WHERE ROWNUM <= " + limit;
+            default       -> countAll(tableQ);
+        };
+    }
+
+    /**
+     * {@code tableQ} aliased as {@code alias} and restricted to a repeatable random sample of about
+     * {@code percent} percent of its rows (page-level on SQL Server and DB2, row-level on Oracle),
+     * or null if the platform has no supported sampling clause.
+     */
+    public String sampledTable(String tableQ, String alias, double percent) {
+        String p = BigDecimal.valueOf(percent).stripTrailingZeros().toPlainString();
+        return switch (dbType) {
+            case SQLSERVER -> tableQ + " " + alias + " TABLESAMPLE (" + p + " PERCENT) REPEATABLE (" + SAMPLE_SEED + ")";
+            case DB2       -> tableQ + " " + alias + " TABLESAMPLE SYSTEM (" + p + ") REPEATABLE (" + SAMPLE_SEED + ")";
+            case ORACLE    -> tableQ + " SAMPLE (" + p + ") SEED (" + SAMPLE_SEED + ") " + alias;
+            default        -> null;
+        };
+    }
+
+    /**
+     * Composes several single-value count queries (as built by {@link #countAll}, {@link #countWhere}
+     * or {@link #countUpTo}) into one statement returning one column per query, so they cost a
+     * single round trip. Any failing subquery fails the whole statement.
+     */
+    public String batchCount(List<String> countQueries) {
+        StringBuilder sb = new StringBuilder("SELECT ");
+        for (int i = 0; i < countQueries.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('(').append(countQueries.get(i)).append(") AS c").append(i);
+        }
+        return switch (dbType) {
+            case ORACLE -> sb.append(" FROM DUAL").toString();
+            case DB2    -> sb.append(" FROM SYSIBM.SYSDUMMY1").toString();
+            default     -> sb.toString();
+        };
+    }
+
+    /**
+     * Parameterised query (schema, then {@code tables} table names) returning the catalog table
+     * name, optimizer-statistics row count and the time the statistics were gathered, one row
+     * per table found; null if the platform has no supported catalog view. A null schema
+     * parameter means the connection's current schema.
+     */
+    public String tableStatsQuery(int tables) {
+        String in = String.join(",", Collections.nCopies(Math.max(1, tables), "?"));
+        return switch (dbType) {
+            case ORACLE -> "SELECT TABLE_NAME, NUM_ROWS, LAST_ANALYZED FROM ALL_TABLES" +
+                    " WHERE OWNER = COALESCE(CAST(? AS VARCHAR2(128)), SYS_CONTEXT('USERENV','CURRENT_SCHEMA')) AND TABLE_NAME IN (" + in + ")";
+            case DB2 -> "SELECT TABNAME, CARD, STATS_TIME FROM SYSCAT.TABLES" +
+                    " WHERE TABSCHEMA = COALESCE(CAST(? AS VARCHAR(128)), CURRENT SCHEMA) AND TABNAME IN (" + in + ")";
+            case SQLSERVER -> "SELECT o.name, (SELECT SUM(ps.row_count) FROM sys.dm_db_partition_stats ps" +
+                    " WHERE ps.object_id = o.object_id AND ps.index_id IN (0,1))," +
+                    " (SELECT MAX(STATS_DATE(st.object_id, st.stats_id)) FROM sys.stats st WHERE st.object_id = o.object_id)" +
+                    " FROM sys.objects o JOIN sys.schemas sc ON sc.schema_id = o.schema_id" +
+                    " WHERE sc.name = COALESCE(CAST(? AS SYSNAME), SCHEMA_NAME()) AND o.name IN (" + in + ") AND o.type = 'U'";
+            default -> null;
+        };
+    }
+
+    public String tableStatsSource() {
+        return switch (dbType) {
+            case ORACLE -> "ALL_TABLES.NUM_ROWS";
+            case DB2 -> "SYSCAT.TABLES.CARD";
+            case SQLSERVER -> "sys.dm_db_partition_stats";
+            default -> "none";
+        };
+    }
+
+    /** Oracle and DB2 store unquoted identifiers upper-case in their catalogs. */
+    public String catalogName(String name) {
+        if (name == null || name.isBlank()) return null;
+        return dbType == DbType.SQLSERVER ? name : name.toUpperCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,50 @@
+package com.acme.mas.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 over a sequence of values (each separated, so "ab","c" differs from "a","bc"), used to
+ * tell cheaply whether the inputs of a check changed since an earlier run.
+ */
+public final class Fingerprint {
+    private final MessageDigest md;
+
+    public Fingerprint() {
+        try { md = MessageDigest.getInstance("SHA-256"); }
+        catch (NoSuchAlgorithmException e) { throw new IllegalStateException(e); }
+    }
+
+    public Fingerprint add(Object value) {
+        md.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+        return this;
+    }
+
+    public Fingerprint addAll(Object... values) {
+        for (Object v : values) add(v);
+        return this;
+    }
+
+    /** Path, size and modification time of a file, or that it is missing. Contents are not read. */
+    public Fingerprint file(Path p) {
+        add(p == null ? null : p.toAbsolutePath().normalize());
+        if (p == null) return this;
+        try {
+            BasicFileAttributes a = Files.readAttributes(p, BasicFileAttributes.class);
+            return addAll(a.size(), a.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return add("missing");
+        }
+    }
+
+    public String hex() { return HexFormat.of().formatHex(md.digest()); }
+
+    public static String of(Object... values) { return new Fingerprint().addAll(values).hex(); }
+}
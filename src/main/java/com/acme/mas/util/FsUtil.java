@@ -1,6 +1,11 @@
 package com.acme.mas.util;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
@@ -24,19 +29,108 @@ public final class FsUtil {
         return o;
     }
 
+    /** First {@code maxBytes} of the file as UTF-8 (malformed input replaced); "" if unreadable. */
     public static String safeRead(Path p, int maxBytes) {
-        try {
-            byte[] b = Files.readAllBytes(p);
-            if (b.length > maxBytes) b = Arrays.copyOf(b, maxBytes);
-            return new String(b, StandardCharsets.UTF_8);
-        } catch (IOException e) { return ""; }
+        ByteBuffer buf = readBuffer(p, maxBytes);
+        return buf == null ? "" : StandardCharsets.UTF_8.decode(buf).toString();
+    }
+
+    /**
+     * Lines of the first {@code maxBytes} of the file, decoded lazily so callers that stop early
+     * never decode the rest. Lines end at \n, \r\n or \r. Empty if the file is unreadable.
+     */
+    public static Iterator<String> lines(Path p, int maxBytes) {
+        ByteBuffer buf = readBuffer(p, maxBytes);
+        return buf == null ? Collections.emptyIterator() : new LineIterator(buf);
+    }
+
+    /**
+     * Only the first {@code maxBytes} are ever touched: large files are memory-mapped, small ones
+     * read into a buffer of exactly that size.
+     */
+    private static ByteBuffer readBuffer(Path p, int maxBytes) {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            int n = (int) Math.min(ch.size(), Math.max(0, maxBytes));
+            ByteBuffer buf;
+            if (n >= MAP_THRESHOLD) {
+                buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, n);
+            } else {
+                buf = ByteBuffer.allocate(n);
+                while (buf.hasRemaining() && ch.read(buf) >= 0) { }
+                buf.flip();
+            }
+            Telemetry.bytesRead(buf.remaining());
+            return buf;
+        } catch (IOException | UnsupportedOperationException e) { return null; }
+    }
+
+    private static final int MAP_THRESHOLD = 256 * 1024;
+
+    private static final class LineIterator implements Iterator<String> {
+        private final ByteBuffer in;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(8192).flip();
+        private final StringBuilder line = new StringBuilder();
+        private boolean eof, skipLf;
+        private String next;
+
+        LineIterator(ByteBuffer in) { this.in = in; }
+
+        @Override public boolean hasNext() {
+            if (next == null) next = advance();
+            return next != null;
+        }
+
+        @Override public String next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            String s = next;
+            next = null;
+            return s;
+        }
+
+        private String advance() {
+            while (true) {
+                while (chars.hasRemaining()) {
+                    char c = chars.get();
+                    if (skipLf) {
+                        skipLf = false;
+                        if (c == '\n') continue;
+                    }
+                    if (c == '\n' || c == '\r') {
+                        skipLf = c == '\r';
+                        String s = line.toString();
+                        line.setLength(0);
+                        return s;
+                    }
+                    line.append(c);
+                }
+                if (eof) {
+                    if (line.length() == 0) return null;
+                    String s = line.toString();
+                    line.setLength(0);
+                    return s;
+                }
+                chars.clear();
+                decoder.decode(in, chars, true);
+                if (!in.hasRemaining()) {
+                    decoder.flush(chars);
+                    eof = true;
+                }
+                chars.flip();
+            }
+        }
     }
 
     public static Map<String, String> parseProperties(String text) {
+        return text == null ? new HashMap<>() : parseProperties(text.lines().iterator());
+    }
+
+    public static Map<String, String> parseProperties(Iterator<String> lines) {
         Map<String, String> props = new HashMap<>();
-        if (text == null) return props;
-        for (String line : text.split("\r")) {
-            String ln = line.trim();
+        while (lines.hasNext()) {
+            String ln = lines.next().trim();
             if (ln.isEmpty() || ln.startsWith("#") || !ln.contains("=")) continue;
             int idx = ln.indexOf('=');
             props.put(ln.substring(0, idx).trim(), ln.substring(idx + 1).trim());
@@ -46,21 +140,34 @@ public final class FsUtil {
 
     public static long countFilesByExt(Path dir, Set<String> exts, int sampleLimit, List<String> sampleOut) throws IOException {
         if (dir == null || !Files.exists(dir) || !Files.isDirectory(dir)) return 0;
-        long count = 0;
-        try (var stream = Files.walk(dir)) {
-            for (Path p : (Iterable<Path>) stream::iterator) {
-                if (!Files.isRegularFile(p)) continue;
-                String fn = p.getFileName().toString().toLowerCase(Locale.ROOT);
-                for (String ext : exts) {
-                    if (fn.endsWith(ext)) {
-                        count++;
-                        if (sampleOut != null && sampleOut.size() < sampleLimit) sampleOut.add(dir.relativize(p).toString());
-                        break;
-                    }
+        ExtCount c = ParallelWalker.shared().walk(dir, Integer.MAX_VALUE, ExtCount::new, (acc, p, a) -> {
+            String fn = p.getFileName().toString().toLowerCase(Locale.ROOT);
+            for (String ext : exts) {
+                if (fn.endsWith(ext)) {
+                    acc.count++;
+                    if (acc.sample.size() < sampleLimit) acc.sample.add(dir.relativize(p).toString());
+                    break;
                 }
             }
+        }, ExtCount::merge);
+        if (sampleOut != null) {
+            for (String s : c.sample) {
+                if (sampleOut.size() >= sampleLimit) break;
+                sampleOut.add(s);
+            }
+        }
+        return c.count;
+    }
+
+    private static final class ExtCount {
+        long count;
+        final List<String> sample = new ArrayList<>();
+
+        ExtCount merge(ExtCount o) {
+            count += o.count;
+            sample.addAll(o.sample);
+            return this;
         }
-        return count;
     }
 
     public static long countFilesByPrefix(Path dir, String prefix, int sampleLimit, List<String> sampleOut) throws IOException {
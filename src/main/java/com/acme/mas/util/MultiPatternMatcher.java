@@ -0,0 +1,165 @@
+package com.acme.mas.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches many regex rules against one text with a single scan. Every rule names literal
+ * anchors, at least one of which must occur in any match (e.g. "getmxserver" for
+ * {@code \bMXServer\s*\.\s*getMXServer\s*\(}). An Aho-Corasick automaton over all anchors
+ * (ASCII, case-insensitive) finds the rules whose anchors occur in one pass; only those rules'
+ * regexes then run. Most texts trip a handful of rules, so most regexes never run at all.
+ * A rule without anchors (e.g. a bare version number) is always a candidate.
+ *
+ * Texts can be a {@link CharSequence} or a {@link ByteBuffer} (e.g. a mapped file from
+ * {@link FsUtil}); bytes are viewed as Latin-1 without decoding, so offsets are byte offsets and
+ * ASCII rules match UTF-8 input unchanged.
+ *
+ * Immutable and thread-safe once built.
+ */
+public final class MultiPatternMatcher {
+    private static final int ALPHABET = 128;
+
+    /** A regex with the literal anchors that prefilter it; anchors are matched case-insensitively. */
+    public record Rule(Pattern pattern, List<String> anchors) {
+        public Rule {
+            anchors = List.copyOf(anchors);
+            for (String a : anchors) {
+                if (a.isEmpty() || !a.chars().allMatch(c -> c < ALPHABET)) throw new IllegalArgumentException("anchors must be non-empty ASCII: " + a);
+            }
+        }
+    }
+
+    /** Offsets of one regex match. */
+    public record Match(int rule, int start, int end) {}
+
+    private final List<Rule> rules;
+    private final int[][] delta; // full DFA: delta[state][char]
+    private final BitSet[] out;  // rules whose anchors end at each state (fail-link closure included)
+    private final BitSet always = new BitSet(); // rules without anchors
+
+    public MultiPatternMatcher(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+        List<int[]> next = new ArrayList<>();
+        List<BitSet> outs = new ArrayList<>();
+        next.add(newRow());
+        outs.add(new BitSet());
+        for (int r = 0; r < this.rules.size(); r++) {
+            if (this.rules.get(r).anchors().isEmpty()) always.set(r);
+            for (String a : this.rules.get(r).anchors()) {
+                int s = 0;
+                for (int i = 0; i < a.length(); i++) {
+                    int c = lower(a.charAt(i));
+                    if (next.get(s)[c] < 0) {
+                        next.get(s)[c] = next.size();
+                        next.add(newRow());
+                        outs.add(new BitSet());
+                    }
+                    s = next.get(s)[c];
+                }
+                outs.get(s).set(r);
+            }
+        }
+
+        // Breadth-first over the trie: fill failure transitions so every state has all edges.
+        int[] fail = new int[next.size()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int[] root = next.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            if (root[c] < 0) root[c] = 0;
+            else { fail[root[c]] = 0; queue.add(root[c]); }
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            outs.get(s).or(outs.get(fail[s]));
+            int[] row = next.get(s);
+            for (int c = 0; c < ALPHABET; c++) {
+                int t = row[c];
+                if (t < 0) {
+                    row[c] = next.get(fail[s])[c];
+                } else {
+                    fail[t] = next.get(fail[s])[c];
+                    queue.add(t);
+                }
+            }
+        }
+        this.delta = next.toArray(new int[0][]);
+        this.out = outs.toArray(new BitSet[0]);
+    }
+
+    public List<Rule> rules() { return rules; }
+
+    /** Rules with at least one anchor in {@code text} (one pass, no regex). */
+    public BitSet candidates(CharSequence text) {
+        BitSet hit = (BitSet) always.clone();
+        int s = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char ch = text.charAt(i);
+            s = ch < ALPHABET ? delta[s][lower(ch)] : 0;
+            if (!out[s].isEmpty()) hit.or(out[s]);
+        }
+        return hit;
+    }
+
+    /**
+     * Regex matches of every candidate rule, in rule order, at most {@code maxPerRule} per rule.
+     * Rules whose anchors occur but whose regex does not match report nothing.
+     */
+    public List<Match> matches(CharSequence text, int maxPerRule) {
+        List<Match> found = new ArrayList<>();
+        BitSet cand = candidates(text);
+        for (int r = cand.nextSetBit(0); r >= 0; r = cand.nextSetBit(r + 1)) {
+            Matcher m = rules.get(r).pattern().matcher(text);
+            for (int k = 0; k < maxPerRule && m.find(); k++) found.add(new Match(r, m.start(), m.end()));
+        }
+        return found;
+    }
+
+    /** Same as {@link #candidates(CharSequence)} over the buffer's remaining bytes; the buffer position is not moved. */
+    public BitSet candidates(ByteBuffer bytes) { return candidates(new Latin1(bytes)); }
+
+    /** Same as {@link #matches(CharSequence, int)}; offsets are relative to the buffer position. */
+    public List<Match> matches(ByteBuffer bytes, int maxPerRule) { return matches(new Latin1(bytes), maxPerRule); }
+
+    /**
+     * Replaces every match of every rule with {@code mask}; overlapping matches are merged, so
+     * a region is masked once. Returns the input unchanged (same instance) when nothing matches.
+     */
+    public String replaceAll(String text, String mask) {
+        List<Match> found = new ArrayList<>(matches(text, Integer.MAX_VALUE));
+        if (found.isEmpty()) return text;
+        found.sort(Comparator.comparingInt(Match::start));
+        StringBuilder sb = new StringBuilder(text.length());
+        int pos = 0;
+        for (Match m : found) {
+            if (m.end() <= pos) continue;
+            if (m.start() >= pos) sb.append(text, pos, m.start()).append(mask);
+            pos = m.end(); // an overlapping match just extends the masked region
+        }
+        return sb.append(text, pos, text.length()).toString();
+    }
+
+    /** Read-only Latin-1 view of a byte buffer (no copy, no decoding). */
+    private record Latin1(ByteBuffer b, int off, int len) implements CharSequence {
+        Latin1(ByteBuffer b) { this(b, b.position(), b.remaining()); }
+        @Override public int length() { return len; }
+        @Override public char charAt(int i) { return (char) (b.get(off + i) & 0xFF); }
+        @Override public CharSequence subSequence(int start, int end) { return new Latin1(b, off + start, end - start); }
+        @Override public String toString() {
+            byte[] a = new byte[len];
+            b.get(off, a);
+            return new String(a, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int lower(int c) { return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c; }
+}
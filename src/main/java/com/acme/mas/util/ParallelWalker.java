@@ -0,0 +1,240 @@
+package com.acme.mas.util;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Parallel directory walker. Each subdirectory becomes its own task and very large
+ * directories are split into chunks, so wide and deep trees are statted in parallel.
+ * Attributes are read once per entry (no follow-up {@code isRegularFile} stat).
+ *
+ * Every task fills its own accumulator; accumulators are merged in sorted-name order as tasks
+ * join, so the result (including any "first N" samples) is deterministic.
+ *
+ * Tasks are forked into a fork/join pool, or, where {@link Threads#probes} offers one (the
+ * Java 21 build), each gets a virtual thread. Either way at most {@code maxOpenFiles} listings
+ * and stats are in flight at once ({@code -Dmas9.maxOpenFiles}, default 256).
+ *
+ * With a {@link DirCache}, a directory whose mtime is unchanged is not listed again: its files
+ * come from the cached listing and only its subdirectories are statted (to check their mtimes).
+ *
+ * Files visited are attributed to the {@link Telemetry} recorder of the thread calling walk.
+ */
+public final class ParallelWalker {
+    private static final int SPLIT_THRESHOLD = 1024;
+    private static final int MAX_OPEN_FILES = Integer.getInteger("mas9.maxOpenFiles", 256);
+    private static final ParallelWalker SHARED = new ParallelWalker(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+    private final ForkJoinPool pool;   // null when tasks run on probe threads
+    private final Forker forker;
+    private final Semaphore handles;
+
+    public ParallelWalker(int parallelism) {
+        this(parallelism, MAX_OPEN_FILES);
+    }
+
+    public ParallelWalker(int parallelism, int maxOpenFiles) {
+        ExecutorService probes = Threads.probes("mas9-walk");
+        this.pool = probes != null ? null : new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("mas9-walk-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+        this.forker = probes != null ? threads(probes) : forkJoin();
+        this.handles = new Semaphore(Math.max(1, maxOpenFiles));
+    }
+
+    public static ParallelWalker shared() { return SHARED; }
+
+    public interface Sink<A> {
+        void accept(A acc, Path file, BasicFileAttributes attrs);
+    }
+
+    /** Regular file as remembered in a directory listing. */
+    public record CachedFile(String name, long size, long mtime) {}
+
+    /** Regular files and subdirectory names of one directory, as of {@code mtime}. */
+    public record Listing(long mtime, long scannedAt, List<CachedFile> files, List<String> dirs) {}
+
+    public interface DirCache {
+        /** Listing for {@code dir} if it is still valid for the directory's current {@code mtime}, else null. */
+        Listing lookup(Path dir, long mtime);
+        void store(Path dir, Listing listing);
+    }
+
+    /**
+     * Visits regular files under {@code root} up to {@code maxDepth} (1 = direct children only).
+     * Unreadable directories are skipped. Returns an empty accumulator if root is not a directory.
+     */
+    public <A> A walk(Path root, int maxDepth, Supplier<A> supplier, Sink<A> sink, BinaryOperator<A> merge) {
+        return walk(root, maxDepth, null, supplier, sink, merge);
+    }
+
+    public <A> A walk(Path root, int maxDepth, DirCache cache, Supplier<A> supplier, Sink<A> sink, BinaryOperator<A> merge) {
+        BasicFileAttributes ra;
+        try { ra = Files.readAttributes(root, BasicFileAttributes.class); }
+        catch (IOException e) { return supplier.get(); }
+        if (!ra.isDirectory()) return supplier.get();
+        Telemetry t = Telemetry.current();
+        Sink<A> counted = t == null ? sink : (acc, file, attrs) -> { t.fileVisited(); sink.accept(acc, file, attrs); };
+        Walk<A> w = new Walk<>(maxDepth, cache, forker, handles, supplier, counted, merge);
+        long mtime = ra.lastModifiedTime().toMillis();
+        return pool == null ? w.dir(root, mtime, 0) : pool.invoke(ForkJoinTask.adapt(() -> w.dir(root, mtime, 0)));
+    }
+
+    /** Starts {@code task} elsewhere; the returned supplier waits for its result. */
+    private interface Forker {
+        <T> Supplier<T> fork(Callable<T> task);
+    }
+
+    /** Forks into the pool of the calling worker thread. */
+    private static Forker forkJoin() {
+        return new Forker() {
+            @Override
+            public <T> Supplier<T> fork(Callable<T> task) { return ForkJoinTask.adapt(task).fork()::join; }
+        };
+    }
+
+    private static Forker threads(ExecutorService probes) {
+        return new Forker() {
+            @Override
+            public <T> Supplier<T> fork(Callable<T> task) {
+                Future<T> f = probes.submit(task);
+                return () -> {
+                    try { return f.get(); }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        f.cancel(true);
+                        throw new CancellationException("Directory walk interrupted.");
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof RuntimeException r) throw r;
+                        if (e.getCause() instanceof Error err) throw err;
+                        throw new IllegalStateException(e.getCause());
+                    }
+                };
+            }
+        };
+    }
+
+    private record Child(Path path, BasicFileAttributes attrs) {}
+
+    private record Walk<A>(int maxDepth, DirCache cache, Forker forker, Semaphore handles,
+                           Supplier<A> supplier, Sink<A> sink, BinaryOperator<A> merge) {
+        A dir(Path dir, long mtime, int depth) {
+            Listing cached = cache == null ? null : cache.lookup(dir, mtime);
+            if (cached != null) {
+                List<Child> children = new ArrayList<>(cached.files().size() + cached.dirs().size());
+                for (CachedFile f : cached.files()) children.add(new Child(dir.resolve(f.name()), new CachedAttributes(f)));
+                for (String d : cached.dirs()) children.add(new Child(dir.resolve(d), null));
+                children.sort(Comparator.comparing(c -> c.path().getFileName().toString()));
+                return chunk(children, new BasicFileAttributes[children.size()], 0, depth + 1);
+            }
+
+            long scannedAt = System.currentTimeMillis();
+            List<Child> children = new ArrayList<>();
+            handles.acquireUninterruptibly();
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+                for (Path p : ds) children.add(new Child(p, null));
+            } catch (IOException | DirectoryIteratorException e) {
+                return supplier.get();
+            } finally {
+                handles.release();
+            }
+            children.sort(Comparator.comparing(c -> c.path().getFileName().toString()));
+            BasicFileAttributes[] seen = new BasicFileAttributes[children.size()];
+            A result = chunk(children, seen, 0, depth + 1);
+            if (cache != null) cache.store(dir, listing(children, seen, mtime, scannedAt));
+            return result;
+        }
+
+        static Listing listing(List<Child> children, BasicFileAttributes[] seen, long mtime, long scannedAt) {
+            List<CachedFile> files = new ArrayList<>();
+            List<String> dirs = new ArrayList<>();
+            for (int i = 0; i < seen.length; i++) {
+                BasicFileAttributes a = seen[i];
+                if (a == null) continue;
+                String name = children.get(i).path().getFileName().toString();
+                if (a.isDirectory()) dirs.add(name);
+                else if (a.isRegularFile()) files.add(new CachedFile(name, a.size(), a.lastModifiedTime().toMillis()));
+            }
+            return new Listing(mtime, scannedAt, List.copyOf(files), List.copyOf(dirs));
+        }
+
+        /** Processes {@code children[offset..]}; attributes read along the way are recorded in {@code seen}. */
+        A chunk(List<Child> children, BasicFileAttributes[] seen, int offset, int depth) {
+            int n = children.size();
+            if (n > SPLIT_THRESHOLD) {
+                Supplier<A> left = forker.fork(() -> chunk(children.subList(0, n / 2), seen, offset, depth));
+                A r = chunk(children.subList(n / 2, n), seen, offset + n / 2, depth);
+                return merge.apply(left.get(), r);
+            }
+
+            List<Supplier<A>> parts = new ArrayList<>();
+            A acc = supplier.get();
+            for (int i = 0; i < n; i++) {
+                Child c = children.get(i);
+                BasicFileAttributes a = c.attrs();
+                if (a == null) {
+                    handles.acquireUninterruptibly();
+                    try {
+                        a = Files.readAttributes(c.path(), BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        if (a.isSymbolicLink()) a = linkTarget(c.path(), a);
+                    }
+                    catch (IOException e) { continue; }
+                    finally { handles.release(); }
+                }
+                seen[offset + i] = a;
+                if (a.isDirectory()) {
+                    if (depth >= maxDepth) continue;
+                    A done = acc;
+                    parts.add(() -> done);
+                    acc = supplier.get();
+                    long mtime = a.lastModifiedTime().toMillis();
+                    parts.add(forker.fork(() -> dir(c.path(), mtime, depth)));
+                } else if (a.isRegularFile()) {
+                    sink.accept(acc, c.path(), a);
+                }
+            }
+            A last = acc;
+            parts.add(() -> last);
+
+            A result = supplier.get();
+            for (Supplier<A> part : parts) result = merge.apply(result, part.get());
+            return result;
+        }
+
+        /**
+         * A link to a regular file counts as that file, as it did with {@code Files.walk} plus
+         * {@code Files.isRegularFile}; links to directories are not descended, and dangling links are skipped.
+         */
+        private static BasicFileAttributes linkTarget(Path link, BasicFileAttributes linkAttrs) {
+            try {
+                BasicFileAttributes t = Files.readAttributes(link, BasicFileAttributes.class);
+                return t.isRegularFile() ? t : linkAttrs;
+            } catch (IOException e) {
+                return linkAttrs;
+            }
+        }
+    }
+
+    private record CachedAttributes(CachedFile f) implements BasicFileAttributes {
+        @Override public FileTime lastModifiedTime() { return FileTime.fromMillis(f.mtime()); }
+        @Override public FileTime lastAccessTime() { return lastModifiedTime(); }
+        @Override public FileTime creationTime() { return lastModifiedTime(); }
+        @Override public boolean isRegularFile() { return true; }
+        @Override public boolean isDirectory() { return false; }
+        @Override public boolean isSymbolicLink() { return false; }
+        @Override public boolean isOther() { return false; }
+        @Override public long size() { return f.size(); }
+        @Override public Object fileKey() { return null; }
+    }
+}
@@ -0,0 +1,256 @@
+package com.acme.mas.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Streaming structural digest of a presentation or product XML, for comparing an SMP against the
+ * out-of-the-box files of its 7.6.x level without keeping either document in memory.
+ *
+ * Every element gets a 64-bit key (its {@code id} attribute, which Maximo keeps unique within a
+ * presentation, or else its path of element names and sibling positions) and an "own" hash of its
+ * name, attributes (in any order) and non-whitespace text. Subtree hashes fold the own hash with
+ * the children's subtree hashes; only the root's is kept, so an unchanged document is recognised
+ * with one comparison. Hashes are FNV-1a; memory is two longs per element plus one frame per
+ * open element.
+ */
+public final class PresentationDigest {
+    private PresentationDigest() {}
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final XMLInputFactory XML = newFactory();
+
+    private static XMLInputFactory newFactory() {
+        XMLInputFactory f = XMLInputFactory.newFactory();
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        f.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return f;
+    }
+
+    /** Element keys in ascending order with each element's own hash at the same index. */
+    public record Digest(long root, long[] keys, long[] own) {
+        public int elements() { return keys.length; }
+    }
+
+    /** How a document differs from its baseline; {@code removed} are baseline elements not found. */
+    public record Diff(int elements, int unchanged, int changed, int added, int removed) {
+        /** Share of the document's elements that were changed or added. */
+        public double density() { return elements == 0 ? 0 : (double) (changed + added) / elements; }
+    }
+
+    private static final class Frame {
+        final String key;
+        final long attrs;
+        long text = FNV_OFFSET, children = FNV_OFFSET;
+        Map<String, Integer> siblings;
+
+        Frame(String key, long attrs) {
+            this.key = key;
+            this.attrs = attrs;
+        }
+
+        String childKey(String name) {
+            if (siblings == null) siblings = new HashMap<>();
+            int n = siblings.merge(name, 1, Integer::sum);
+            return key + "/" + name + "[" + n + "]";
+        }
+    }
+
+    public static Digest of(InputStream in) throws XMLStreamException {
+        XMLStreamReader r = XML.createXMLStreamReader(in);
+        try {
+            Deque<Frame> stack = new ArrayDeque<>();
+            long[] keys = new long[1024], own = new long[1024];
+            int n = 0;
+            long root = FNV_OFFSET;
+            while (r.hasNext()) {
+                switch (r.next()) {
+                    case XMLStreamReader.START_ELEMENT -> {
+                        String name = r.getLocalName();
+                        String id = null;
+                        long attrs = 0; // summed, so attribute order does not matter
+                        for (int i = 0; i < r.getAttributeCount(); i++) {
+                            String a = r.getAttributeLocalName(i), v = r.getAttributeValue(i);
+                            if (a.equals("id")) id = v;
+                            attrs += fold(fold(FNV_OFFSET, a), v);
+                        }
+                        long h = mix(fold(FNV_OFFSET, name), attrs);
+
+                        Frame parent = stack.peek();
+                        String key = id != null ? "#" + id : parent == null ? "/" + name : parent.childKey(name);
+                        stack.push(new Frame(key, h));
+                    }
+                    case XMLStreamReader.CHARACTERS, XMLStreamReader.CDATA -> {
+                        Frame f = stack.peek();
+                        if (f == null) break;
+                        char[] c = r.getTextCharacters();
+                        for (int i = r.getTextStart(), end = i + r.getTextLength(); i < end; i++) {
+                            if (!Character.isWhitespace(c[i])) f.text = (f.text ^ c[i]) * FNV_PRIME;
+                        }
+                    }
+                    case XMLStreamReader.END_ELEMENT -> {
+                        Frame f = stack.pop();
+                        long ownHash = mix(f.attrs, f.text);
+                        long subtree = mix(ownHash, f.children);
+                        if (n == keys.length) {
+                            keys = Arrays.copyOf(keys, n * 2);
+                            own = Arrays.copyOf(own, n * 2);
+                        }
+                        keys[n] = fold(FNV_OFFSET, f.key);
+                        own[n] = ownHash;
+                        n++;
+                        Frame parent = stack.peek();
+                        if (parent != null) parent.children = mix(parent.children, subtree);
+                        else root = subtree;
+                    }
+                    default -> { }
+                }
+            }
+            return sorted(root, keys, own, n);
+        } finally {
+            r.close();
+        }
+    }
+
+    /** Merge walk over both key-sorted digests. */
+    public static Diff compare(Digest doc, Digest baseline) {
+        if (doc.root() == baseline.root()) return new Diff(doc.elements(), doc.elements(), 0, 0, 0);
+        int i = 0, j = 0, unchanged = 0, changed = 0, added = 0, removed = 0;
+        long[] a = doc.keys(), b = baseline.keys();
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) { added++; i++; }
+            else if (i == a.length || b[j] < a[i]) { removed++; j++; }
+            else {
+                if (doc.own()[i] == baseline.own()[j]) unchanged++;
+                else changed++;
+                i++;
+                j++;
+            }
+        }
+        return new Diff(doc.elements(), unchanged, changed, added, removed);
+    }
+
+    private static Digest sorted(long root, long[] keys, long[] own, int n) {
+        long[][] pairs = new long[n][];
+        for (int i = 0; i < n; i++) pairs[i] = new long[]{keys[i], own[i]};
+        Arrays.sort(pairs, (x, y) -> x[0] != y[0] ? Long.compare(x[0], y[0]) : Long.compare(x[1], y[1]));
+        long[] k = new long[n], o = new long[n];
+        for (int i = 0; i < n; i++) {
+            k[i] = pairs[i][0];
+            o[i] = pairs[i][1];
+        }
+        return new Digest(root, k, o);
+    }
+
+    private static long fold(long h, String s) {
+        if (s != null) {
+            for (int i = 0; i < s.length(); i++) h = (h ^ s.charAt(i)) * FNV_PRIME;
+        }
+        return (h ^ 0xff) * FNV_PRIME; // separator, so "ab","c" differs from "a","bc"
+    }
+
+    private static long mix(long h, long v) {
+        for (int i = 0; i < 8; i++, v >>>= 8) h = (h ^ (v & 0xff)) * FNV_PRIME;
+        return h;
+    }
+
+    /**
+     * Digests of the out-of-the-box presentation and product XMLs of one 7.6.x level, keyed by
+     * SMP-relative path. Bundled baselines are read from {@code /baselines/presentation-<level>.json};
+     * {@code presentation-baseline} writes one from a clean SMP.
+     */
+    public static final class Baseline {
+        public static final List<String> LEVELS = List.of("7.6.0.10", "7.6.1.2", "7.6.1.3");
+        private static final ObjectMapper JSON = new ObjectMapper();
+
+        private final String level;
+        private final Map<String, Digest> docs;
+
+        public Baseline(String level, Map<String, Digest> docs) {
+            this.level = level;
+            this.docs = docs;
+        }
+
+        public String level() { return level; }
+        public Digest get(String path) { return docs.get(path); }
+        public Set<String> paths() { return Collections.unmodifiableSet(docs.keySet()); }
+
+        /** Supported level a version string names ("7.6.1.2", "V7612-..."), or null. */
+        public static String levelOf(String version) {
+            if (version == null) return null;
+            for (String l : LEVELS) {
+                if (version.contains(l) || version.contains("V" + l.replace(".", ""))) return l;
+            }
+            return null;
+        }
+
+        /** The {@link #LEVELS} this build ships a baseline resource for; none unless one was added. */
+        public static List<String> bundledLevels() {
+            List<String> out = new ArrayList<>();
+            for (String l : LEVELS) {
+                if (Baseline.class.getResource(resource(l)) != null) out.add(l);
+            }
+            return out;
+        }
+
+        private static String resource(String level) { return "/baselines/presentation-" + level + ".json"; }
+
+        /** Bundled baseline for {@code level}, or null if none ships with this build. */
+        public static Baseline bundled(String level) throws IOException {
+            if (level == null) return null;
+            try (InputStream in = Baseline.class.getResourceAsStream(resource(level))) {
+                return in == null ? null : read(in);
+            }
+        }
+
+        public static Baseline load(Path file) throws IOException {
+            return read(JSON.readTree(file.toFile()));
+        }
+
+        private static Baseline read(InputStream in) throws IOException { return read(JSON.readTree(in)); }
+
+        private static Baseline read(JsonNode root) throws IOException {
+            JsonNode apps = root.path("documents");
+            if (!apps.isObject()) throw new IOException("Presentation baseline has no documents.");
+            Map<String, Digest> docs = new HashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = apps.fields(); it.hasNext(); ) {
+                var e = it.next();
+                ByteBuffer b = ByteBuffer.wrap(Base64.getDecoder().decode(e.getValue().path("elements").asText("")));
+                int n = b.remaining() / 16;
+                long[] keys = new long[n], own = new long[n];
+                for (int i = 0; i < n; i++) {
+                    keys[i] = b.getLong();
+                    own[i] = b.getLong();
+                }
+                docs.put(e.getKey(), new Digest(Long.parseUnsignedLong(e.getValue().path("root").asText("0"), 16), keys, own));
+            }
+            return new Baseline(root.path("level").asText(null), docs);
+        }
+
+        /** {"level": ..., "documents": {path: {"root": hex, "elements": base64 of (key, own) pairs}}} */
+        public void write(Path file) throws IOException {
+            ObjectNode root = JSON.createObjectNode().put("level", level);
+            ObjectNode out = root.putObject("documents");
+            for (String path : new TreeSet<>(docs.keySet())) {
+                Digest d = docs.get(path);
+                ByteBuffer b = ByteBuffer.allocate(d.elements() * 16);
+                for (int i = 0; i < d.elements(); i++) b.putLong(d.keys()[i]).putLong(d.own()[i]);
+                out.putObject(path)
+                        .put("root", Long.toHexString(d.root()))
+                        .put("elements", Base64.getEncoder().encodeToString(b.array()));
+            }
+            JSON.writeValue(file.toFile(), root);
+        }
+    }
+}
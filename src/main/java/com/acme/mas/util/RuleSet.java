@@ -0,0 +1,84 @@
+package com.acme.mas.util;
+
+import com.acme.mas.util.MultiPatternMatcher.Match;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Text-matching rules loaded from a JSON resource and compiled once into a
+ * {@link MultiPatternMatcher}, so new patterns are a data change rather than a code change.
+ *
+ * <pre>
+ * { "rules": [ { "id": "AS-01", "name": "mxserver_singleton", "category": "runtime_state",
+ *                "severity": "AMBER", "description": "...",
+ *                "regex": "\\bMXServer\\s*\\.\\s*getMXServer\\s*\\(", "anchors": ["getmxserver"] } ] }
+ * </pre>
+ *
+ * Regexes are case-insensitive unless {@code case_sensitive} is true. Every match must contain
+ * one of the rule's {@code anchors} (ASCII literals, compared case-insensitively); a rule with no
+ * anchors is checked against every text.
+ */
+public final class RuleSet {
+
+    public record Def(String id, String name, String category, String severity, String description,
+                      String regex, List<String> anchors, boolean caseSensitive) {}
+
+    private record File(String description, List<Def> rules) {}
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final List<Def> defs;
+    private final MultiPatternMatcher matcher;
+
+    private RuleSet(List<Def> defs) {
+        this.defs = List.copyOf(defs);
+        List<MultiPatternMatcher.Rule> rules = new ArrayList<>();
+        for (Def d : defs) {
+            if (d.id() == null || d.regex() == null) throw new IllegalArgumentException("Every rule needs an id and a regex.");
+            Pattern p;
+            try { p = Pattern.compile(d.regex(), d.caseSensitive() ? 0 : Pattern.CASE_INSENSITIVE); }
+            catch (PatternSyntaxException e) { throw new IllegalArgumentException("Rule " + d.id() + ": " + e.getDescription(), e); }
+            rules.add(new MultiPatternMatcher.Rule(p, d.anchors() == null ? List.of() : d.anchors()));
+        }
+        this.matcher = new MultiPatternMatcher(rules);
+    }
+
+    public static RuleSet load(InputStream in) throws IOException {
+        File f = JSON.readValue(in, File.class);
+        if (f.rules() == null || f.rules().isEmpty()) throw new IOException("Rule file lists no rules.");
+        try { return new RuleSet(f.rules()); }
+        catch (IllegalArgumentException e) { throw new IOException(e.getMessage(), e); }
+    }
+
+    /** Loads a bundled rule file (e.g. {@code /rules/automation-scripts.json}); a missing or broken file is a build defect. */
+    public static RuleSet fromResource(String resource) {
+        try (InputStream in = RuleSet.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalStateException("Rule resource not found: " + resource);
+            return load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load rules " + resource + ": " + e.getMessage(), e);
+        }
+    }
+
+    public List<Def> defs() { return defs; }
+    public Def def(int index) { return defs.get(index); }
+    public Def def(Match m) { return defs.get(m.rule()); }
+    public MultiPatternMatcher matcher() { return matcher; }
+
+    public List<Match> matches(CharSequence text, int maxPerRule) { return matcher.matches(text, maxPerRule); }
+    public List<Match> matches(ByteBuffer bytes, int maxPerRule) { return matcher.matches(bytes, maxPerRule); }
+
+    /** {@code text} with every match replaced by {@code mask}. */
+    public String mask(String text, String mask) { return text == null ? null : matcher.replaceAll(text, mask); }
+}
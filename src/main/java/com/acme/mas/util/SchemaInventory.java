@@ -0,0 +1,149 @@
+package com.acme.mas.util;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * In-memory inventory of the Maximo data dictionary, loaded once per assessment by db-baseline:
+ * the schema's table names (one {@link DatabaseMetaData#getTables} call), every MAXOBJECT row,
+ * per-object MAXATTRIBUTE counts and all MAXVARS values, each in one streamed query. Checks look
+ * up table existence, custom objects and version variables here instead of probing the DB.
+ * A source that cannot be read is recorded in {@link #errors()} and left empty.
+ */
+public final class SchemaInventory {
+    private static final int FETCH_SIZE = 1000;
+    private static final String[] TABLE_TYPES = {"TABLE", "VIEW", "SYNONYM", "ALIAS"};
+
+    /** One MAXOBJECT row and its MAXATTRIBUTE counts; {@code table} is ENTITYNAME (null for non-persistent objects). */
+    public record MaxObject(String name, String table, boolean persistent, boolean userDefined,
+                            int attributes, int persistentAttributes, int customAttributes) {}
+
+    private final Set<String> tables = new HashSet<>();
+    private final Map<String, MaxObject> objects = new LinkedHashMap<>();
+    private final Map<String, String> vars = new LinkedHashMap<>();
+    private final Map<String, String> errors = new LinkedHashMap<>();
+    private boolean tablesListed;
+
+    private SchemaInventory() {}
+
+    public static SchemaInventory load(Connection conn, Dialect dialect, String schema) {
+        SchemaInventory inv = new SchemaInventory();
+        inv.listTables(conn, dialect, schema);
+        inv.loadObjects(conn, schema);
+        inv.loadVars(conn, schema);
+        return inv;
+    }
+
+    private void listTables(Connection conn, Dialect dialect, String schema) {
+        try {
+            String owner = schema == null || schema.isBlank() ? conn.getSchema() : dialect.catalogName(schema);
+            DbUtil.metadata(conn, "DatabaseMetaData.getTables(" + owner + ")", md -> {
+                try (ResultSet rs = md.getTables(null, owner, "%", TABLE_TYPES)) {
+                    while (rs.next()) tables.add(key(rs.getString("TABLE_NAME")));
+                }
+                return null;
+            });
+            tablesListed = true;
+        } catch (SQLException | AbstractMethodError e) { // getSchema() is missing from pre-JDBC 4.1 drivers
+            tables.clear(); // a listing cut short by the budget is not a reliable "missing"
+            errors.put("tables", e.getMessage());
+        }
+    }
+
+    private void loadObjects(Connection conn, String schema) {
+        Map<String, int[]> attributeCounts = new HashMap<>();
+        try {
+            DbUtil.forEachRow(conn, "SELECT OBJECTNAME, COUNT(*), SUM(CASE WHEN PERSISTENT = 1 THEN 1 ELSE 0 END)," +
+                    " SUM(CASE WHEN USERDEFINED = 1 THEN 1 ELSE 0 END) FROM " +
+                    DbUtil.qualify(schema, "MAXATTRIBUTE") + " GROUP BY OBJECTNAME", FETCH_SIZE,
+                    rs -> attributeCounts.put(key(rs.getString(1)), new int[]{rs.getInt(2), rs.getInt(3), rs.getInt(4)}));
+        } catch (SQLException e) {
+            errors.put("MAXATTRIBUTE", e.getMessage());
+        }
+        try {
+            DbUtil.forEachRow(conn, "SELECT OBJECTNAME, ENTITYNAME, PERSISTENT, USERDEFINED FROM " +
+                    DbUtil.qualify(schema, "MAXOBJECT"), FETCH_SIZE, rs -> {
+                String name = key(rs.getString(1));
+                int[] a = attributeCounts.getOrDefault(name, new int[3]);
+                objects.put(name, new MaxObject(name, rs.getString(2), rs.getInt(3) != 0, rs.getInt(4) != 0, a[0], a[1], a[2]));
+            });
+        } catch (SQLException e) {
+            objects.clear();
+            errors.put("MAXOBJECT", e.getMessage());
+        }
+    }
+
+    /** First non-blank value per variable; the value column is VARVALUE on most schemas, VALUE on some. */
+    private void loadVars(Connection conn, String schema) {
+        String error = null;
+        for (String column : List.of("VARVALUE", "VALUE")) {
+            try {
+                vars.clear();
+                DbUtil.forEachRow(conn, "SELECT VARNAME, " + column + " FROM " + DbUtil.qualify(schema, "MAXVARS"), FETCH_SIZE, rs -> {
+                    String v = rs.getString(2);
+                    if (v != null && !v.isBlank()) vars.putIfAbsent(key(rs.getString(1)), v);
+                });
+                return;
+            } catch (SQLException e) {
+                if (error == null) error = e.getMessage();
+            }
+        }
+        vars.clear();
+        errors.put("MAXVARS", error);
+    }
+
+    /**
+     * Whether the schema has a table, view or synonym of that name; null when the catalog
+     * listing cannot tell, i.e. it failed or lacks a dictionary table that was just read
+     * (tables reached through synonyms in another schema, say).
+     */
+    public Boolean tableExists(String table) {
+        if (!tablesListed) return null;
+        for (String t : List.of("MAXOBJECT", "MAXVARS")) {
+            if (!errors.containsKey(t) && !tables.contains(t)) return null;
+        }
+        return tables.contains(key(table));
+    }
+
+    /** Whether the bulk query on a dictionary table succeeded; null for tables the inventory does not read. */
+    public Boolean readable(String table) {
+        String t = key(table);
+        if (!t.equals("MAXOBJECT") && !t.equals("MAXATTRIBUTE") && !t.equals("MAXVARS")) return null;
+        return !errors.containsKey(t);
+    }
+
+    public MaxObject object(String name) { return objects.get(key(name)); }
+
+    public Collection<MaxObject> objects() { return Collections.unmodifiableCollection(objects.values()); }
+
+    /** MAXVARS value, or null when the variable is absent or blank. */
+    public String var(String name) { return vars.get(key(name)); }
+
+    /** Sources that could not be read ("tables", "MAXOBJECT", "MAXATTRIBUTE", "MAXVARS") and why. */
+    public Map<String, String> errors() { return Collections.unmodifiableMap(errors); }
+
+    public Map<String, Object> summary() {
+        long persistent = 0, custom = 0, attributes = 0, customAttributes = 0;
+        for (MaxObject o : objects.values()) {
+            if (o.persistent()) persistent++;
+            if (o.userDefined()) custom++;
+            attributes += o.attributes();
+            customAttributes += o.customAttributes();
+        }
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("tables_listed", tablesListed ? tables.size() : null);
+        m.put("objects", objects.size());
+        m.put("persistent_objects", persistent);
+        m.put("custom_objects", custom);
+        m.put("attributes", attributes);
+        m.put("custom_attributes", customAttributes);
+        m.put("maxvars", vars.size());
+        m.put("errors", errors);
+        return m;
+    }
+
+    private static String key(String name) { return name == null ? "" : name.toUpperCase(Locale.ROOT); }
+}
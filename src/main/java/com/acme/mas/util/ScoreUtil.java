@@ -26,6 +26,17 @@ public final class ScoreUtil {
         return hasWarn ? Rag.AMBER : Rag.GREEN;
     }
 
+    /** Wilson score interval {low, high} for a proportion of {@code k} in {@code n} at normal quantile {@code z}. */
+    public static double[] wilsonInterval(long k, long n, double z) {
+        if (n <= 0) return new double[]{0.0, 1.0};
+        double p = (double) k / n;
+        double z2 = z * z;
+        double denom = 1 + z2 / n;
+        double centre = (p + z2 / (2.0 * n)) / denom;
+        double half = z * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / denom;
+        return new double[]{Math.max(0.0, centre - half), Math.min(1.0, centre + half)};
+    }
+
     public static Rag worst(Rag a, Rag b) {
         if (a == Rag.RED || b == Rag.RED) return Rag.RED;
         if (a == Rag.AMBER || b == Rag.AMBER) return Rag.AMBER;
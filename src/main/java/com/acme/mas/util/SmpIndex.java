@@ -0,0 +1,132 @@
+package com.acme.mas.util;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the SMP areas the checks inspect, built with one parallel traversal per area.
+ * Checks answer their questions (counts by extension/prefix, samples, per-file listings)
+ * from the index instead of walking the tree again.
+ */
+public final class SmpIndex {
+
+    /** SMP area a file was found in; doubles as the classification bucket of the entry. */
+    public enum Bucket {
+        CLASSES("maximo/applications/maximo/businessobjects/classes", true),
+        PRESENTATION("maximo/applications/maximo/properties/product", true),
+        APP_PRESENTATIONS("maximo/resources/presentations", true),
+        INTEGRATION("maximo/applications/maximo/integration", true),
+        ETC("maximo/etc", false),
+        TOOLS_BACKUP("maximo/tools/backup", true),
+        TOOLS_PATCH("maximo/tools/patch", true),
+        REPORTS("maximo/reports/birt/reports", true);
+
+        public final String root;
+        public final boolean recursive;
+
+        Bucket(String root, boolean recursive) {
+            this.root = root;
+            this.recursive = recursive;
+        }
+    }
+
+    /** A regular file; {@code path} is relative to its bucket root with '/' separators, {@code ext} is lower-case with the dot. */
+    public record Entry(String path, String ext, long size, long mtime, Bucket bucket) {
+        public String fileName() { return path.substring(path.lastIndexOf('/') + 1); }
+    }
+
+    private final Path smp;
+    private final Map<Bucket, List<Entry>> entries;
+    private final Map<String, Boolean> probes = new ConcurrentHashMap<>();
+    private final Map<Bucket, String> digests = new ConcurrentHashMap<>();
+
+    private SmpIndex(Path smp, Map<Bucket, List<Entry>> entries) {
+        this.smp = smp;
+        this.entries = entries;
+    }
+
+    public static SmpIndex build(Path smp) { return build(smp, null); }
+
+    /** Builds the index, reusing listings of unchanged directories from {@code cache} when given. */
+    public static SmpIndex build(Path smp, ParallelWalker.DirCache cache) {
+        Map<Bucket, List<Entry>> entries = new EnumMap<>(Bucket.class);
+        for (Bucket b : Bucket.values()) entries.put(b, scan(smp.resolve(b.root), b, cache));
+        return new SmpIndex(smp, entries);
+    }
+
+    private static List<Entry> scan(Path root, Bucket b, ParallelWalker.DirCache cache) {
+        List<Entry> out = ParallelWalker.shared().walk(root, b.recursive ? Integer.MAX_VALUE : 1, cache, ArrayList::new,
+                (acc, p, a) -> acc.add(entry(root.relativize(p).toString(), a, b)),
+                (x, y) -> { x.addAll(y); return x; });
+        out.sort(Comparator.comparing(Entry::path));
+        return List.copyOf(out);
+    }
+
+    static Entry entry(String rel, BasicFileAttributes a, Bucket b) {
+        String path = rel.replace('\\', '/');
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        int dot = name.lastIndexOf('.');
+        String ext = dot < 0 ? "" : name.substring(dot).toLowerCase(Locale.ROOT);
+        return new Entry(path, ext, a.size(), a.lastModifiedTime().toMillis(), b);
+    }
+
+    public Path smp() { return smp; }
+    public Path root(Bucket b) { return smp.resolve(b.root); }
+    public boolean rootExists(Bucket b) { return exists(b.root); }
+    public List<Entry> entries(Bucket b) { return entries.get(b); }
+
+    public long fileCount() {
+        long n = 0;
+        for (List<Entry> l : entries.values()) n += l.size();
+        return n;
+    }
+
+    /**
+     * Digest of the bucket's listing (paths, sizes and mtimes, plus whether the root exists), so
+     * a later run can tell the bucket is unchanged without reading any file. Inherits the scan
+     * cache's blind spot: in-place edits are missed when the listing came from the cache.
+     */
+    public String digest(Bucket b) {
+        return digests.computeIfAbsent(b, k -> {
+            Fingerprint f = new Fingerprint().addAll(k.root, rootExists(k));
+            for (Entry e : entries.get(k)) f.addAll(e.path(), e.size(), e.mtime());
+            return f.hex();
+        });
+    }
+
+    /** Memoised existence probe for a path relative to the SMP root (structure markers, version files). */
+    public boolean exists(String rel) {
+        return probes.computeIfAbsent(rel, r -> Files.exists(smp.resolve(r)));
+    }
+
+    public boolean isRegularFile(String rel) {
+        return probes.computeIfAbsent(rel + "#file", r -> Files.isRegularFile(smp.resolve(rel)));
+    }
+
+    public long countByExt(Bucket b, Set<String> exts, int sampleLimit, List<String> sampleOut) {
+        long count = 0;
+        for (Entry e : entries.get(b)) {
+            if (!exts.contains(e.ext())) continue;
+            count++;
+            if (sampleOut != null && sampleOut.size() < sampleLimit) sampleOut.add(e.path());
+        }
+        return count;
+    }
+
+    /** Counts files directly under the bucket root whose lower-cased name starts with {@code prefix}. */
+    public long countByPrefix(Bucket b, String prefix, int sampleLimit, List<String> sampleOut) {
+        String pfx = prefix.toLowerCase(Locale.ROOT);
+        long count = 0;
+        for (Entry e : entries.get(b)) {
+            if (e.path().indexOf('/') >= 0) continue;
+            String name = e.path().toLowerCase(Locale.ROOT);
+            if (!name.startsWith(pfx)) continue;
+            count++;
+            if (sampleOut != null && sampleOut.size() < sampleLimit) sampleOut.add(name);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,137 @@
+package com.acme.mas.util;
+
+import com.acme.mas.util.ParallelWalker.CachedFile;
+import com.acme.mas.util.ParallelWalker.Listing;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk cache of SMP directory listings keyed by directory mtime, so repeat scans of an SMP
+ * that is mostly unchanged only re-list the directories that changed.
+ *
+ * Adding, removing or renaming a file changes its directory's mtime; editing a file in place
+ * does not, so cached sizes/mtimes of edited files can be stale (names and counts are not).
+ * Directories modified within {@link #RACY_WINDOW_MS} of the previous scan are always re-listed.
+ */
+public final class SmpScanCache implements ParallelWalker.DirCache {
+    private static final int FORMAT_VERSION = 1;
+    private static final long RACY_WINDOW_MS = 2_000;
+    private static final int MAX_DEFLATE_RATIO = 1032; // deflate's ceiling; bounds counts read back
+    private static final int DIR_MIN_BYTES = 2 + 8 + 8 + 4 + 4; // empty name, mtimes, two counts
+    private static final int FILE_MIN_BYTES = 2 + 8 + 8;
+
+    private final Path file;
+    private final Map<String, Listing> previous;
+    private final Map<String, Listing> current = new ConcurrentHashMap<>();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong rescanned = new AtomicLong();
+
+    private SmpScanCache(Path file, Map<String, Listing> previous) {
+        this.file = file;
+        this.previous = previous;
+    }
+
+    /** Opens the cache for {@code smp} in {@code cacheDir}; {@code invalidate} ignores whatever is on disk. */
+    public static SmpScanCache open(Path cacheDir, Path smp, boolean invalidate) {
+        Path file = cacheDir.resolve("smp-" + key(smp) + ".bin");
+        Map<String, Listing> previous = Map.of();
+        if (!invalidate && Files.isRegularFile(file)) {
+            try { previous = read(file); } catch (IOException | RuntimeException ignored) { } // corrupt cache = full rescan
+        }
+        return new SmpScanCache(file, previous);
+    }
+
+    @Override
+    public Listing lookup(Path dir, long mtime) {
+        String k = dir.toString();
+        Listing l = previous.get(k);
+        if (l == null || l.mtime() != mtime || mtime >= l.scannedAt() - RACY_WINDOW_MS) return null;
+        current.put(k, l);
+        reused.incrementAndGet();
+        return l;
+    }
+
+    @Override
+    public void store(Path dir, Listing listing) {
+        current.put(dir.toString(), listing);
+        rescanned.incrementAndGet();
+    }
+
+    public long reusedDirs() { return reused.get(); }
+    public long rescannedDirs() { return rescanned.get(); }
+    public Path file() { return file; }
+
+    /** Writes the listings seen in this run; directories that no longer exist are dropped. */
+    public void save() throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp"); // unique: fleet runs may share an SMP
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(current.size());
+            for (Map.Entry<String, Listing> e : new TreeMap<>(current).entrySet()) {
+                Listing l = e.getValue();
+                out.writeUTF(e.getKey());
+                out.writeLong(l.mtime());
+                out.writeLong(l.scannedAt());
+                out.writeInt(l.files().size());
+                for (CachedFile f : l.files()) {
+                    out.writeUTF(f.name());
+                    out.writeLong(f.size());
+                    out.writeLong(f.mtime());
+                }
+                out.writeInt(l.dirs().size());
+                for (String d : l.dirs()) out.writeUTF(d);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Map<String, Listing> read(Path file) throws IOException {
+        // No count can exceed what the file could inflate to, so a corrupt header fails here
+        // rather than in an allocation.
+        long maxBytes = Files.size(file) * MAX_DEFLATE_RATIO;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != FORMAT_VERSION) return Map.of();
+            int n = count(in, DIR_MIN_BYTES, maxBytes);
+            Map<String, Listing> out = new HashMap<>(Math.min(n, 4096) * 2);
+            for (int i = 0; i < n; i++) {
+                String dir = in.readUTF();
+                long mtime = in.readLong();
+                long scannedAt = in.readLong();
+                int nf = count(in, FILE_MIN_BYTES, maxBytes);
+                List<CachedFile> files = new ArrayList<>(Math.min(nf, 4096));
+                for (int j = 0; j < nf; j++) files.add(new CachedFile(in.readUTF(), in.readLong(), in.readLong()));
+                int nd = count(in, 2, maxBytes);
+                List<String> dirs = new ArrayList<>(Math.min(nd, 4096));
+                for (int j = 0; j < nd; j++) dirs.add(in.readUTF());
+                out.put(dir, new Listing(mtime, scannedAt, files, dirs));
+            }
+            return out;
+        }
+    }
+
+    private static int count(DataInputStream in, int minBytesEach, long maxBytes) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || (long) n * minBytesEach > maxBytes) throw new IOException("Corrupt scan cache: count " + n);
+        return n;
+    }
+
+    private static String key(Path smp) {
+        try {
+            byte[] h = MessageDigest.getInstance("SHA-256").digest(smp.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(h, 0, 8);
+        } catch (Exception e) {
+            return Integer.toHexString(smp.toAbsolutePath().normalize().toString().hashCode());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.acme.mas.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-check resource accounting. {@link com.acme.mas.checks.CheckRunner} installs a recorder on
+ * the thread running a check; {@link DbUtil}, {@link FsUtil} and {@link ParallelWalker} report
+ * into whatever recorder is current, so checks themselves need no instrumentation.
+ *
+ * CPU time and allocated bytes come from {@link ThreadMXBean} and cover the check's own thread
+ * only; work it hands to the walker pool shows up as wall time and files visited.
+ */
+public final class Telemetry {
+    private static final ThreadLocal<Telemetry> CURRENT = new ThreadLocal<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final int MAX_STATEMENTS = 200;
+    private static final int MAX_SQL_CHARS = 500;
+
+    public record Query(String sql, double ms, boolean ok) {}
+
+    private final List<Query> statements = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong queryCount = new AtomicLong();
+    private final AtomicLong queryNanos = new AtomicLong();
+    private final AtomicLong failedQueries = new AtomicLong();
+    private final LongAdder filesVisited = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+
+    private long startNanos, startCpu, startAlloc;
+    private long wallNanos, cpuNanos = -1, allocatedBytes = -1;
+
+    private Telemetry() {}
+
+    /** Starts recording on the current thread. */
+    public static Telemetry start() {
+        Telemetry t = new Telemetry();
+        t.startCpu = cpuTime();
+        t.startAlloc = allocatedBytes();
+        t.startNanos = System.nanoTime();
+        CURRENT.set(t);
+        return t;
+    }
+
+    /** Stops recording; must be called on the thread that called {@link #start()}. */
+    public void stop() {
+        wallNanos = System.nanoTime() - startNanos;
+        long cpu = cpuTime(), alloc = allocatedBytes();
+        if (startCpu >= 0 && cpu >= 0) cpuNanos = cpu - startCpu;
+        if (startAlloc >= 0 && alloc >= 0) allocatedBytes = alloc - startAlloc;
+        if (CURRENT.get() == this) CURRENT.remove();
+    }
+
+    /** Recorder installed on the calling thread, or null outside a check. */
+    public static Telemetry current() { return CURRENT.get(); }
+
+    /** Records a statement started at {@code startNanos} against the current recorder, if any. */
+    public static void query(String sql, long startNanos, boolean ok) {
+        Telemetry t = CURRENT.get();
+        if (t == null) return;
+        long nanos = System.nanoTime() - startNanos;
+        t.queryCount.incrementAndGet();
+        t.queryNanos.addAndGet(nanos);
+        if (!ok) t.failedQueries.incrementAndGet();
+        if (t.statements.size() < MAX_STATEMENTS) t.statements.add(new Query(abbreviate(sql), nanos / 1e6, ok));
+    }
+
+    public static void bytesRead(long n) {
+        Telemetry t = CURRENT.get();
+        if (t != null) t.bytesRead.add(n);
+    }
+
+    /** Safe to call from any thread once obtained via {@link #current()}. */
+    public void fileVisited() { filesVisited.increment(); }
+
+    /** Like {@link #bytesRead(long)} but for worker threads; safe to call from any thread. */
+    public void addBytesRead(long n) { bytesRead.add(n); }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> q = new LinkedHashMap<>();
+        q.put("count", queryCount.get());
+        q.put("failed", failedQueries.get());
+        q.put("total_ms", round(queryNanos.get() / 1e6));
+        List<Map<String, Object>> sql = new ArrayList<>();
+        synchronized (statements) {
+            for (Query s : statements) {
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("sql", s.sql());
+                m.put("ms", round(s.ms()));
+                m.put("ok", s.ok());
+                sql.add(m);
+            }
+        }
+        q.put("statements", sql);
+        q.put("statements_truncated", queryCount.get() > sql.size());
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("wall_ms", round(wallNanos / 1e6));
+        m.put("cpu_ms", cpuNanos < 0 ? null : round(cpuNanos / 1e6));
+        m.put("allocated_bytes", allocatedBytes < 0 ? null : allocatedBytes);
+        m.put("files_visited", filesVisited.sum());
+        m.put("bytes_read", bytesRead.sum());
+        m.put("queries", q);
+        return m;
+    }
+
+    /** Fixed-width table of {@link #toMap()} entries keyed by check id, for the console. */
+    public static String summaryTable(Map<String, Map<String, Object>> byCheck) {
+        StringBuilder sb = new StringBuilder();
+        String fmt = "%-34s %10s %10s %12s %8s %10s %10s %12s%n";
+        sb.append(String.format(Locale.ROOT, fmt, "check", "wall_ms", "cpu_ms", "alloc_mb", "queries", "query_ms", "files", "bytes_read"));
+        for (var e : byCheck.entrySet()) {
+            Map<String, Object> m = e.getValue();
+            @SuppressWarnings("unchecked")
+            Map<String, Object> q = (Map<String, Object>) m.get("queries");
+            Object alloc = m.get("allocated_bytes");
+            sb.append(String.format(Locale.ROOT, fmt, e.getKey(),
+                    m.get("wall_ms"),
+                    m.get("cpu_ms") == null ? "n/a" : m.get("cpu_ms"),
+                    alloc == null ? "n/a" : String.format(Locale.ROOT, "%.1f", ((Number) alloc).longValue() / 1048576.0),
+                    q.get("count"), q.get("total_ms"), m.get("files_visited"), m.get("bytes_read")));
+        }
+        return sb.toString();
+    }
+
+    private static long cpuTime() {
+        try { return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1; }
+        catch (UnsupportedOperationException e) { return -1; }
+    }
+
+    private static long allocatedBytes() {
+        try {
+            if (THREADS instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled()) {
+                return sun.getCurrentThreadAllocatedBytes();
+            }
+        } catch (UnsupportedOperationException ignored) {}
+        return -1;
+    }
+
+    private static String abbreviate(String sql) {
+        String s = sql == null ? "" : sql.replaceAll("\\s+", " ").trim();
+        return s.length() <= MAX_SQL_CHARS ? s : s.substring(0, MAX_SQL_CHARS) + "...";
+    }
+
+    private static double round(double ms) { return Math.round(ms * 100) / 100.0; }
+}
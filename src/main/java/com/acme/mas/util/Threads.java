@@ -0,0 +1,41 @@
+package com.acme.mas.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where check tasks and blocking probes run. This is the Java 17 variant: daemon platform
+ * threads. The {@code java21} build profile packs a multi-release jar whose
+ * {@code META-INF/versions/21} copy of this class runs them on virtual threads instead; both
+ * variants must keep the same public methods.
+ */
+public final class Threads {
+    private Threads() {}
+
+    /** "platform" or "virtual", recorded in the report header. */
+    public static String mode() { return "platform"; }
+
+    /** Daemon platform threads named {@code name-1}, {@code name-2}, ... */
+    public static ThreadFactory daemon(String name) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** Runs at most {@code limit} tasks at a time: here a fixed pool of {@code limit} daemon threads. */
+    public static ExecutorService executor(String name, int limit) {
+        return Executors.newFixedThreadPool(Math.max(1, limit), daemon(name));
+    }
+
+    /**
+     * Unbounded executor for blocking probes that wait on each other's results (a directory task
+     * joining its subdirectories), or null when there is none and callers should keep their
+     * fork/join strategy, as on Java 17. Callers bound the I/O in flight with their own semaphores.
+     */
+    public static ExecutorService probes(String name) { return null; }
+}
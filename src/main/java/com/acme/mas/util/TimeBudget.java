@@ -0,0 +1,108 @@
+package com.acme.mas.util;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline for the check running on the current thread (the earlier of its own budget and the
+ * run's overall deadline). {@link DbUtil} clamps each statement's query timeout to the time left
+ * and registers it while it executes; when the deadline passes, registered statements are
+ * cancelled so the check can return with whatever it has. If it still has not returned after
+ * the grace period, {@code onAbandon} runs so the caller can stop waiting for it.
+ */
+public final class TimeBudget {
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private static final ThreadLocal<TimeBudget> CURRENT = new ThreadLocal<>();
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "mas9-budget");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final long deadlineNanos;
+    private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean expired;
+    private ScheduledFuture<?> expiry;
+    private ScheduledFuture<?> abandon;
+
+    private TimeBudget(long deadlineNanos) { this.deadlineNanos = deadlineNanos; }
+
+    /** Absolute deadline {@code seconds} from now on the {@link System#nanoTime()} clock; {@link #NO_DEADLINE} if not positive. */
+    public static long deadlineAfter(long seconds) {
+        return seconds <= 0 ? NO_DEADLINE : System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    /** Installs a budget on the current thread. */
+    public static TimeBudget start(long deadlineNanos, long graceMillis, Runnable onAbandon) {
+        TimeBudget b = new TimeBudget(deadlineNanos);
+        CURRENT.set(b);
+        if (deadlineNanos != NO_DEADLINE) {
+            long delay = Math.max(0, deadlineNanos - System.nanoTime());
+            b.expiry = TIMER.schedule(() -> {
+                b.expire();
+                if (onAbandon != null) b.abandon = TIMER.schedule(onAbandon, graceMillis, TimeUnit.MILLISECONDS);
+            }, delay, TimeUnit.NANOSECONDS);
+        }
+        return b;
+    }
+
+    /** Removes the budget from the current thread and cancels its timers. */
+    public void stop() {
+        if (expiry != null) expiry.cancel(false);
+        if (abandon != null) abandon.cancel(false);
+        if (CURRENT.get() == this) CURRENT.remove();
+    }
+
+    /** Budget of the calling thread, or null outside a check. */
+    public static TimeBudget current() { return CURRENT.get(); }
+
+    public boolean hasDeadline() { return deadlineNanos != NO_DEADLINE; }
+
+    public boolean expired() { return expired || (hasDeadline() && System.nanoTime() >= deadlineNanos); }
+
+    public long remainingMillis() {
+        if (!hasDeadline()) return Long.MAX_VALUE;
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /** Clamps the statement's query timeout to the time left and tracks it until {@link #release}. */
+    public void apply(Statement st) throws SQLException {
+        if (expired()) throw new SQLTimeoutException("Time budget exhausted.");
+        if (hasDeadline()) {
+            int remaining = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (remainingMillis() + 999) / 1000));
+            int current = st.getQueryTimeout();
+            st.setQueryTimeout(current <= 0 ? remaining : Math.min(current, remaining));
+        }
+        running.add(st);
+        if (expired) { // expired while registering: expire() may have missed it
+            running.remove(st);
+            throw new SQLTimeoutException("Time budget exhausted.");
+        }
+    }
+
+    public void release(Statement st) { running.remove(st); }
+
+    /**
+     * Whether {@code e} means the calling check should stop issuing queries: a statement timeout,
+     * or any failure once its budget has expired (drivers report a cancel in different ways).
+     */
+    public static boolean stopped(SQLException e) {
+        TimeBudget b = current();
+        return e instanceof SQLTimeoutException || (b != null && b.expired());
+    }
+
+    private void expire() {
+        expired = true;
+        for (Statement st : running) {
+            try { st.cancel(); } catch (SQLException ignored) {}
+        }
+    }
+}
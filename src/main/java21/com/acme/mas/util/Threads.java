@@ -0,0 +1,67 @@
+package com.acme.mas.util;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Java 21 variant of {@code Threads} (see the Java 17 class for the contract), packed into
+ * {@code META-INF/versions/21} by the {@code java21} profile: every task gets its own virtual
+ * thread, so thousands of blocked probes cost no more than their stacks. Concurrency is bounded
+ * by semaphores rather than pool sizes: {@link #executor}'s limit here, the
+ * {@link ConnectionPool} for DB connections and {@link ParallelWalker} for open file handles.
+ */
+public final class Threads {
+    private Threads() {}
+
+    public static String mode() { return "virtual"; }
+
+    public static ThreadFactory daemon(String name) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** One virtual thread per task; tasks beyond {@code limit} park until a running one finishes. */
+    public static ExecutorService executor(String name, int limit) {
+        return new Limited(probes(name), Math.max(1, limit));
+    }
+
+    public static ExecutorService probes(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+    }
+
+    private static final class Limited extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        Limited(ExecutorService delegate, int limit) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(limit, true);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(() -> {
+                try { permits.acquire(); }
+                catch (InterruptedException e) { return; }
+                try { task.run(); }
+                finally { permits.release(); }
+            });
+        }
+
+        @Override public void shutdown() { delegate.shutdown(); }
+        @Override public List<Runnable> shutdownNow() { return delegate.shutdownNow(); }
+        @Override public boolean isShutdown() { return delegate.isShutdown(); }
+        @Override public boolean isTerminated() { return delegate.isTerminated(); }
+        @Override public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException { return delegate.awaitTermination(timeout, unit); }
+    }
+}